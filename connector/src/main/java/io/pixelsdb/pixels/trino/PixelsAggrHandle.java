@@ -40,6 +40,14 @@ public class PixelsAggrHandle
     private final List<FunctionType> functionTypes;
     private final PixelsTableHandle originTable;
 
+    /**
+     * @param aggrColumns the columns to aggregate
+     * @param aggrResultColumns the columns of the aggregation results
+     * @param groupKeyColumns the group-key columns
+     * @param outputColumns the columns in the aggregation output
+     * @param functionTypes the aggregation functions
+     * @param originTable the table to aggregate
+     */
     @JsonCreator
     public PixelsAggrHandle(
             @JsonProperty("aggrColumns") List<PixelsColumnHandle> aggrColumns,
@@ -100,6 +108,14 @@ public class PixelsAggrHandle
         return originTable;
     }
 
+    /**
+     * @return true if the aggregation has no group keys, its output has exactly one row
+     */
+    public boolean isGlobalAggregation()
+    {
+        return groupKeyColumns.isEmpty();
+    }
+
     @Override
     public boolean equals(Object o)
     {
@@ -219,6 +219,11 @@ public class PixelsConnector implements Connector
 
     private void toDoBeforeTransTermination(PixelsTransactionHandle transHandle) throws TransException
     {
+        /*
+         * Drop the compiled filters of the transaction. Trino only terminates the transactions on the
+         * coordinator, the filters cached on the other workers are dropped when they expire.
+         */
+        this.pageSourceProvider.invalidateFilters(transHandle.getTransId());
         /* PIXELS-506: update the scan bytes and the cost cents in transaction context, they will be
          * used for the calculation of billed cents. Cost cents in the transaction handle is the
          * amount of money spent on cf workers, vm costs will be added later in the listener.
@@ -329,6 +334,8 @@ public class PixelsConnector implements Connector
             lifeCycleManager.stop();
             // PIXELS-715: no need to shut down the default transaction service.
             this.queryScheduleService.shutdown();
+            this.pageSourceProvider.shutdown();
+            this.splitManager.shutdown();
             PixelsWorkerCoordinator.shutdown();
         } catch (Exception e)
         {
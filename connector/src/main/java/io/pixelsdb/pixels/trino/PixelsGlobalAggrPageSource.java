@@ -0,0 +1,344 @@
+/*
+ * Copyright 2026 PixelsDB.
+ *
+ * This file is part of Pixels.
+ *
+ * Pixels is free software: you can redistribute it and/or modify
+ * it under the terms of the Affero GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * Pixels is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * Affero GNU General Public License for more details.
+ *
+ * You should have received a copy of the Affero GNU General Public
+ * License along with Pixels.  If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package io.pixelsdb.pixels.trino;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.Closer;
+import io.pixelsdb.pixels.executor.aggregation.FunctionType;
+import io.pixelsdb.pixels.trino.exception.PixelsErrorCode;
+import io.trino.spi.Page;
+import io.trino.spi.TrinoException;
+import io.trino.spi.block.Block;
+import io.trino.spi.block.BlockBuilder;
+import io.trino.spi.connector.ConnectorPageSource;
+import io.trino.spi.type.DecimalType;
+import io.trino.spi.type.Int128;
+import io.trino.spi.type.Type;
+import io.trino.spi.type.TypeOperators;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Throwables.throwIfUnchecked;
+import static io.trino.spi.function.InvocationConvention.InvocationArgumentConvention.BLOCK_POSITION;
+import static io.trino.spi.function.InvocationConvention.InvocationReturnConvention.FAIL_ON_NULL;
+import static io.trino.spi.function.InvocationConvention.simpleConvention;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.DoubleType.DOUBLE;
+import static io.trino.spi.type.RealType.REAL;
+import static java.lang.Float.floatToRawIntBits;
+import static java.lang.Float.intBitsToFloat;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The page source that reads the outputs of the final aggregation workers of a global aggregation (i.e.,
+ * an aggregation without group keys) executed by pixels-turbo. Each worker aggregates a partition of the
+ * input, thus the rows of all the workers are merged into the single result row: the results of count and
+ * sum are added, and the results of min and max are compared. The merged row is returned after all the
+ * outputs are read. If none of them contains a row, the default row of the global aggregation is returned,
+ * in which the result of count is 0 and the results of the other aggregation functions are null.
+ */
+public class PixelsGlobalAggrPageSource implements ConnectorPageSource
+{
+    private static final TypeOperators TYPE_OPERATORS = new TypeOperators();
+
+    private final PixelsAggrHandle aggrHandle;
+    private final List<PixelsColumnHandle> columns;
+    private final List<ConnectorPageSource> sources;
+    /**
+     * The aggregation function and the comparison operator (only for min and max) of each output column.
+     */
+    private final FunctionType[] functionTypes;
+    private final MethodHandle[] comparators;
+    /**
+     * The single-position blocks of the merged result row, a block is null until a worker outputs a non-null value.
+     */
+    private final Block[] merged;
+    private int current = 0;
+    private long outputRows = 0;
+    private boolean finished = false;
+
+    /**
+     * @param aggrHandle the handle of the global aggregation
+     * @param columns the columns to output
+     * @param sources the page sources of the outputs of the final aggregation workers
+     */
+    public PixelsGlobalAggrPageSource(PixelsAggrHandle aggrHandle, List<PixelsColumnHandle> columns,
+                                      List<ConnectorPageSource> sources)
+    {
+        this.aggrHandle = requireNonNull(aggrHandle, "aggrHandle is null");
+        checkArgument(aggrHandle.isGlobalAggregation(), "aggrHandle is not a global aggregation");
+        this.columns = ImmutableList.copyOf(requireNonNull(columns, "columns is null"));
+        this.sources = ImmutableList.copyOf(requireNonNull(sources, "sources is null"));
+        this.functionTypes = new FunctionType[this.columns.size()];
+        this.comparators = new MethodHandle[this.columns.size()];
+        this.merged = new Block[this.columns.size()];
+        for (int i = 0; i < this.columns.size(); ++i)
+        {
+            PixelsColumnHandle column = this.columns.get(i);
+            int index = aggrHandle.getAggrResultColumns().indexOf(column);
+            checkArgument(index >= 0, "column %s is not an aggregation result", column);
+            this.functionTypes[i] = aggrHandle.getFunctionTypes().get(index);
+            Type type = column.getColumnType();
+            switch (this.functionTypes[i])
+            {
+                case COUNT:
+                    checkArgument(type == BIGINT, "the result of count must be bigint: %s", type);
+                    break;
+                case SUM:
+                    checkArgument(type == BIGINT || type == DOUBLE || type == REAL || type instanceof DecimalType,
+                            "the result type %s of sum is not supported", type);
+                    break;
+                case MIN:
+                    // NaN is the largest in the comparison and thus ignored by min, the same as Trino.
+                    this.comparators[i] = TYPE_OPERATORS.getComparisonUnorderedLastOperator(
+                            type, simpleConvention(FAIL_ON_NULL, BLOCK_POSITION, BLOCK_POSITION));
+                    break;
+                case MAX:
+                    // NaN is the smallest in the comparison and thus ignored by max, the same as Trino.
+                    this.comparators[i] = TYPE_OPERATORS.getComparisonUnorderedFirstOperator(
+                            type, simpleConvention(FAIL_ON_NULL, BLOCK_POSITION, BLOCK_POSITION));
+                    break;
+                default:
+                    throw new TrinoException(PixelsErrorCode.PIXELS_QUERY_EXECUTION_CF_ERROR,
+                            "aggregation function " + this.functionTypes[i] + " can not be merged");
+            }
+        }
+    }
+
+    @Override
+    public long getCompletedBytes()
+    {
+        long completedBytes = 0;
+        for (ConnectorPageSource source : sources)
+        {
+            completedBytes += source.getCompletedBytes();
+        }
+        return completedBytes;
+    }
+
+    @Override
+    public long getReadTimeNanos()
+    {
+        long readTimeNanos = 0;
+        for (ConnectorPageSource source : sources)
+        {
+            readTimeNanos += source.getReadTimeNanos();
+        }
+        return readTimeNanos;
+    }
+
+    @Override
+    public boolean isFinished()
+    {
+        return finished;
+    }
+
+    @Override
+    public Page getNextPage()
+    {
+        if (finished)
+        {
+            return null;
+        }
+        while (current < sources.size())
+        {
+            ConnectorPageSource source = sources.get(current);
+            if (source.isFinished())
+            {
+                current++;
+                continue;
+            }
+            if (!source.isBlocked().isDone())
+            {
+                return null;
+            }
+            Page page = source.getNextPage();
+            if (page != null)
+            {
+                for (int position = 0; position < page.getPositionCount(); ++position)
+                {
+                    mergeRow(page, position);
+                }
+                outputRows += page.getPositionCount();
+            }
+            return null;
+        }
+        finished = true;
+        if (outputRows > 0)
+        {
+            Block[] blocks = new Block[merged.length];
+            for (int i = 0; i < merged.length; ++i)
+            {
+                // the result is null if the aggregated values of all the workers are null.
+                blocks[i] = merged[i] != null ? merged[i] :
+                        columns.get(i).getColumnType().createBlockBuilder(null, 1).appendNull().build();
+            }
+            return new Page(1, blocks);
+        }
+        return createDefaultPage(aggrHandle, columns);
+    }
+
+    private void mergeRow(Page page, int position)
+    {
+        for (int i = 0; i < merged.length; ++i)
+        {
+            Block block = page.getBlock(i);
+            if (block.isNull(position))
+            {
+                // the nulls are ignored by the aggregation functions.
+                continue;
+            }
+            if (merged[i] == null)
+            {
+                merged[i] = block.getSingleValueBlock(position);
+                continue;
+            }
+            Type type = columns.get(i).getColumnType();
+            switch (functionTypes[i])
+            {
+                case COUNT:
+                case SUM:
+                    merged[i] = add(type, merged[i], block, position);
+                    break;
+                case MIN:
+                    if (compare(comparators[i], block, position, merged[i]) < 0)
+                    {
+                        merged[i] = block.getSingleValueBlock(position);
+                    }
+                    break;
+                case MAX:
+                    if (compare(comparators[i], block, position, merged[i]) > 0)
+                    {
+                        merged[i] = block.getSingleValueBlock(position);
+                    }
+                    break;
+            }
+        }
+    }
+
+    private static Block add(Type type, Block sum, Block block, int position)
+    {
+        BlockBuilder blockBuilder = type.createBlockBuilder(null, 1);
+        if (type == DOUBLE)
+        {
+            type.writeDouble(blockBuilder, type.getDouble(sum, 0) + type.getDouble(block, position));
+        }
+        else if (type == REAL)
+        {
+            float value = intBitsToFloat((int) type.getLong(sum, 0)) +
+                    intBitsToFloat((int) type.getLong(block, position));
+            type.writeLong(blockBuilder, floatToRawIntBits(value));
+        }
+        else if (type.getJavaType() == Int128.class)
+        {
+            // long decimal, Int128.valueOf throws ArithmeticException on overflow.
+            Int128 left = (Int128) type.getObject(sum, 0);
+            Int128 right = (Int128) type.getObject(block, position);
+            type.writeObject(blockBuilder, Int128.valueOf(left.toBigInteger().add(right.toBigInteger())));
+        }
+        else
+        {
+            // bigint and short decimal
+            type.writeLong(blockBuilder, Math.addExact(type.getLong(sum, 0), type.getLong(block, position)));
+        }
+        return blockBuilder.build();
+    }
+
+    private static long compare(MethodHandle comparator, Block block, int position, Block current)
+    {
+        try
+        {
+            return (long) comparator.invokeExact(block, position, current, 0);
+        } catch (Throwable e)
+        {
+            throwIfUnchecked(e);
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Create the single-row page of a global aggregation on empty input.
+     * @param aggrHandle the handle of the global aggregation
+     * @param columns the aggregation result columns to output
+     * @return the page in which the result of count is 0 and the other results are null
+     */
+    static Page createDefaultPage(PixelsAggrHandle aggrHandle, List<PixelsColumnHandle> columns)
+    {
+        List<PixelsColumnHandle> resultColumns = aggrHandle.getAggrResultColumns();
+        List<FunctionType> functionTypes = aggrHandle.getFunctionTypes();
+        Block[] blocks = new Block[columns.size()];
+        for (int i = 0; i < columns.size(); ++i)
+        {
+            PixelsColumnHandle column = columns.get(i);
+            int index = resultColumns.indexOf(column);
+            checkArgument(index >= 0, "column %s is not an aggregation result", column);
+            Type type = column.getColumnType();
+            BlockBuilder blockBuilder = type.createBlockBuilder(null, 1);
+            if (functionTypes.get(index) == FunctionType.COUNT)
+            {
+                type.writeLong(blockBuilder, 0L);
+            }
+            else
+            {
+                blockBuilder.appendNull();
+            }
+            blocks[i] = blockBuilder.build();
+        }
+        return new Page(1, blocks);
+    }
+
+    @Override
+    public long getMemoryUsage()
+    {
+        long memoryUsage = 0;
+        for (ConnectorPageSource source : sources)
+        {
+            memoryUsage += source.getMemoryUsage();
+        }
+        return memoryUsage;
+    }
+
+    @Override
+    public CompletableFuture<?> isBlocked()
+    {
+        if (current < sources.size())
+        {
+            return sources.get(current).isBlocked();
+        }
+        return NOT_BLOCKED;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        finished = true;
+        try (Closer closer = Closer.create())
+        {
+            for (ConnectorPageSource source : sources)
+            {
+                closer.register(source);
+            }
+        }
+    }
+}
@@ -42,26 +42,51 @@ import io.pixelsdb.pixels.planner.plan.logical.Table;
 import io.pixelsdb.pixels.trino.exception.PixelsErrorCode;
 import io.pixelsdb.pixels.trino.impl.PixelsMetadataProxy;
 import io.pixelsdb.pixels.trino.impl.PixelsTrinoConfig;
+import io.pixelsdb.pixels.trino.properties.PixelsSessionProperties;
 import io.trino.spi.TrinoException;
 import io.trino.spi.connector.*;
 import io.trino.spi.expression.ConnectorExpression;
 import io.trino.spi.expression.Variable;
+import io.trino.spi.predicate.Domain;
+import io.trino.spi.predicate.Range;
 import io.trino.spi.predicate.TupleDomain;
 import io.trino.spi.security.TrinoPrincipal;
+import io.trino.spi.block.Block;
+import io.trino.spi.statistics.ColumnStatisticMetadata;
 import io.trino.spi.statistics.ColumnStatistics;
+import io.trino.spi.statistics.ComputedStatistics;
 import io.trino.spi.statistics.DoubleRange;
 import io.trino.spi.statistics.Estimate;
 import io.trino.spi.statistics.TableStatistics;
+import io.trino.spi.statistics.TableStatisticsMetadata;
+import io.trino.spi.type.CharType;
+import io.trino.spi.type.Type;
+import io.trino.spi.type.VarbinaryType;
+import io.trino.spi.type.VarcharType;
 
 import java.nio.ByteBuffer;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Verify.verify;
 import static com.google.common.base.Verify.verifyNotNull;
 import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.Iterables.getOnlyElement;
 import static io.pixelsdb.pixels.trino.properties.PixelsTableProperties.PATHS;
 import static io.pixelsdb.pixels.trino.properties.PixelsTableProperties.STORAGE;
+import static io.trino.spi.statistics.ColumnStatisticType.MAX_VALUE;
+import static io.trino.spi.statistics.ColumnStatisticType.MIN_VALUE;
+import static io.trino.spi.statistics.ColumnStatisticType.NUMBER_OF_DISTINCT_VALUES;
+import static io.trino.spi.statistics.ColumnStatisticType.NUMBER_OF_NON_NULL_VALUES;
+import static io.trino.spi.statistics.ColumnStatisticType.TOTAL_SIZE_IN_BYTES;
+import static io.trino.spi.statistics.TableStatisticType.ROW_COUNT;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.DateType.DATE;
+import static io.trino.spi.type.DoubleType.DOUBLE;
+import static io.trino.spi.type.IntegerType.INTEGER;
+import static io.trino.spi.type.SmallintType.SMALLINT;
+import static io.trino.spi.type.TinyintType.TINYINT;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toList;
 
@@ -75,11 +100,24 @@ public class PixelsMetadata implements ConnectorMetadata
     private static final Logger logger = Logger.get(PixelsMetadata.class);
     private static final JsonCodec<ConnectorViewDefinition> ViewCodec =
             new JsonCodecFactory(new ObjectMapperProvider()).jsonCodec(ConnectorViewDefinition.class);
+    /**
+     * The maximum count of the top-n that can be pushed down, the top-n rows of a split are
+     * retained in memory and returned in a single page.
+     */
+    private static final long MAX_TOP_N_COUNT = 10000;
 
     private final String connectorId;
     private final PixelsMetadataProxy metadataProxy;
     private final PixelsTrinoConfig config;
     private final PixelsTransactionHandle transHandle;
+    /**
+     * The memoized table statistics in this transaction.
+     */
+    private final Map<TableStatisticsKey, TableStatistics> tableStatisticsCache = new ConcurrentHashMap<>();
+    /**
+     * The row count and the parsed column statistics of the tables in this transaction.
+     */
+    private final Map<SchemaTableName, SummarizedTableStatistics> summarizedStatisticsCache = new ConcurrentHashMap<>();
 
     public PixelsMetadata(PixelsConnectorId connectorId, PixelsMetadataProxy metadataProxy,
                           PixelsTrinoConfig config, PixelsTransactionHandle transHandle)
@@ -166,7 +204,8 @@ public class PixelsMetadata implements ConnectorMetadata
                         tableName.getTableName() + "_" + UUID.randomUUID()
                                 .toString().replace("-", ""),
                         columns, TupleDomain.all(), // match all tuples at the beginning.
-                        Table.TableType.BASE, null, null, table.getStorageScheme(), storagePaths);
+                        Table.TableType.BASE, null, null, table.getStorageScheme(), storagePaths,
+                        OptionalLong.empty(), null);
                 return tableHandle;
             }
         } catch (MetadataException e)
@@ -461,21 +500,92 @@ public class PixelsMetadata implements ConnectorMetadata
     public Optional<LimitApplicationResult<ConnectorTableHandle>> applyLimit(
             ConnectorSession session, ConnectorTableHandle handle, long limit)
     {
-        return ConnectorMetadata.super.applyLimit(session, handle, limit);
+        PixelsTableHandle tableHandle = (PixelsTableHandle) handle;
+        if (tableHandle.getTableType() != Table.TableType.BASE)
+        {
+            // the join and aggregation executed in pixels-turbo do not support limit.
+            logger.debug("[limit push down is rejected: only base table is supported]");
+            return Optional.empty();
+        }
+        if (tableHandle.getLimit().isPresent() && tableHandle.getLimit().getAsLong() <= limit)
+        {
+            // returns empty means reject limit push down.
+            return Optional.empty();
+        }
+        if (tableHandle.getTopNHandle() != null)
+        {
+            logger.debug("[limit push down is rejected: the table has a top-n]");
+            return Optional.empty();
+        }
+
+        PixelsTableHandle.Builder builder = tableHandle.toBuilder();
+        builder.setLimit(OptionalLong.of(limit));
+        /*
+         * Each split produces at most limit visible rows, hence Trino has to apply the limit again on the
+         * union of the splits. The splits are not selected by the numbers of rows in the file footers, as
+         * they include the deleted rows and the rows invisible to the transaction.
+         */
+        logger.debug("limit push down on table " + tableHandle.getTableName() + ": " + limit);
+        return Optional.of(new LimitApplicationResult<>(builder.build(), false, false));
     }
 
+    /**
+     * Push down the top-n with a single sort column into the base table. Each page source visits the
+     * row groups in the order of the min/max statistics of the sort column, skips the row groups that
+     * can not beat the current k-th value, and only returns its local top-n rows. Trino still applies
+     * the top-n on the union of the splits, hence the top-n is not guaranteed.
+     */
     @Override
-    public Optional<ConstraintApplicationResult<ConnectorTableHandle>> applyFilter(
-            ConnectorSession session, ConnectorTableHandle handle, Constraint constraint)
+    public Optional<TopNApplicationResult<ConnectorTableHandle>> applyTopN(
+            ConnectorSession session, ConnectorTableHandle handle, long topNCount, List<SortItem> sortItems,
+            Map<String, ColumnHandle> assignments)
     {
-        if (transHandle.getExecutorType() != ExecutorType.CF)
+        PixelsTableHandle tableHandle = (PixelsTableHandle) handle;
+        if (tableHandle.getTableType() != Table.TableType.BASE || tableHandle.getLimit().isPresent() ||
+                tableHandle.getTopNHandle() != null)
+        {
+            logger.debug("[top-n push down is rejected: only base table without limit or top-n is supported]");
+            return Optional.empty();
+        }
+        if (topNCount > MAX_TOP_N_COUNT || sortItems.size() != 1)
         {
-            // Issue #60: Trino's filters are currently more efficient, so pushdown should only be used for pixels-turbo.
+            logger.debug("[top-n push down is rejected: only single sort column and count <= " +
+                    MAX_TOP_N_COUNT + " is supported]");
             return Optional.empty();
         }
+        SortItem sortItem = sortItems.get(0);
+        SortOrder sortOrder = sortItem.getSortOrder();
+        if (sortOrder != SortOrder.ASC_NULLS_LAST && sortOrder != SortOrder.DESC_NULLS_LAST)
+        {
+            logger.debug("[top-n push down is rejected: nulls first is not supported]");
+            return Optional.empty();
+        }
+        PixelsColumnHandle sortColumn = (PixelsColumnHandle) assignments.get(sortItem.getName());
+        if (sortColumn == null || !PixelsTopNCollector.isSupportedType(sortColumn.getColumnType()))
+        {
+            logger.debug("[top-n push down is rejected: the type of sort column is not supported]");
+            return Optional.empty();
+        }
+
+        PixelsTableHandle.Builder builder = tableHandle.toBuilder();
+        builder.setTopNHandle(new PixelsTopNHandle(sortColumn, sortOrder.isAscending(), topNCount));
+        logger.debug("top-n push down on table " + tableHandle.getTableName() + ": " + sortItem + " " + topNCount);
+        return Optional.of(new TopNApplicationResult<>(builder.build(), false, false));
+    }
 
+    @Override
+    public Optional<ConstraintApplicationResult<ConnectorTableHandle>> applyFilter(
+            ConnectorSession session, ConnectorTableHandle handle, Constraint constraint)
+    {
         PixelsTableHandle tableHandle = (PixelsTableHandle) handle;
 
+        if (tableHandle.getLimit().isPresent() || tableHandle.getTopNHandle() != null)
+        {
+            // the filter on a limited table can not be applied before the limit or top-n.
+            logger.debug("[filter push down is rejected: the table has a limit]");
+            return Optional.empty();
+        }
+
         TupleDomain<PixelsColumnHandle> oldDomain = tableHandle.getConstraint();
         TupleDomain<PixelsColumnHandle> newDomain = oldDomain.intersect(constraint.getSummary()
             .transformKeys(PixelsColumnHandle.class::cast));
@@ -486,6 +596,14 @@ public class PixelsMetadata implements ConnectorMetadata
             // all is the default constraint.
             remainingFilter = TupleDomain.all();
         }
+        else if (!PixelsPageSourceProvider.isRowFilterEnabled(session, transHandle))
+        {
+            /*
+             * Issue #60: the pushed down constraint is always used to skip the row groups by statistics,
+             * while the rows are filtered by Trino unless row-level filtering is enabled in the connector.
+             */
+            remainingFilter = constraint.getSummary();
+        }
         else
         {
             remainingFilter = TupleDomain.withColumnDomains(new HashMap<>());
@@ -502,7 +620,8 @@ public class PixelsMetadata implements ConnectorMetadata
                 tableHandle.getSchemaName(), tableHandle.getTableName(),
                 tableHandle.getTableAlias(), tableHandle.getColumns(), newDomain,
                 tableHandle.getTableType(), tableHandle.getJoinHandle(),
-                tableHandle.getAggrHandle(), tableHandle.getStorageScheme(), tableHandle.getStoragePaths());
+                tableHandle.getAggrHandle(), tableHandle.getStorageScheme(), tableHandle.getStoragePaths(),
+                tableHandle.getLimit(), tableHandle.getTopNHandle());
 
         // pushing down without statistics pre-calculation.
         logger.debug("filter push down on " + newDomain.toString(session));
@@ -538,7 +657,8 @@ public class PixelsMetadata implements ConnectorMetadata
                         tableHandle.getTableName(),tableHandle.getTableAlias(),
                         newColumns, tableHandle.getConstraint(), tableHandle.getTableType(),
                         tableHandle.getJoinHandle(), tableHandle.getAggrHandle(),
-                        tableHandle.getStorageScheme(), tableHandle.getStoragePaths()),
+                        tableHandle.getStorageScheme(), tableHandle.getStoragePaths(), tableHandle.getLimit(),
+                        tableHandle.getTopNHandle()),
                 projections,
                 assignments.entrySet().stream().map(assignment -> new Assignment(
                         assignment.getKey(), assignment.getValue(),
@@ -550,14 +670,94 @@ public class PixelsMetadata implements ConnectorMetadata
     @Override
     public TableStatistics getTableStatistics(ConnectorSession session, ConnectorTableHandle table)
     {
-        TableStatistics.Builder tableStatBuilder = TableStatistics.builder();
         PixelsTableHandle tableHandle = (PixelsTableHandle) table;
+        /*
+         * The optimizer gets the statistics of the same table handle many times, e.g., during join reordering.
+         * This metadata instance is bound to the transaction, so the statistics are memoized in this instance.
+         */
+        TableStatisticsKey key = new TableStatisticsKey(tableHandle);
+        TableStatistics tableStatistics = this.tableStatisticsCache.get(key);
+        if (tableStatistics == null)
+        {
+            tableStatistics = computeTableStatistics(tableHandle);
+            this.tableStatisticsCache.put(key, tableStatistics);
+        }
+        return tableStatistics;
+    }
+
+    private TableStatistics computeTableStatistics(PixelsTableHandle tableHandle)
+    {
+        SummarizedTableStatistics summary = getSummarizedTableStatistics(tableHandle);
+        if (summary == SummarizedTableStatistics.NOT_EXIST)
+        {
+            return TableStatistics.empty();
+        }
+
+        /*
+         * Estimate the selectivity of the pushed down constraint, assuming the columns are independent.
+         * The statistics of the filtered columns are narrowed to the values that pass the filter.
+         */
+        TupleDomain<PixelsColumnHandle> constraint = tableHandle.getConstraint();
+        double selectivity = constraint.isNone() ? 0.0 : 1.0;
+        Map<PixelsColumnHandle, SummarizedColumnStatistics> filteredColumns = new HashMap<>();
+        if (!constraint.isNone() && constraint.getDomains().isPresent())
+        {
+            for (Map.Entry<PixelsColumnHandle, Domain> entry : constraint.getDomains().get().entrySet())
+            {
+                SummarizedColumnStatistics columnSummary = summary.getColumnStatistics(entry.getKey(), this.metadataProxy);
+                double columnSelectivity = columnSummary.estimateSelectivity(entry.getKey().getColumnType(), entry.getValue());
+                selectivity *= columnSelectivity;
+                filteredColumns.put(entry.getKey(),
+                        columnSummary.filter(entry.getKey().getColumnType(), entry.getValue(), columnSelectivity));
+            }
+        }
+
+        TableStatistics.Builder tableStatBuilder = TableStatistics.builder();
+        double rowCount = summary.rowCount * selectivity;
+        if (tableHandle.getLimit().isPresent())
+        {
+            rowCount = Math.min(rowCount, tableHandle.getLimit().getAsLong());
+        }
+        tableStatBuilder.setRowCount(Estimate.of(rowCount));
+        logger.debug("table '" + tableHandle.getTableName() + "' row count: " + rowCount +
+                ", selectivity of the constraint: " + selectivity);
+
+        for (PixelsColumnHandle columnHandle : tableHandle.getColumns())
+        {
+            SummarizedColumnStatistics columnSummary = filteredColumns.get(columnHandle);
+            if (columnSummary == null)
+            {
+                columnSummary = summary.getColumnStatistics(columnHandle, this.metadataProxy);
+            }
+            tableStatBuilder.setColumnStatistics(columnHandle, columnSummary.toColumnStatistics(rowCount, selectivity));
+        }
+
+        return tableStatBuilder.build();
+    }
+
+    private SummarizedTableStatistics getSummarizedTableStatistics(PixelsTableHandle tableHandle)
+    {
+        SummarizedTableStatistics summary = this.summarizedStatisticsCache.get(tableHandle.getSchemaTableName());
+        if (summary == null)
+        {
+            summary = summarizeTableStatistics(tableHandle);
+            this.summarizedStatisticsCache.put(tableHandle.getSchemaTableName(), summary);
+        }
+        return summary;
+    }
+
+    /**
+     * Get the row count and the column statistics of the table from the metadata service.
+     * The column statistics are parsed lazily when they are first used.
+     */
+    private SummarizedTableStatistics summarizeTableStatistics(PixelsTableHandle tableHandle)
+    {
         try
         {
             // PIXELS-423: Trino may try to get statistics on synthetic tables, for example on tpch-q7.
             if (!metadataProxy.existTable(tableHandle.getSchemaName(), tableHandle.getTableName()))
             {
-                return TableStatistics.empty();
+                return SummarizedTableStatistics.NOT_EXIST;
             }
         } catch (MetadataException e)
         {
@@ -578,21 +778,482 @@ public class PixelsMetadata implements ConnectorMetadata
         {
             long rowCount = metadataProxy.getTable(
                     transHandle.getTransId(), tableHandle.getSchemaName(), tableHandle.getTableName()).getRowCount();
-            tableStatBuilder.setRowCount(Estimate.of(rowCount));
-            logger.debug("table '" + tableHandle.getTableName() + "' row count: " + rowCount);
+            return new SummarizedTableStatistics(rowCount, columnMap);
         } catch (MetadataException e)
         {
             logger.error(e, "failed to get table from metadata service");
             throw new TrinoException(PixelsErrorCode.PIXELS_METASTORE_ERROR, e);
         }
+    }
 
-        for (PixelsColumnHandle columnHandle : tableHandle.getColumns())
+    @Override
+    public ConnectorAnalyzeMetadata getStatisticsCollectionMetadata(
+            ConnectorSession session, ConnectorTableHandle tableHandle, Map<String, Object> analyzeProperties)
+    {
+        PixelsTableHandle pixelsTableHandle = (PixelsTableHandle) tableHandle;
+        if (pixelsTableHandle.getTableType() != Table.TableType.BASE)
+        {
+            throw new TrinoException(PixelsErrorCode.PIXELS_SQL_EXECUTE_ERROR,
+                    "only base tables can be analyzed");
+        }
+        ImmutableSet.Builder<ColumnStatisticMetadata> columnStatistics = ImmutableSet.builder();
+        for (PixelsColumnHandle column : pixelsTableHandle.getColumns())
+        {
+            Type type = column.getColumnType();
+            columnStatistics.add(new ColumnStatisticMetadata(column.getColumnName(), NUMBER_OF_NON_NULL_VALUES));
+            if (type.isComparable())
+            {
+                // Trino computes the number of distinct values by HyperLogLog in the partial aggregations.
+                columnStatistics.add(new ColumnStatisticMetadata(column.getColumnName(), NUMBER_OF_DISTINCT_VALUES));
+            }
+            if (isRecordRangeSupported(type))
+            {
+                // the range is stored in the record statistics of the column, see SummarizedColumnStatistics.
+                columnStatistics.add(new ColumnStatisticMetadata(column.getColumnName(), MIN_VALUE));
+                columnStatistics.add(new ColumnStatisticMetadata(column.getColumnName(), MAX_VALUE));
+            }
+            if (type instanceof VarcharType || type instanceof CharType || type instanceof VarbinaryType)
+            {
+                columnStatistics.add(new ColumnStatisticMetadata(column.getColumnName(), TOTAL_SIZE_IN_BYTES));
+            }
+        }
+        return new ConnectorAnalyzeMetadata(tableHandle, new TableStatisticsMetadata(
+                columnStatistics.build(), ImmutableSet.of(ROW_COUNT), ImmutableList.of()));
+    }
+
+    @Override
+    public ConnectorTableHandle beginStatisticsCollection(ConnectorSession session, ConnectorTableHandle tableHandle)
+    {
+        return tableHandle;
+    }
+
+    /**
+     * @return true if the minimum and maximum values of the type can be stored in the record statistics of a column
+     */
+    private static boolean isRecordRangeSupported(Type type)
+    {
+        return type == BIGINT || type == INTEGER || type == SMALLINT || type == TINYINT ||
+                type == DOUBLE || type == DATE;
+    }
+
+    /**
+     * Apply the column statistics computed by ANALYZE to the columns. The columns may be cached by the
+     * metadata service client, hence they are not modified, and the updated copies of them are returned.
+     * @param columns the columns of the table
+     * @param columnTypes the types of the columns, keyed by the column names
+     * @param rowCount the number of rows in the table
+     * @param columnStatistics the computed column statistics
+     * @return the updated copies of the columns that have any statistics
+     */
+    static Collection<Column> applyColumnStatistics(List<Column> columns, Map<String, Type> columnTypes,
+                                                    long rowCount, Map<ColumnStatisticMetadata, Block> columnStatistics)
+    {
+        Map<String, Column> columnMap = new HashMap<>(columns.size());
+        for (Column column : columns)
+        {
+            columnMap.put(column.getName(), column);
+        }
+        Map<String, Column> updatedColumns = new LinkedHashMap<>();
+        for (Map.Entry<ColumnStatisticMetadata, Block> entry : columnStatistics.entrySet())
+        {
+            String columnName = entry.getKey().getColumnName();
+            Block block = entry.getValue();
+            if (!columnMap.containsKey(columnName) || block.isNull(0))
+            {
+                continue;
+            }
+            Column column = updatedColumns.get(columnName);
+            if (column == null)
+            {
+                column = new Column(columnMap.get(columnName).toProto());
+            }
+            switch (entry.getKey().getStatisticType())
+            {
+                case NUMBER_OF_NON_NULL_VALUES:
+                    long nonNullCount = BIGINT.getLong(block, 0);
+                    column.setNullFraction(rowCount > 0 ? (double) (rowCount - nonNullCount) / rowCount : 0.0);
+                    break;
+                case NUMBER_OF_DISTINCT_VALUES:
+                    column.setCardinality(BIGINT.getLong(block, 0));
+                    break;
+                case TOTAL_SIZE_IN_BYTES:
+                    column.setSize(BIGINT.getLong(block, 0));
+                    break;
+                case MIN_VALUE:
+                case MAX_VALUE:
+                    Type type = columnTypes.get(columnName);
+                    if (type == null || !isRecordRangeSupported(type))
+                    {
+                        continue;
+                    }
+                    updateRecordRange(column, type, entry.getKey().getStatisticType() == MIN_VALUE, block);
+                    break;
+                default:
+                    continue;
+            }
+            updatedColumns.put(columnName, column);
+        }
+        return updatedColumns.values();
+    }
+
+    /**
+     * Set the minimum or the maximum value in the record statistics of the column, the other fields
+     * in the record statistics are kept.
+     * @param column the column to update
+     * @param type the type of the column, it must be supported by {@link #isRecordRangeSupported(Type)}
+     * @param isMinimum true to set the minimum value, false to set the maximum value
+     * @param block the single-value block of the minimum or maximum value
+     */
+    private static void updateRecordRange(Column column, Type type, boolean isMinimum, Block block)
+    {
+        PixelsProto.ColumnStatistic.Builder statsBuilder = PixelsProto.ColumnStatistic.newBuilder();
+        ByteBuffer statsBytes = column.getRecordStats().slice();
+        if (statsBytes.remaining() > 0)
+        {
+            try
+            {
+                statsBuilder.mergeFrom(PixelsProto.ColumnStatistic.parseFrom(statsBytes));
+            } catch (InvalidProtocolBufferException e)
+            {
+                logger.error(e, "failed to parse record statistics of column '" + column.getName() + "', overwrite it");
+            }
+        }
+        if (type == DOUBLE)
+        {
+            PixelsProto.DoubleStatistic.Builder doubleStats = statsBuilder.getDoubleStatisticsBuilder();
+            double value = DOUBLE.getDouble(block, 0);
+            if (isMinimum)
+            {
+                doubleStats.setMinimum(value);
+            }
+            else
+            {
+                doubleStats.setMaximum(value);
+            }
+        }
+        else if (type == DATE)
+        {
+            // the date is stored as the number of days since the epoch.
+            PixelsProto.DateStatistic.Builder dateStats = statsBuilder.getDateStatisticsBuilder();
+            int value = Math.toIntExact(DATE.getLong(block, 0));
+            if (isMinimum)
+            {
+                dateStats.setMinimum(value);
+            }
+            else
+            {
+                dateStats.setMaximum(value);
+            }
+        }
+        else
+        {
+            PixelsProto.IntegerStatistic.Builder intStats = statsBuilder.getIntStatisticsBuilder();
+            long value = type.getLong(block, 0);
+            if (isMinimum)
+            {
+                intStats.setMinimum(value);
+            }
+            else
+            {
+                intStats.setMaximum(value);
+            }
+        }
+        column.setRecordStats(statsBuilder.build().toByteString());
+    }
+
+    /**
+     * Persist the statistics collected by ANALYZE into the table and columns in the metadata service.
+     * The statistics are used by {@link #getTableStatistics(ConnectorSession, ConnectorTableHandle)}
+     * in the following queries.
+     */
+    @Override
+    public void finishStatisticsCollection(ConnectorSession session, ConnectorTableHandle tableHandle,
+                                           Collection<ComputedStatistics> computedStatistics)
+    {
+        PixelsTableHandle pixelsTableHandle = (PixelsTableHandle) tableHandle;
+        String schemaName = pixelsTableHandle.getSchemaName();
+        String tableName = pixelsTableHandle.getTableName();
+        // there is no grouping column, hence there is only one group of statistics.
+        ComputedStatistics statistics = getOnlyElement(computedStatistics);
+        long rowCount = BIGINT.getLong(statistics.getTableStatistics().get(ROW_COUNT), 0);
+
+        List<Column> columns = metadataProxy.getColumnStatistics(transHandle.getTransId(), schemaName, tableName);
+        requireNonNull(columns, "columns is null");
+        Map<String, Type> columnTypes = new HashMap<>();
+        for (PixelsColumnHandle columnHandle : pixelsTableHandle.getColumns())
+        {
+            columnTypes.put(columnHandle.getColumnName(), columnHandle.getColumnType());
+        }
+        Collection<Column> updatedColumns = applyColumnStatistics(
+                columns, columnTypes, rowCount, statistics.getColumnStatistics());
+
+        /*
+         * The metadata service does not support updating the table and the columns in a transaction, thus the
+         * updates are not atomic. The columns are updated before the row count, so that if the update of any
+         * column fails, the row count is not updated and the statistics of the updated columns are overwritten
+         * by the next ANALYZE. Still, the queries during the updates may see the new statistics of some columns
+         * with the old row count.
+         */
+        try
+        {
+            for (Column column : updatedColumns)
+            {
+                if (!this.metadataProxy.updateColumn(column))
+                {
+                    throw new TrinoException(PixelsErrorCode.PIXELS_METASTORE_ERROR, "failed to update the statistics of column '" +
+                            column.getName() + "' in table '" + schemaName + "." + tableName + "'");
+                }
+            }
+            if (!this.metadataProxy.updateRowCount(schemaName, tableName, rowCount))
+            {
+                throw new TrinoException(PixelsErrorCode.PIXELS_METASTORE_ERROR,
+                        "failed to update the row count of table '" + schemaName + "." + tableName + "'");
+            }
+        } catch (MetadataException e)
+        {
+            throw new TrinoException(PixelsErrorCode.PIXELS_METASTORE_ERROR, e);
+        }
+        logger.debug("analyzed table '" + schemaName + "." + tableName + "', row count: " + rowCount +
+                ", updated columns: " + updatedColumns.size());
+
+        // the memoized statistics of this table are stale.
+        SchemaTableName schemaTableName = pixelsTableHandle.getSchemaTableName();
+        this.summarizedStatisticsCache.remove(schemaTableName);
+        this.tableStatisticsCache.keySet().removeIf(key -> key.schemaTableName.equals(schemaTableName));
+    }
+
+    /**
+     * The key of the memoized table statistics, the statistics depend on the table, the columns,
+     * the constraint, and the limit of the table handle.
+     */
+    private static final class TableStatisticsKey
+    {
+        private final SchemaTableName schemaTableName;
+        private final Set<PixelsColumnHandle> columns;
+        private final TupleDomain<PixelsColumnHandle> constraint;
+        private final OptionalLong limit;
+
+        private TableStatisticsKey(PixelsTableHandle tableHandle)
+        {
+            this.schemaTableName = tableHandle.getSchemaTableName();
+            this.columns = ImmutableSet.copyOf(tableHandle.getColumns());
+            this.constraint = tableHandle.getConstraint();
+            this.limit = tableHandle.getLimit();
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            TableStatisticsKey that = (TableStatisticsKey) o;
+            return schemaTableName.equals(that.schemaTableName) && columns.equals(that.columns) &&
+                    constraint.equals(that.constraint) && limit.equals(that.limit);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(schemaTableName, columns, constraint, limit);
+        }
+    }
+
+    /**
+     * The row count and the parsed column statistics of a table.
+     */
+    private static final class SummarizedTableStatistics
+    {
+        private static final SummarizedTableStatistics NOT_EXIST = new SummarizedTableStatistics(0, ImmutableMap.of());
+
+        private final long rowCount;
+        private final Map<String, Column> columns;
+        private final Map<String, SummarizedColumnStatistics> columnStatistics = new ConcurrentHashMap<>();
+
+        private SummarizedTableStatistics(long rowCount, Map<String, Column> columns)
+        {
+            this.rowCount = rowCount;
+            this.columns = columns;
+        }
+
+        private SummarizedColumnStatistics getColumnStatistics(PixelsColumnHandle columnHandle,
+                                                               PixelsMetadataProxy metadataProxy)
+        {
+            return this.columnStatistics.computeIfAbsent(columnHandle.getColumnName(), columnName ->
+                    SummarizedColumnStatistics.of(this.columns.get(columnName), columnHandle, metadataProxy));
+        }
+    }
+
+    /**
+     * The column statistics in primitive form, the range is decoded from the protobuf record statistics once.
+     */
+    static final class SummarizedColumnStatistics
+    {
+        /**
+         * The selectivity of an equality predicate if the number of distinct values is unknown.
+         */
+        private static final double UNKNOWN_EQUALITY_SELECTIVITY = 0.1;
+        /**
+         * The selectivity of a range predicate if the range of the column is unknown.
+         */
+        private static final double UNKNOWN_RANGE_SELECTIVITY = 0.5;
+
+        private final double dataSize;
+        private final double nullFraction;
+        private final double cardinality;
+        private final boolean hasRange;
+        private final double min;
+        private final double max;
+
+        SummarizedColumnStatistics(double dataSize, double nullFraction, double cardinality,
+                                   boolean hasRange, double min, double max)
+        {
+            this.dataSize = dataSize;
+            this.nullFraction = nullFraction;
+            this.cardinality = cardinality;
+            this.hasRange = hasRange;
+            this.min = min;
+            this.max = max;
+        }
+
+        /**
+         * Estimate the fraction of the rows that match the domain on this column. The values are assumed to
+         * be uniformly distributed in the range of the column, and each distinct value has the same frequency.
+         * @param type the type of the column
+         * @param domain the domain on the column
+         * @return the selectivity in [0, 1]
+         */
+        double estimateSelectivity(Type type, Domain domain)
+        {
+            if (domain.isNone())
+            {
+                return 0.0;
+            }
+            double nullFraction = Double.isNaN(this.nullFraction) ? 0.0 : this.nullFraction;
+            double valueSelectivity = domain.getValues().isNone() ? 0.0 : domain.getValues().getValuesProcessor().transform(
+                    ranges -> {
+                        double sum = 0.0;
+                        for (Range range : ranges.getOrderedRanges())
+                        {
+                            sum += estimateRangeSelectivity(type, range);
+                        }
+                        return Math.min(sum, 1.0);
+                    },
+                    discreteValues -> Math.min(discreteValues.getValues().size() * estimateValueSelectivity(), 1.0),
+                    allOrNone -> allOrNone.isAll() ? 1.0 : 0.0);
+            return (domain.isNullAllowed() ? nullFraction : 0.0) + (1.0 - nullFraction) * valueSelectivity;
+        }
+
+        /**
+         * @return the fraction of the non-null values that equal a single value
+         */
+        private double estimateValueSelectivity()
+        {
+            return this.cardinality > 0 ? 1.0 / this.cardinality : UNKNOWN_EQUALITY_SELECTIVITY;
+        }
+
+        private double estimateRangeSelectivity(Type type, Range range)
+        {
+            if (range.isSingleValue())
+            {
+                Optional<Double> value = toDouble(type, range.getSingleValue());
+                if (this.hasRange && value.isPresent() && (value.get() < this.min || value.get() > this.max))
+                {
+                    return 0.0;
+                }
+                return estimateValueSelectivity();
+            }
+            if (range.isAll())
+            {
+                return 1.0;
+            }
+            Optional<Double> low = range.isLowUnbounded() ? Optional.of(this.min) : toDouble(type, range.getLowBoundedValue());
+            Optional<Double> high = range.isHighUnbounded() ? Optional.of(this.max) : toDouble(type, range.getHighBoundedValue());
+            if (!this.hasRange || low.isEmpty() || high.isEmpty())
+            {
+                return UNKNOWN_RANGE_SELECTIVITY;
+            }
+            double overlapLow = Math.max(low.get(), this.min);
+            double overlapHigh = Math.min(high.get(), this.max);
+            if (overlapLow > overlapHigh)
+            {
+                return 0.0;
+            }
+            if (this.max <= this.min)
+            {
+                return 1.0;
+            }
+            return (overlapHigh - overlapLow) / (this.max - this.min);
+        }
+
+        /**
+         * Narrow the statistics of this column to the values that match the domain.
+         * @param type the type of the column
+         * @param domain the domain on the column
+         * @param selectivity the selectivity of the domain
+         * @return the statistics of the matched values
+         */
+        SummarizedColumnStatistics filter(Type type, Domain domain, double selectivity)
+        {
+            if (selectivity <= 0.0)
+            {
+                return new SummarizedColumnStatistics(0.0, 0.0, 0.0, false, Double.NaN, Double.NaN);
+            }
+            double nullFraction = Double.isNaN(this.nullFraction) ? 0.0 : this.nullFraction;
+            double valueSelectivity = nullFraction < 1.0 ?
+                    (selectivity - (domain.isNullAllowed() ? nullFraction : 0.0)) / (1.0 - nullFraction) : 0.0;
+            double cardinality = this.cardinality * Math.max(Math.min(valueSelectivity, 1.0), 0.0);
+            boolean hasRange = this.hasRange;
+            double min = this.min, max = this.max;
+            if (hasRange && !domain.getValues().isAll() && !domain.getValues().isNone() &&
+                    type.isOrderable() && domain.getValues().getRanges() != null)
+            {
+                Range span = domain.getValues().getRanges().getSpan();
+                if (!span.isLowUnbounded())
+                {
+                    min = Math.max(min, toDouble(type, span.getLowBoundedValue()).orElse(min));
+                }
+                if (!span.isHighUnbounded())
+                {
+                    max = Math.min(max, toDouble(type, span.getHighBoundedValue()).orElse(max));
+                }
+                hasRange = min <= max;
+            }
+            return new SummarizedColumnStatistics(this.dataSize,
+                    domain.isNullAllowed() ? Math.min(nullFraction / selectivity, 1.0) : 0.0,
+                    Math.max(cardinality, domain.getValues().isNone() ? 0.0 : 1.0), hasRange, min, max);
+        }
+
+        /**
+         * Convert the statistics of this column into the column statistics of Trino.
+         * @param rowCount the estimated number of rows after applying the constraint on the table
+         * @param selectivity the selectivity of the constraint on the table
+         * @return the column statistics, in which the number of distinct values does not exceed the row count
+         */
+        ColumnStatistics toColumnStatistics(double rowCount, double selectivity)
         {
             ColumnStatistics.Builder columnStatsBuilder = ColumnStatistics.builder();
-            Column column = columnMap.get(columnHandle.getColumnName());
-            columnStatsBuilder.setDataSize(Estimate.of(column.getSize()));
-            columnStatsBuilder.setNullsFraction(Estimate.of(column.getNullFraction()));
-            columnStatsBuilder.setDistinctValuesCount(Estimate.of(column.getCardinality()));
+            columnStatsBuilder.setDataSize(Estimate.of(this.dataSize * selectivity));
+            columnStatsBuilder.setNullsFraction(Estimate.of(this.nullFraction));
+            columnStatsBuilder.setDistinctValuesCount(Estimate.of(Math.min(this.cardinality, rowCount)));
+            if (this.hasRange)
+            {
+                columnStatsBuilder.setRange(new DoubleRange(this.min, this.max));
+            }
+            return columnStatsBuilder.build();
+        }
+
+        /**
+         * Convert a Trino native value to the double representation used in the statistics.
+         */
+        private static Optional<Double> toDouble(Type type, Object value)
+        {
+            return DoubleRange.from(type, value, value).map(DoubleRange::getMin);
+        }
+
+        private static SummarizedColumnStatistics of(Column column, PixelsColumnHandle columnHandle,
+                                                     PixelsMetadataProxy metadataProxy)
+        {
+            Optional<DoubleRange> range = Optional.empty();
             try
             {
                 TypeDescription pixelsType = metadataProxy.parsePixelsType(columnHandle.getColumnType());
@@ -611,18 +1272,18 @@ public class PixelsMetadata implements ConnectorMetadata
                         logger.debug(column.getName() + " column range: {min:" + rangeStats.getMinimum() + ", max:" +
                                 rangeStats.getMaximum() + ", hasMin:" + rangeStats.hasMinimum() +
                                 ", hasMax:" + rangeStats.hasMaximum() + "}");
-                        columnStatsBuilder.setRange(DoubleRange.from(columnHandle.getColumnType(),
-                                rangeStats.getMinimum(), rangeStats.getMaximum()));
+                        range = DoubleRange.from(columnHandle.getColumnType(),
+                                rangeStats.getMinimum(), rangeStats.getMaximum());
                     }
                 }
             } catch (InvalidProtocolBufferException e)
             {
                 logger.error(e, "failed to parse record statistics from protobuf object");
             }
-            tableStatBuilder.setColumnStatistics(columnHandle, columnStatsBuilder.build());
+            return new SummarizedColumnStatistics(column.getSize(), column.getNullFraction(), column.getCardinality(),
+                    range.isPresent(), range.map(DoubleRange::getMin).orElse(Double.NaN),
+                    range.map(DoubleRange::getMax).orElse(Double.NaN));
         }
-
-        return tableStatBuilder.build();
     }
 
     @Override
@@ -632,6 +1293,11 @@ public class PixelsMetadata implements ConnectorMetadata
     {
         if (transHandle.getExecutorType() != ExecutorType.CF)
         {
+            /*
+             * The aggregations on the MPP executor are executed by Trino. Even count, min, and max without group keys
+             * can not be answered by the statistics in the file footers, as such statistics include the deleted rows
+             * and the rows invisible to the transaction, and the metadata does not tell if a table has any deletes.
+             */
             return Optional.empty();
         }
 
@@ -639,16 +1305,26 @@ public class PixelsMetadata implements ConnectorMetadata
 
         if (groupingSets.size() > 1)
         {
+            /*
+             * Trino plans ROLLUP, CUBE, and GROUPING SETS by a GroupIdNode under the aggregation, thus the
+             * aggregation pushed down to the table scan always has a single grouping set.
+             */
             logger.debug("[aggregation push down is rejected: not support multi-grouping-sets]");
             return Optional.empty();
         }
 
         PixelsTableHandle tableHandle = (PixelsTableHandle) handle;
 
-        if (tableHandle.getTableType() != Table.TableType.BASE)
+        if (tableHandle.getTableType() != Table.TableType.BASE && tableHandle.getTableType() != Table.TableType.JOINED)
+        {
+            // the join result is aggregated by the serverless workers, see parseAggregatePlan in PixelsSplitManager.
+            logger.debug("[aggregation push down is rejected: not support aggregation on aggregated table]");
+            return Optional.empty();
+        }
+
+        if (tableHandle.getLimit().isPresent() || tableHandle.getTopNHandle() != null)
         {
-            // TODO: support aggregation on joined table.
-            logger.debug("[aggregation push down is rejected: not support aggregation on joined table]");
+            logger.debug("[aggregation push down is rejected: not support aggregation on limited table]");
             return Optional.empty();
         }
 
@@ -661,16 +1337,10 @@ public class PixelsMetadata implements ConnectorMetadata
         ImmutableList.Builder<PixelsColumnHandle> aggrResultColumns = ImmutableList.builder();
         ImmutableList.Builder<FunctionType> aggrFunctionTypes = ImmutableList.builder();
 
+        // the group keys are empty for a global aggregation, see PixelsGlobalAggrPageSource.
         List<PixelsColumnHandle> groupKeyColumns = groupingSets.get(0).stream()
                 .map(PixelsColumnHandle.class::cast).collect(toImmutableList());
 
-        if (groupKeyColumns == null || groupKeyColumns.isEmpty())
-        {
-            // TODO: support aggregation without group keys.
-            logger.debug("[aggregation push down is rejected: not support aggregation without group keys]");
-            return Optional.empty();
-        }
-
         List<PixelsColumnHandle> tableColumns = tableHandle.getColumns();
 
         Set<PixelsColumnHandle> columnSet = ImmutableSet.copyOf(tableColumns);
@@ -746,7 +1416,7 @@ public class PixelsMetadata implements ConnectorMetadata
         PixelsTableHandle newHandle = new PixelsTableHandle(
                 connectorId, newSchemaName, newTableName, newTableName, newColumns,
                 TupleDomain.all(), Table.TableType.AGGREGATED,
-                null, aggrHandle, null, null);
+                null, aggrHandle, null, null, OptionalLong.empty(), null);
 
         return Optional.of(new AggregationApplicationResult<>(newHandle, projections.build(),
                 resultAssignments.build(), ImmutableMap.of(), false));
@@ -778,6 +1448,13 @@ public class PixelsMetadata implements ConnectorMetadata
             return Optional.empty();
         }
 
+        if (leftTable.getLimit().isPresent() || rightTable.getLimit().isPresent() ||
+                leftTable.getTopNHandle() != null || rightTable.getTopNHandle() != null)
+        {
+            logger.debug("[join push down is rejected: limited tables are not supported in join].");
+            return Optional.empty();
+        }
+
         // get the join keys.
         ImmutableList.Builder<PixelsColumnHandle> leftKeyColumns =
                 ImmutableList.builderWithExpectedSize(joinConditions.size());
@@ -853,7 +1530,7 @@ public class PixelsMetadata implements ConnectorMetadata
 
         PixelsTableHandle joinedTableHandle = new PixelsTableHandle(
                 connectorId, schemaName, tableName, tableName, joinedColumns.build(), TupleDomain.all(),
-                Table.TableType.JOINED, joinHandle, null, null, null);
+                Table.TableType.JOINED, joinHandle, null, null, null, OptionalLong.empty(), null);
 
         return Optional.of(new JoinApplicationResult<>(
                 joinedTableHandle,
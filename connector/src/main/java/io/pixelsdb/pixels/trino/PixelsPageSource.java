@@ -27,16 +27,19 @@ import io.pixelsdb.pixels.common.physical.Storage;
 import io.pixelsdb.pixels.common.physical.natives.MemoryMappedFile;
 import io.pixelsdb.pixels.common.state.StateWatcher;
 import io.pixelsdb.pixels.common.turbo.SimpleOutput;
+import io.pixelsdb.pixels.common.utils.JvmUtils;
 import io.pixelsdb.pixels.core.PixelsFooterCache;
+import io.pixelsdb.pixels.core.PixelsProto;
 import io.pixelsdb.pixels.core.PixelsReader;
 import io.pixelsdb.pixels.core.PixelsReaderImpl;
 import io.pixelsdb.pixels.core.TypeDescription;
 import io.pixelsdb.pixels.core.predicate.PixelsPredicate;
 import io.pixelsdb.pixels.core.reader.PixelsReaderOption;
 import io.pixelsdb.pixels.core.reader.PixelsRecordReader;
+import io.pixelsdb.pixels.core.stats.ColumnStats;
+import io.pixelsdb.pixels.core.stats.StatsRecorder;
 import io.pixelsdb.pixels.core.utils.Bitmap;
 import io.pixelsdb.pixels.core.vector.*;
-import io.pixelsdb.pixels.executor.predicate.TableScanFilter;
 import io.pixelsdb.pixels.trino.block.TimeArrayBlock;
 import io.pixelsdb.pixels.trino.block.VarcharArrayBlock;
 import io.pixelsdb.pixels.trino.exception.PixelsErrorCode;
@@ -46,19 +49,26 @@ import io.trino.spi.Page;
 import io.trino.spi.TrinoException;
 import io.trino.spi.block.*;
 import io.trino.spi.connector.ConnectorPageSource;
+import io.trino.spi.connector.DynamicFilter;
 import io.trino.spi.predicate.Domain;
+import io.trino.spi.predicate.TupleDomain;
 import io.trino.spi.type.Type;
+import sun.misc.Unsafe;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantLock;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
-import static io.trino.spi.type.DoubleType.DOUBLE;
 import static java.util.Objects.requireNonNull;
 
 /**
@@ -75,16 +85,62 @@ class PixelsPageSource implements ConnectorPageSource
     private final PixelsTransactionHandle transactionHandle;
     private final String[] includeCols;
     private final Storage storage;
-    private boolean closed;
+    private volatile boolean closed;
     private PixelsReader pixelsReader;
-    private PixelsRecordReader recordReader;
+    private volatile PixelsRecordReader recordReader;
     private final PixelsCacheReader cacheReader;
     private final PixelsFooterCache footerCache;
     private final CompletableFuture<?> blocked;
     private final int numColumnToRead;
-    private final Optional<TableScanFilter> filter;
+    /**
+     * The dictionaries of the dictionary-encoded columns, indexed by the field id. A dictionary is shared
+     * by the blocks of all the row batches read from the same column chunk.
+     */
+    private final SharedDictionary[] dictionaries;
+    /**
+     * The constraint on the rows to read, including the dynamic filter if it is present.
+     * It is used to build the filter and the predicate, and is updated when the dynamic
+     * filter is completed.
+     */
+    private TupleDomain<PixelsColumnHandle> constraint;
+    private Optional<PixelsRowFilter> filter;
+    /**
+     * Whether the rows are filtered by the constraint in this page source. If false, the constraint is
+     * only used to skip the row groups, and Trino filters the rows.
+     */
+    private final boolean rowFilterEnabled;
+    private final PixelsScanFilterCache filterCache;
+    private final DynamicFilter dynamicFilter;
+    private volatile boolean dynamicFilterApplied;
     private final Bitmap filtered;
     private final Bitmap tmp;
+    /**
+     * The read-ahead stage of this page source, it is null if prefetching is disabled.
+     */
+    private final PixelsRowBatchPrefetcher prefetcher;
+    private final Executor readAheadExecutor;
+    /**
+     * Opens the readers of the next paths in the split in the background.
+     */
+    private final PixelsReaderOpenAhead readerOpenAhead;
+    /**
+     * Guards the current reader, i.e., pixelsReader and recordReader, and the reading on it. It is not
+     * the monitor of this page source, so that {@link #close()} does not wait for the I/O.
+     */
+    private final ReentrantLock readLock = new ReentrantLock();
+    /**
+     * The number of rows that can still be returned by this page source, it is
+     * Long.MAX_VALUE if the split is not limited.
+     */
+    private long remainingRows;
+    /**
+     * The collector of the top-n rows in this split, it is null if the split does not have top-n.
+     */
+    private final PixelsTopNCollector topNCollector;
+    /**
+     * The index of the sort column of the top-n in the columns to read.
+     */
+    private final int topNChannel;
     private long completedBytes = 0L;
     private long readTimeNanos = 0L;
     private long memoryUsage = 0L;
@@ -94,7 +150,10 @@ class PixelsPageSource implements ConnectorPageSource
 
     public PixelsPageSource(PixelsSplit split, List<PixelsColumnHandle> columnHandles, PixelsTransactionHandle transactionHandle,
                             Storage storage, MemoryMappedFile cacheFile, MemoryMappedFile indexFile,
-                            PixelsFooterCache pixelsFooterCache)
+                            PixelsFooterCache pixelsFooterCache, Executor readAheadExecutor,
+                            int prefetchMaxBatches, int maxOpenReaders, boolean rowFilterEnabled,
+                            PixelsScanFilterCache filterCache, TupleDomain<PixelsColumnHandle> constraint,
+                            DynamicFilter dynamicFilter)
     {
         this.split = split;
         this.transactionHandle = transactionHandle;
@@ -114,12 +173,46 @@ class PixelsPageSource implements ConnectorPageSource
             }
         }
         this.numColumnToRead = columnHandles.size();
+        this.dictionaries = new SharedDictionary[this.numColumnToRead];
         this.footerCache = pixelsFooterCache;
         this.batchId = 0;
         this.closed = false;
         this.BatchSize = PixelsTrinoConfig.getBatchSize();
         this.filtered = new Bitmap(this.BatchSize, true);
         this.tmp = new Bitmap(this.BatchSize, false);
+        this.readAheadExecutor = requireNonNull(readAheadExecutor, "readAheadExecutor is null");
+        this.readerOpenAhead = new PixelsReaderOpenAhead(this.readAheadExecutor, this::openReader, maxOpenReaders);
+        this.remainingRows = split.getLimit().orElse(Long.MAX_VALUE);
+        this.rowFilterEnabled = rowFilterEnabled;
+        this.filterCache = requireNonNull(filterCache, "filterCache is null");
+        this.constraint = requireNonNull(constraint, "constraint is null");
+        this.dynamicFilter = requireNonNull(dynamicFilter, "dynamicFilter is null");
+        this.dynamicFilterApplied = dynamicFilter.isComplete();
+        this.topNChannel = split.getTopNHandle() == null ? -1 : columns.indexOf(split.getTopNHandle().getSortColumn());
+        if (this.topNChannel >= 0)
+        {
+            List<Type> types = new ArrayList<>(this.numColumnToRead);
+            for (PixelsColumnHandle column : columns)
+            {
+                types.add(column.getColumnType());
+            }
+            this.topNCollector = new PixelsTopNCollector(types, this.topNChannel,
+                    split.getTopNHandle().isAscending(), (int) split.getTopNHandle().getCount());
+        }
+        else
+        {
+            this.topNCollector = null;
+        }
+        if (prefetchMaxBatches > 0 && this.numColumnToRead > 0 && this.topNCollector == null)
+        {
+            // The zero-column path only counts rows and does not benefit from prefetching.
+            this.prefetcher = new PixelsRowBatchPrefetcher(
+                    this.readAheadExecutor, this::readNextRowBatch, prefetchMaxBatches);
+        }
+        else
+        {
+            this.prefetcher = null;
+        }
 
         this.cacheReader = PixelsCacheReader
                 .newBuilder()
@@ -129,6 +222,7 @@ class PixelsPageSource implements ConnectorPageSource
 
         if (split.getFromServerlessOutput())
         {
+            // the serverless workers have applied the filter, the constraint is only used to prune row groups.
             this.filter = Optional.empty();
             this.blocked = new CompletableFuture<>();
             String stateKey = PixelsTrinoConfig.getOutputStateKeyPrefix(
@@ -156,41 +250,45 @@ class PixelsPageSource implements ConnectorPageSource
         }
         else
         {
-            if (split.getConstraint().getDomains().isPresent())
-            {
-                TableScanFilter scanFilter = PixelsSplitManager.createTableScanFilter(
-                        split.getSchemaName(), split.getTableName(),
-                        includeCols, split.getConstraint());
-                this.filter = Optional.of(scanFilter);
-            } else
-            {
-                this.filter = Optional.empty();
-            }
+            this.filter = compileFilter(this.constraint).getFilter();
             readFirstPath();
             this.blocked = NOT_BLOCKED;
         }
     }
 
-    private void readFirstPath()
+    /**
+     * Get the row filter and the predicate of the constraint. They are compiled once and shared by
+     * the page sources of the splits with the same constraint in a query.
+     * @param constraint the constraint
+     * @return the compiled row filter and predicate
+     */
+    private PixelsScanFilterCache.CompiledFilter compileFilter(TupleDomain<PixelsColumnHandle> constraint)
+    {
+        return this.filterCache.get(split.getTransId(), split.getSchemaName(), split.getTableName(),
+                this.includeCols, split.getColumnOrder(), this.rowFilterEnabled, constraint,
+                () -> new PixelsScanFilterCache.CompiledFilter(createFilter(constraint), createPredicate(constraint)));
+    }
+
+    private Optional<PixelsRowFilter> createFilter(TupleDomain<PixelsColumnHandle> constraint)
     {
-        if (split.isEmpty())
+        if (!this.rowFilterEnabled)
         {
-            this.close();
-            return;
+            return Optional.empty();
         }
+        return PixelsRowFilter.create(split.getSchemaName(), split.getTableName(), includeCols, columns, constraint);
+    }
 
-        this.option = new PixelsReaderOption();
-        this.option.skipCorruptRecords(true);
-        this.option.tolerantSchemaEvolution(true);
-        this.option.enableEncodedColumnVector(true);
-        this.option.includeCols(includeCols);
-        this.option.rgRange(split.getRgStart(), split.getRgLength());
-        this.option.transId(split.getTransId());
-        this.option.timestamp(transactionHandle.getTimestamp());
-
-        if (split.getConstraint().getDomains().isPresent() && !split.getColumnOrder().isEmpty())
+    /**
+     * Create the predicate that is used by the record reader to skip the row groups
+     * whose statistics do not match the constraint.
+     * @param constraint the constraint
+     * @return the predicate, or null if there is no predicate on the constraint
+     */
+    private PixelsPredicate createPredicate(TupleDomain<PixelsColumnHandle> constraint)
+    {
+        if (constraint.getDomains().isPresent() && !constraint.isAll() && !split.getColumnOrder().isEmpty())
         {
-            Map<PixelsColumnHandle, Domain> domains = split.getConstraint().getDomains().get();
+            Map<PixelsColumnHandle, Domain> domains = constraint.getDomains().get();
             List<PixelsTupleDomainPredicate.ColumnReference<PixelsColumnHandle>> columnReferences =
                     new ArrayList<>(domains.size());
             for (Map.Entry<PixelsColumnHandle, Domain> entry : domains.entrySet())
@@ -198,45 +296,116 @@ class PixelsPageSource implements ConnectorPageSource
                 PixelsColumnHandle column = entry.getKey();
                 String columnName = column.getColumnName();
                 int columnOrdinal = split.getColumnOrder().indexOf(columnName);
+                if (columnOrdinal < 0)
+                {
+                    // the column is not in the file, it can not be used to skip row groups.
+                    continue;
+                }
                 columnReferences.add(
                         new PixelsTupleDomainPredicate.ColumnReference<>(
                                 column,
                                 columnOrdinal,
                                 column.getColumnType()));
             }
-            PixelsPredicate predicate = new PixelsTupleDomainPredicate<>(split.getConstraint(), columnReferences);
+            return new PixelsTupleDomainPredicate<>(constraint, columnReferences);
+        }
+        return null;
+    }
+
+    /**
+     * Add the dynamic filter into the constraint if the dynamic filter is completed after this
+     * page source is created. The new filter is applied on the next row batches, and the new
+     * predicate is applied on the next paths in the split.
+     * @return false if the new constraint is none, i.e., there is no more rows to read
+     */
+    private synchronized boolean applyCompletedDynamicFilter()
+    {
+        if (this.dynamicFilterApplied || !this.dynamicFilter.isComplete())
+        {
+            return true;
+        }
+        this.dynamicFilterApplied = true;
+        TupleDomain<PixelsColumnHandle> newConstraint =
+                this.constraint.intersect(getDynamicConstraint(this.dynamicFilter, this.columns));
+        if (newConstraint.equals(this.constraint))
+        {
+            return true;
+        }
+        logger.debug("dynamic filter is applied on split " + split.getSplitId());
+        this.constraint = newConstraint;
+        if (newConstraint.isNone())
+        {
+            return false;
+        }
+        PixelsScanFilterCache.CompiledFilter compiledFilter = compileFilter(newConstraint);
+        this.filter = compiledFilter.getFilter();
+        PixelsPredicate predicate = compiledFilter.getPredicate();
+        if (this.option != null && predicate != null)
+        {
+            this.option.predicate(predicate);
+        }
+        return true;
+    }
+
+    /**
+     * Get the current predicate of the dynamic filter on the columns to read.
+     * @param dynamicFilter the dynamic filter
+     * @param columns the columns to read
+     * @return the constraint of the dynamic filter
+     */
+    static TupleDomain<PixelsColumnHandle> getDynamicConstraint(DynamicFilter dynamicFilter,
+                                                               List<PixelsColumnHandle> columns)
+    {
+        return dynamicFilter.getCurrentPredicate()
+                .transformKeys(PixelsColumnHandle.class::cast)
+                .filter((column, domain) -> columns.contains(column));
+    }
+
+    private void readFirstPath()
+    {
+        if (split.isEmpty() || this.constraint.isNone())
+        {
+            this.close();
+            return;
+        }
+
+        this.option = new PixelsReaderOption();
+        this.option.skipCorruptRecords(true);
+        this.option.tolerantSchemaEvolution(true);
+        this.option.enableEncodedColumnVector(true);
+        this.option.includeCols(includeCols);
+        this.option.rgRange(split.getRgStart(), split.getRgLength());
+        this.option.transId(split.getTransId());
+        this.option.timestamp(transactionHandle.getTimestamp());
+
+        PixelsPredicate predicate = compileFilter(this.constraint).getPredicate();
+        if (predicate != null)
+        {
             this.option.predicate(predicate);
         }
 
+        if (this.topNCollector != null)
+        {
+            // the row groups are read in the order of their statistics by readTopN().
+            return;
+        }
+
+        this.readLock.lock();
         try
         {
-            if (this.storage != null)
-            {
-                this.pixelsReader = PixelsReaderImpl
-                        .newBuilder()
-                        .setStorage(this.storage)
-                        .setPath(split.getPath())
-                        .setEnableCache(split.getCached())
-                        .setCacheOrder(split.getCacheOrder())
-                        .setPixelsCacheReader(cacheReader)
-                        .setPixelsFooterCache(footerCache)
-                        .build();
-                if (this.pixelsReader.getRowGroupNum() <= this.option.getRGStart())
-                {
-                    /**
-                     * As PixelsSplitManager does not check the exact number of row groups
-                     * in the file, the start row group index might be invalid. in this case,
-                     * we can simply close this page source.
-                     */
-                    this.close();
-                } else
-                {
-                    this.recordReader = this.pixelsReader.read(this.option);
-                }
+            this.pixelsReader = this.readerOpenAhead.take(split.currentPathIndex());
+            if (this.pixelsReader.getRowGroupNum() <= this.option.getRGStart())
+            {
+                /**
+                 * As PixelsSplitManager does not check the exact number of row groups
+                 * in the file, the start row group index might be invalid. in this case,
+                 * we can simply close this page source.
+                 */
+                this.close();
             } else
             {
-                logger.error("pixelsReader error: storage handler is null");
-                throw new IOException("pixelsReader error: storage handler is null.");
+                this.recordReader = this.pixelsReader.read(this.option);
+                this.readerOpenAhead.openAhead(split.getPaths().size());
             }
         } catch (IOException e)
         {
@@ -244,43 +413,37 @@ class PixelsPageSource implements ConnectorPageSource
             closeWithSuppression(e);
             throw new TrinoException(PixelsErrorCode.PIXELS_READER_ERROR,
                     "create Pixels reader error.", e);
+        } finally
+        {
+            unlockRead();
         }
     }
 
-    private synchronized boolean readNextPath ()
+    /**
+     * Open the reader of the next path in the split, it must be called with the read lock held.
+     * @return false if there is no more path to read
+     */
+    private boolean readNextPath()
     {
         try
         {
-            if (this.split.nextPath())
+            // the readers opened ahead are dropped when this page source is closed.
+            if (!this.closed && this.split.nextPath())
             {
                 closeReader();
-                if (this.storage != null)
-                {
-                    this.pixelsReader = PixelsReaderImpl
-                            .newBuilder()
-                            .setStorage(this.storage)
-                            .setPath(split.getPath())
-                            .setEnableCache(split.getCached())
-                            .setCacheOrder(split.getCacheOrder())
-                            .setPixelsCacheReader(this.cacheReader)
-                            .setPixelsFooterCache(this.footerCache)
-                            .build();
-                    this.option.rgRange(split.getRgStart(), split.getRgLength());
-                    if (this.pixelsReader.getRowGroupNum() <= this.option.getRGStart())
-                    {
-                        /**
-                         * As PixelsSplitManager does not check the exact number of row groups
-                         * in the file, the start row group index might be invalid. In this case,
-                         * we can simply return false, and the page source will be closed outside.
-                         */
-                        return false;
-                    }
-                    this.recordReader = this.pixelsReader.read(this.option);
-                } else
+                this.pixelsReader = this.readerOpenAhead.take(split.currentPathIndex());
+                this.option.rgRange(split.getRgStart(), split.getRgLength());
+                if (this.pixelsReader.getRowGroupNum() <= this.option.getRGStart())
                 {
-                    logger.error("pixelsReader error: storage handler is null");
-                    throw new IOException("pixelsReader error: storage handler is null");
+                    /**
+                     * As PixelsSplitManager does not check the exact number of row groups
+                     * in the file, the start row group index might be invalid. In this case,
+                     * we can simply return false, and the page source will be closed outside.
+                     */
+                    return false;
                 }
+                this.recordReader = this.pixelsReader.read(this.option);
+                this.readerOpenAhead.openAhead(split.getPaths().size());
                 return true;
             } else
             {
@@ -294,24 +457,231 @@ class PixelsPageSource implements ConnectorPageSource
         }
     }
 
+    private PixelsReader openReader(int pathIndex) throws IOException
+    {
+        if (this.storage == null)
+        {
+            logger.error("pixelsReader error: storage handler is null");
+            throw new IOException("pixelsReader error: storage handler is null.");
+        }
+        return PixelsReaderImpl
+                .newBuilder()
+                .setStorage(this.storage)
+                .setPath(split.getPath(pathIndex))
+                .setEnableCache(split.getCached())
+                .setCacheOrder(split.getCacheOrder())
+                .setPixelsCacheReader(this.cacheReader)
+                .setPixelsFooterCache(this.footerCache)
+                .build();
+    }
+
+    /**
+     * Read the next non-empty row batch from the split, the filter (if present) is applied
+     * on the row batch. The next path of the split is opened when the current one is exhausted.
+     * If prefetching is enabled, this method is called in the read-ahead thread.
+     * @return the row batch, or null if there is no more row batch in this split
+     * @throws IOException if failed to read the row batch
+     */
+    private VectorizedRowBatch readNextRowBatch() throws IOException
+    {
+        this.readLock.lock();
+        try
+        {
+            while (!this.closed && this.recordReader != null && this.remainingRows > 0)
+            {
+                if (!applyCompletedDynamicFilter())
+                {
+                    return null;
+                }
+                // without filter, there is no need to read more rows than the limit.
+                int batchSize = this.filter.isPresent() ? BatchSize : (int) Math.min(BatchSize, this.remainingRows);
+                VectorizedRowBatch rowBatch = this.recordReader.readBatch(batchSize, false);
+                if (rowBatch.size <= 0)
+                {
+                    if (!readNextPath())
+                    {
+                        return null;
+                    }
+                    continue;
+                }
+
+                if (this.filter.isPresent())
+                {
+                    this.filter.get().doFilter(rowBatch, this.filtered, this.tmp);
+                    rowBatch.applyFilter(this.filtered);
+                }
+                if (rowBatch.size > 0)
+                {
+                    if (rowBatch.size > this.remainingRows)
+                    {
+                        // the blocks are built on the first rowBatch.size rows.
+                        rowBatch.size = (int) this.remainingRows;
+                    }
+                    this.remainingRows -= rowBatch.size;
+                    return rowBatch;
+                }
+            }
+            return null;
+        } finally
+        {
+            unlockRead();
+        }
+    }
+
+    /**
+     * Read the top-n rows in this split. The row groups are visited in the order of the statistics
+     * of the sort column, and the row groups that can not beat the current k-th row are skipped.
+     * The readers are opened ahead while collecting the statistics, and at most maxOpenReaders readers
+     * are open at the same time, the least recently used one is closed to open another one.
+     * @return the page of the top-n rows, or null if there is no row
+     * @throws IOException if failed to read the row groups
+     */
+    private Page readTopN() throws IOException
+    {
+        String sortColumnName = this.includeCols[this.topNChannel];
+        int numPaths = split.getPaths().size();
+        // the open readers in the access order, keyed by the path index.
+        LinkedHashMap<Integer, PixelsReader> readers = new LinkedHashMap<>(16, 0.75f, true);
+        try
+        {
+            List<PixelsTopNCollector.RowGroupRange> rowGroups = new ArrayList<>();
+            for (int pathIndex = 0; pathIndex < numPaths; ++pathIndex)
+            {
+                PixelsReader reader = this.readerOpenAhead.take(pathIndex);
+                // reserve the room for the readers of the next paths to be opened ahead.
+                int numOpenAhead = Math.min(this.readerOpenAhead.getMaxOpenReaders() - 1, numPaths - pathIndex - 1);
+                addTopNReader(readers, pathIndex, reader, numOpenAhead);
+                this.readerOpenAhead.openAhead(numPaths);
+                int rgNum = reader.getRowGroupNum();
+                int rgStart = split.getRgStarts().get(pathIndex);
+                int rgLength = split.getRgLengths().get(pathIndex);
+                // the row group range in the split may exceed the actual number of row groups in the file.
+                int rgEnd = rgLength < 0 ? rgNum : (int) Math.min(rgNum, (long) rgStart + rgLength);
+                TypeDescription fileSchema = reader.getFileSchema();
+                int sortColumnIndex = fileSchema.getFieldNames().indexOf(sortColumnName);
+                List<PixelsProto.RowGroupStatistic> rgStats = sortColumnIndex < 0 ? null : reader.getRowGroupStats();
+                for (int rgId = rgStart; rgId < rgEnd; ++rgId)
+                {
+                    ColumnStats stats = null;
+                    if (rgStats != null && rgId < rgStats.size())
+                    {
+                        stats = StatsRecorder.create(fileSchema.getChildren().get(sortColumnIndex),
+                                rgStats.get(rgId).getColumnChunkStats(sortColumnIndex));
+                    }
+                    rowGroups.add(this.topNCollector.getRowGroupRange(pathIndex, rgId, stats));
+                }
+            }
+            rowGroups.sort(this.topNCollector.getVisitOrder());
+
+            int numSkipped = 0;
+            for (PixelsTopNCollector.RowGroupRange rowGroup : rowGroups)
+            {
+                if (this.closed)
+                {
+                    return null;
+                }
+                if (!applyCompletedDynamicFilter())
+                {
+                    break;
+                }
+                if (!this.topNCollector.mayImprove(rowGroup))
+                {
+                    numSkipped++;
+                    continue;
+                }
+                this.option.rgRange(rowGroup.getRgId(), 1);
+                PixelsReader reader = readers.get(rowGroup.getPathIndex());
+                if (reader == null)
+                {
+                    reader = openReader(rowGroup.getPathIndex());
+                    addTopNReader(readers, rowGroup.getPathIndex(), reader, 0);
+                }
+                PixelsRecordReader rgReader = reader.read(this.option);
+                try
+                {
+                    VectorizedRowBatch rowBatch;
+                    while ((rowBatch = rgReader.readBatch(BatchSize, false)).size > 0)
+                    {
+                        if (this.filter.isPresent())
+                        {
+                            this.filter.get().doFilter(rowBatch, this.filtered, this.tmp);
+                            rowBatch.applyFilter(this.filtered);
+                            if (rowBatch.size <= 0)
+                            {
+                                continue;
+                            }
+                        }
+                        Block[] blocks = new Block[this.numColumnToRead];
+                        for (int fieldId = 0; fieldId < blocks.length; ++fieldId)
+                        {
+                            blocks[fieldId] = new PixelsBlockLoader(fieldId, rowBatch.cols[fieldId],
+                                    columns.get(fieldId).getColumnType(), columns.get(fieldId).getTypeCategory(),
+                                    rowBatch.size).load();
+                        }
+                        this.topNCollector.add(new Page(rowBatch.size, blocks));
+                    }
+                } finally
+                {
+                    this.completedBytes += rgReader.getCompletedBytes();
+                    this.readTimeNanos += rgReader.getReadTimeNanos();
+                    this.memoryUsage += rgReader.getMemoryUsage();
+                }
+            }
+            logger.debug("top-n skipped " + numSkipped + " of " + rowGroups.size() + " row groups in split " +
+                    split.getSplitId());
+            return this.topNCollector.build();
+        } finally
+        {
+            for (PixelsReader reader : readers.values())
+            {
+                reader.close();
+            }
+        }
+    }
+
+    /**
+     * Add the reader opened for the top-n into the open readers. The least recently used readers are closed,
+     * so that the open readers and the ones to be opened ahead do not exceed maxOpenReaders.
+     * @param readers the open readers in the access order
+     * @param pathIndex the index of the path of the reader
+     * @param reader the reader
+     * @param numOpenAhead the number of readers to be opened ahead after adding this reader
+     * @throws IOException if failed to close a reader
+     */
+    private void addTopNReader(LinkedHashMap<Integer, PixelsReader> readers, int pathIndex,
+                               PixelsReader reader, int numOpenAhead) throws IOException
+    {
+        // put the reader first, so that it is closed in readTopN() if failed to close the evicted ones.
+        readers.put(pathIndex, reader);
+        Iterator<PixelsReader> eldest = readers.values().iterator();
+        while (readers.size() > 1 && readers.size() + numOpenAhead > this.readerOpenAhead.getMaxOpenReaders())
+        {
+            PixelsReader evicted = eldest.next();
+            eldest.remove();
+            evicted.close();
+        }
+    }
+
     @Override
     public long getCompletedBytes()
     {
+        PixelsRecordReader reader = this.recordReader;
         if (closed)
         {
             return this.completedBytes;
         }
-        return this.completedBytes + (recordReader != null ? recordReader.getCompletedBytes() : 0);
+        return this.completedBytes + (reader != null ? reader.getCompletedBytes() : 0);
     }
 
     @Override
     public long getReadTimeNanos()
     {
+        PixelsRecordReader reader = this.recordReader;
         if (closed)
         {
             return readTimeNanos;
         }
-        return this.readTimeNanos + (recordReader != null ? recordReader.getReadTimeNanos() : 0);
+        return this.readTimeNanos + (reader != null ? reader.getReadTimeNanos() : 0);
     }
 
     @Override
@@ -325,23 +695,35 @@ class PixelsPageSource implements ConnectorPageSource
          * I tested about ten queries on test_1187, there was no problem, but
          * TODO: we still need to be careful about this method in the future.
          */
+        PixelsRecordReader reader = this.recordReader;
         if (closed)
         {
             return memoryUsage;
         }
-        return this.memoryUsage + (recordReader != null ? recordReader.getMemoryUsage() : 0);
+        // the row batches buffered by the read-ahead stage are also retained by this page source.
+        long bufferedBytes = this.prefetcher != null ? this.prefetcher.getBufferedBytes() : 0;
+        if (this.topNCollector != null)
+        {
+            bufferedBytes += this.topNCollector.getRetainedSizeInBytes();
+        }
+        return this.memoryUsage + bufferedBytes + (reader != null ? reader.getMemoryUsage() : 0);
     }
 
     @Override
     public boolean isFinished()
     {
-        return this.closed;
+        // the failure of the read-ahead stage must be thrown by getNextPage() before finishing.
+        return this.closed && (this.prefetcher == null || !this.prefetcher.hasFailed());
     }
 
     @Override
     public CompletableFuture<?> isBlocked()
     {
-        return this.blocked;
+        if (!this.blocked.isDone() || this.prefetcher == null || this.closed)
+        {
+            return this.blocked;
+        }
+        return this.prefetcher.isBlocked();
     }
 
     @Override
@@ -356,14 +738,29 @@ class PixelsPageSource implements ConnectorPageSource
             this.close();
         }
 
-        if (this.closed)
+        if (this.isFinished())
         {
             return null;
         }
 
         this.batchId++;
-        VectorizedRowBatch rowBatch = null;
-        int rowBatchSize = 0;
+        VectorizedRowBatch rowBatch;
+        int rowBatchSize;
+
+        if (this.topNCollector != null)
+        {
+            try
+            {
+                // the top-n rows are copied into a new page, hence it is safe to close the readers.
+                Page page = readTopN();
+                this.close();
+                return page;
+            } catch (IOException e)
+            {
+                closeWithSuppression(e);
+                throw new TrinoException(PixelsErrorCode.PIXELS_READER_ERROR, "read top-n error.", e);
+            }
+        }
 
         Block[] blocks = new Block[this.numColumnToRead];
 
@@ -371,28 +768,29 @@ class PixelsPageSource implements ConnectorPageSource
         {
             try
             {
-                do
+                if (this.prefetcher != null)
                 {
-                    rowBatch = recordReader.readBatch(BatchSize, false);
-                    if (rowBatch.size <= 0)
+                    rowBatch = this.prefetcher.poll();
+                    if (rowBatch == null)
                     {
-                        if (readNextPath())
-                        {
-                            return getNextPage();
-                        } else
+                        // the next row batch is not ready yet, Trino will wait on isBlocked().
+                        if (this.prefetcher.isFinished())
                         {
                             this.close();
-                            return null;
                         }
+                        return null;
                     }
-
-                    if (this.filter.isPresent())
+                }
+                else
+                {
+                    rowBatch = readNextRowBatch();
+                    if (rowBatch == null)
                     {
-                        this.filter.get().doFilter(rowBatch, this.filtered, this.tmp);
-                        rowBatch.applyFilter(this.filtered);
+                        this.close();
+                        return null;
                     }
-                    rowBatchSize = rowBatch.size;
-                } while (rowBatchSize <= 0);
+                }
+                rowBatchSize = rowBatch.size;
 
                 for (int fieldId = 0; fieldId < blocks.length; ++fieldId)
                 {
@@ -400,7 +798,7 @@ class PixelsPageSource implements ConnectorPageSource
                     TypeDescription.Category typeCategory = columns.get(fieldId).getTypeCategory();
                     ColumnVector vector = rowBatch.cols[fieldId];
                     blocks[fieldId] = new LazyBlock(rowBatchSize, new PixelsBlockLoader(
-                            vector, type, typeCategory, rowBatchSize));
+                            fieldId, vector, type, typeCategory, rowBatchSize));
                 }
             } catch (IOException e)
             {
@@ -411,9 +809,15 @@ class PixelsPageSource implements ConnectorPageSource
         else
         {
             // No column to read.
+            this.readLock.lock();
             try
             {
-                rowBatchSize = this.recordReader.prepareBatch(BatchSize);
+                if (this.closed || this.remainingRows <= 0)
+                {
+                    this.close();
+                    return null;
+                }
+                rowBatchSize = this.recordReader.prepareBatch((int) Math.min(BatchSize, this.remainingRows));
                 if (rowBatchSize <= 0)
                 {
                     if (readNextPath())
@@ -425,10 +829,14 @@ class PixelsPageSource implements ConnectorPageSource
                         return null;
                     }
                 }
+                this.remainingRows -= rowBatchSize;
             } catch (IOException e)
             {
                 closeWithSuppression(e);
                 throw new TrinoException(PixelsErrorCode.PIXELS_BAD_DATA, "prepare row batch error.", e);
+            } finally
+            {
+                unlockRead();
             }
         }
 
@@ -436,19 +844,60 @@ class PixelsPageSource implements ConnectorPageSource
     }
 
     /**
-     * Close the last reader.
+     * Close the last reader. This method does not wait for the reading in progress, e.g., when the query
+     * is canceled. In this case, the reader is closed by the reading thread when it releases the read lock.
      */
     @Override
-    public synchronized void close()
+    public void close()
     {
-        if (closed)
+        synchronized (this)
         {
-            return;
+            if (closed)
+            {
+                return;
+            }
+            closed = true;
         }
 
-        closeReader();
+        this.readerOpenAhead.close();
+        if (this.prefetcher != null)
+        {
+            this.prefetcher.close();
+        }
 
-        closed = true;
+        if (this.readLock.tryLock())
+        {
+            try
+            {
+                closeReader();
+            } finally
+            {
+                this.readLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Release the read lock. If this page source is closed during the reading, the last holder of the read
+     * lock closes the current reader, as {@link #close()} does not wait for the read lock.
+     */
+    private void unlockRead()
+    {
+        this.readLock.unlock();
+        if (this.closed && !this.readLock.isHeldByCurrentThread() && this.readLock.tryLock())
+        {
+            try
+            {
+                closeReader();
+            } catch (TrinoException e)
+            {
+                // the page source is already closed, the failure of the reading (if any) is more relevant.
+                logger.error(e, "failed to close the reader after the page source is closed");
+            } finally
+            {
+                this.readLock.unlock();
+            }
+        }
     }
 
     /**
@@ -500,6 +949,82 @@ class PixelsPageSource implements ConnectorPageSource
         }
     }
 
+    /**
+     * Get the dictionary block of a dictionary column vector. The dictionary block is reused if the column vector
+     * has the same dictionary as the previous one of the column, i.e., the row batches are read from the same
+     * column chunk.
+     * @param fieldId the field id of the column
+     * @param dscv the dictionary column vector
+     * @return the shared dictionary of the column
+     */
+    private SharedDictionary getDictionary(int fieldId, DictionaryColumnVector dscv)
+    {
+        SharedDictionary dictionary = this.dictionaries[fieldId];
+        if (dictionary == null || !dictionary.isDictionaryOf(dscv))
+        {
+            dictionary = new SharedDictionary(dscv);
+            this.dictionaries[fieldId] = dictionary;
+        }
+        return dictionary;
+    }
+
+    /**
+     * The dictionary block of a column chunk. Trino's DictionaryBlock stores the null value in the dictionary
+     * (Issue #84), thus the null-extended dictionary is built once when the first row batch with nulls is read.
+     * The dictionary source id is stable for the column chunk, so that Trino's dictionary-aware operators can
+     * reuse their per-dictionary work across the pages.
+     */
+    private static final class SharedDictionary
+    {
+        private final byte[] dictArray;
+        private final int[] dictOffsets;
+        private final DictionaryId dictionaryId = DictionaryId.randomDictionaryId();
+        private final DictionaryId nullExtendedDictionaryId = DictionaryId.randomDictionaryId();
+        private final Block dictionary;
+        private Block nullExtendedDictionary;
+
+        private SharedDictionary(DictionaryColumnVector dscv)
+        {
+            this.dictArray = dscv.dictArray;
+            this.dictOffsets = dscv.dictOffsets;
+            this.dictionary = new VariableWidthBlock(dictOffsets.length - 1,
+                    Slices.wrappedBuffer(dictArray), dictOffsets, Optional.empty());
+        }
+
+        private boolean isDictionaryOf(DictionaryColumnVector dscv)
+        {
+            return this.dictArray == dscv.dictArray && this.dictOffsets == dscv.dictOffsets;
+        }
+
+        private Block createBlock(DictionaryColumnVector dscv, int batchSize)
+        {
+            if (dscv.noNulls)
+            {
+                return DictionaryBlock.createProjectedDictionaryBlock(batchSize, dictionary, dscv.ids, dictionaryId);
+            }
+            if (nullExtendedDictionary == null)
+            {
+                nullExtendedDictionary = dictionary.copyWithAppendedNull();
+            }
+            // the ids in the column vector are not modified, as the vector belongs to the reader.
+            int nullValueId = dictionary.getPositionCount();
+            int[] ids = Arrays.copyOf(dscv.ids, batchSize);
+            for (int i = 0; i < batchSize; ++i)
+            {
+                if (dscv.isNull[i])
+                {
+                    ids[i] = nullValueId;
+                }
+            }
+            /*
+             * The null-extended dictionary has its own source id, as the dictionaries of two blocks
+             * with the same source id must be the same.
+             */
+            return DictionaryBlock.createProjectedDictionaryBlock(batchSize, nullExtendedDictionary, ids,
+                    nullExtendedDictionaryId);
+        }
+    }
+
     /**
      * Lazy Block Implementation for the Pixels
      */
@@ -507,14 +1032,16 @@ class PixelsPageSource implements ConnectorPageSource
             implements LazyBlockLoader
     {
         private final int expectedBatchId = batchId;
+        private final int fieldId;
         private final ColumnVector vector;
         private final Type type;
         private final TypeDescription.Category typeCategory;
         private final int batchSize;
 
-        public PixelsBlockLoader(ColumnVector vector, Type type,
+        public PixelsBlockLoader(int fieldId, ColumnVector vector, Type type,
                                  TypeDescription.Category typeCategory, int batchSize)
         {
+            this.fieldId = fieldId;
             this.vector = requireNonNull(vector, "vector is null");
             this.type = requireNonNull(type, "type is null");
             this.typeCategory = requireNonNull(typeCategory, "typeCategory is null");
@@ -525,7 +1052,11 @@ class PixelsPageSource implements ConnectorPageSource
         public Block load()
         {
             checkState(batchId == expectedBatchId);
-            Block block;
+            Block block = createRunLengthBlock();
+            if (block != null)
+            {
+                return block;
+            }
 
             switch (typeCategory)
             {
@@ -577,22 +1108,7 @@ class PixelsPageSource implements ConnectorPageSource
                     else
                     {
                         DictionaryColumnVector dscv = (DictionaryColumnVector) vector;
-                        Block dictionary = new VariableWidthBlock(dscv.dictOffsets.length - 1,
-                                Slices.wrappedBuffer(dscv.dictArray), dscv.dictOffsets, Optional.empty());
-                        if (!dscv.noNulls)
-                        {
-                            // Issue #84: Trino's stupid DictionaryBlock stores null value in dictionary.
-                            int nullValueId = dictionary.getPositionCount();
-                            dictionary = dictionary.copyWithAppendedNull();
-                            for (int i = 0; i < batchSize; ++i)
-                            {
-                                if (dscv.isNull[i])
-                                {
-                                    dscv.ids[i] = nullValueId;
-                                }
-                            }
-                        }
-                        block = DictionaryBlock.create(batchSize, dictionary, dscv.ids);
+                        block = getDictionary(fieldId, dscv).createBlock(dscv, batchSize);
                     }
                     break;
                 case BOOLEAN:
@@ -629,25 +1145,37 @@ class PixelsPageSource implements ConnectorPageSource
                     break;
                 case VECTOR:
                     VectorColumnVector vcv = (VectorColumnVector) vector;
-                    // builder that simply concatenate all double arrays
-                    BlockBuilder allDoublesBuilder = DOUBLE.createBlockBuilder(null, batchSize * vcv.dimension);
+                    /*
+                     * Trino stores double values as their raw long bits in LongArrayBlock, hence we concatenate
+                     * all the double arrays into one long array by bulk memory copies, instead of writing each
+                     * double into a block builder. VectorColumnVector stores each vector in a separate array,
+                     * so one copy of the values is still required.
+                     */
+                    int dimension = vcv.dimension;
+                    long[] allDoubles = new long[batchSize * dimension];
                     int[] offsets = new int[batchSize+1];
-                    // build a block into which we put a double array
+                    long rowBytes = (long) dimension * Double.BYTES;
                     for (int i = 0 ; i < batchSize; i++)
                     {
-                        offsets[i] = i * vcv.dimension;
-                        for (int j = 0; j < vcv.dimension; j++)
+                        offsets[i] = i * dimension;
+                        if (vcv.vector[i] != null && !(vcv.isNull[i]))
                         {
-                            DOUBLE.writeDouble(allDoublesBuilder, vcv.vector[i][j]);
+                            // the copy is not bounds checked, hence check the length of the vector.
+                            checkArgument(vcv.vector[i].length == dimension,
+                                    "the length of vector %s is %s, but the dimension is %s",
+                                    i, vcv.vector[i].length, dimension);
+                            JvmUtils.unsafe.copyMemory(vcv.vector[i], Unsafe.ARRAY_DOUBLE_BASE_OFFSET, allDoubles,
+                                    Unsafe.ARRAY_LONG_BASE_OFFSET + offsets[i] * (long) Long.BYTES, rowBytes);
                         }
                     }
-                    offsets[batchSize] = batchSize * vcv.dimension;
+                    offsets[batchSize] = batchSize * dimension;
                     // after extensive research on how other connectors deal with array type, the following seems to
                     // be the way to go: basically we stuff all the values of all arrays into one big block, and provide
                     // an int[] as offsets to tell trino where each array begins and ends. Note that the final offset
                     // should be the position to tell trino the end of the final array
                     // Interestingly all the above is NOT documented in trino documentation or code at all.
-                    block = ArrayBlock.fromElementBlock(batchSize, Optional.of(vcv.isNull), offsets, allDoublesBuilder.build());
+                    block = ArrayBlock.fromElementBlock(batchSize, Optional.of(vcv.isNull), offsets,
+                            new LongArrayBlock(allDoubles.length, Optional.empty(), allDoubles));
                     break;
                 default:
                     BlockBuilder blockBuilder = type.createBlockBuilder(null, batchSize);
@@ -661,5 +1189,149 @@ class PixelsPageSource implements ConnectorPageSource
 
             return block;
         }
+
+        /**
+         * Create a run-length encoded block if all the values in the batch are the same, e.g., the batches
+         * of a sorted or partition-key-like column. The scan of the values stops at the first different value,
+         * thus it is cheap for the batches that are not constant.
+         * <p/>
+         * The row group statistics (min == max and no null) are not used to skip the scan, because a row batch
+         * is not bound to a row group here: the record reader fills a batch across the row groups and does not
+         * tell which row groups a batch comes from, and the prefetched batches may belong to a previous path
+         * of the split. Hence the scan on the batch itself is the only reliable check.
+         * @return the run-length encoded block, or null if the batch is not constant
+         */
+        private Block createRunLengthBlock()
+        {
+            if (batchSize <= 1)
+            {
+                return null;
+            }
+            boolean[] isNull = vector.noNulls ? null : vector.isNull;
+            if (isNull != null && isNull[0])
+            {
+                for (int i = 1; i < batchSize; ++i)
+                {
+                    if (!isNull[i])
+                    {
+                        return null;
+                    }
+                }
+                return RunLengthEncodedBlock.create(type, null, batchSize);
+            }
+
+            Block value;
+            switch (typeCategory)
+            {
+                case BYTE:
+                case SHORT:
+                case INT:
+                case LONG:
+                    value = createSingleLongBlock(((LongColumnVector) vector).vector, isNull);
+                    break;
+                case DOUBLE:
+                case FLOAT:
+                    value = createSingleLongBlock(((DoubleColumnVector) vector).vector, isNull);
+                    break;
+                case DECIMAL:
+                    value = vector instanceof DecimalColumnVector ?
+                            createSingleLongBlock(((DecimalColumnVector) vector).vector, isNull) : null;
+                    break;
+                case TIMESTAMP:
+                    value = createSingleLongBlock(((TimestampColumnVector) vector).times, isNull);
+                    break;
+                case DATE:
+                {
+                    int[] dates = ((DateColumnVector) vector).dates;
+                    value = isConstant(dates, isNull) ?
+                            new IntArrayBlock(1, Optional.empty(), new int[] {dates[0]}) : null;
+                    break;
+                }
+                case TIME:
+                {
+                    int[] times = ((TimeColumnVector) vector).times;
+                    value = isConstant(times, isNull) ?
+                            new TimeArrayBlock(1, new boolean[1], new int[] {times[0]}) : null;
+                    break;
+                }
+                case BOOLEAN:
+                {
+                    byte[] bytes = ((ByteColumnVector) vector).vector;
+                    value = new ByteArrayBlock(1, Optional.empty(), new byte[] {bytes[0]});
+                    for (int i = 1; i < batchSize; ++i)
+                    {
+                        if (bytes[i] != bytes[0] || (isNull != null && isNull[i]))
+                        {
+                            value = null;
+                            break;
+                        }
+                    }
+                    break;
+                }
+                case CHAR:
+                case VARCHAR:
+                case STRING:
+                case BINARY:
+                case VARBINARY:
+                    if (vector instanceof BinaryColumnVector)
+                    {
+                        value = createSingleVarcharBlock((BinaryColumnVector) vector, isNull);
+                    }
+                    else
+                    {
+                        DictionaryColumnVector dscv = (DictionaryColumnVector) vector;
+                        value = isConstant(dscv.ids, isNull) ?
+                                getDictionary(fieldId, dscv).dictionary.getSingleValueBlock(dscv.ids[0]) : null;
+                    }
+                    break;
+                default:
+                    value = null;
+                    break;
+            }
+            return value == null ? null : RunLengthEncodedBlock.create(value, batchSize);
+        }
+
+        private Block createSingleLongBlock(long[] values, boolean[] isNull)
+        {
+            for (int i = 1; i < batchSize; ++i)
+            {
+                if (values[i] != values[0] || (isNull != null && isNull[i]))
+                {
+                    return null;
+                }
+            }
+            return new LongArrayBlock(1, Optional.empty(), new long[] {values[0]});
+        }
+
+        private boolean isConstant(int[] values, boolean[] isNull)
+        {
+            int first = values[0];
+            for (int i = 1; i < batchSize; ++i)
+            {
+                if (values[i] != first || (isNull != null && isNull[i]))
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private Block createSingleVarcharBlock(BinaryColumnVector bcv, boolean[] isNull)
+        {
+            byte[] first = bcv.vector[0];
+            int firstStart = bcv.start[0];
+            int firstEnd = firstStart + bcv.lens[0];
+            for (int i = 1; i < batchSize; ++i)
+            {
+                if ((isNull != null && isNull[i]) || bcv.lens[i] != bcv.lens[0] ||
+                        !Arrays.equals(bcv.vector[i], bcv.start[i], bcv.start[i] + bcv.lens[i],
+                                first, firstStart, firstEnd))
+                {
+                    return null;
+                }
+            }
+            return new VarcharArrayBlock(1, new byte[][] {Arrays.copyOfRange(first, firstStart, firstEnd)},
+                    new int[1], new int[] {bcv.lens[0]}, new boolean[1]);
+        }
     }
-}
\ No newline at end of file
+}
@@ -19,19 +19,27 @@
  */
 package io.pixelsdb.pixels.trino;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Inject;
 import io.airlift.log.Logger;
 import io.pixelsdb.pixels.common.physical.Storage;
 import io.pixelsdb.pixels.common.physical.StorageFactory;
 import io.pixelsdb.pixels.common.physical.natives.MemoryMappedFile;
+import io.pixelsdb.pixels.common.turbo.ExecutorType;
 import io.pixelsdb.pixels.core.PixelsFooterCache;
+import io.pixelsdb.pixels.planner.plan.logical.Table;
 import io.pixelsdb.pixels.trino.exception.PixelsErrorCode;
 import io.pixelsdb.pixels.trino.impl.PixelsTrinoConfig;
+import io.pixelsdb.pixels.trino.properties.PixelsSessionProperties;
 import io.trino.spi.TrinoException;
 import io.trino.spi.connector.*;
+import io.trino.spi.predicate.TupleDomain;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static io.pixelsdb.pixels.trino.PixelsSplitManager.getIncludeColumns;
@@ -50,6 +58,14 @@ public class PixelsPageSourceProvider implements ConnectorPageSourceProvider
     private final MemoryMappedFile indexFile;
     private final PixelsFooterCache pixelsFooterCache;
     private final PixelsTrinoConfig config;
+    /**
+     * The shared executor for the read-ahead stages of the page sources.
+     */
+    private final ExecutorService readAheadExecutor;
+    /**
+     * The compiled filters and predicates shared by the page sources.
+     */
+    private final PixelsScanFilterCache filterCache = new PixelsScanFilterCache();
 
     @Inject
     public PixelsPageSourceProvider(PixelsConnectorId connectorId, PixelsTrinoConfig config)
@@ -72,6 +88,8 @@ public class PixelsPageSourceProvider implements ConnectorPageSourceProvider
             this.indexFile = null;
         }
         this.pixelsFooterCache = new PixelsFooterCache();
+        this.readAheadExecutor = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+                .setNameFormat("pixels-read-ahead-%d").setDaemon(true).build());
     }
 
     @Override
@@ -88,24 +106,101 @@ public class PixelsPageSourceProvider implements ConnectorPageSourceProvider
         List<PixelsColumnHandle> pixelsColumns = columns.stream()
                 .map(PixelsColumnHandle.class::cast).collect(toList());
         PixelsTransactionHandle pixelsTransactionHandle = (PixelsTransactionHandle) transactionHandle;
+        int prefetchMaxBatches = PixelsSessionProperties.getPrefetchEnabled(session) ?
+                PixelsSessionProperties.getPrefetchMaxBatches(session) : 0;
         try
         {
             Storage storage = StorageFactory.Instance().getStorage(pixelsSplit.getStorageScheme());
             if (pixelsSplit.getFromServerlessOutput())
             {
                 IntermediateFileCleaner.Instance().registerStorage(storage);
+                if (tableHandle.getTableType() == Table.TableType.AGGREGATED &&
+                        tableHandle.getAggrHandle().isGlobalAggregation())
+                {
+                    // the split contains the outputs of all the final aggregation workers, the split id of worker i is i.
+                    ImmutableList.Builder<ConnectorPageSource> sources = ImmutableList.builder();
+                    for (int i = 0; i < pixelsSplit.getPaths().size(); ++i)
+                    {
+                        PixelsSplit workerSplit = new PixelsSplit(pixelsSplit.getTransId(), i, connectorId,
+                                pixelsSplit.getSchemaName(), pixelsSplit.getTableName(), pixelsSplit.getStorageScheme(),
+                                ImmutableList.of(pixelsSplit.getPath(i)), ImmutableList.of(pixelsSplit.getRgStarts().get(i)),
+                                ImmutableList.of(pixelsSplit.getRgLengths().get(i)), false, false,
+                                pixelsSplit.getAddresses(), pixelsSplit.getColumnOrder(), pixelsSplit.getCacheOrder(),
+                                pixelsSplit.getConstraint(), true, pixelsSplit.getReadSynthColumns());
+                        sources.add(new PixelsPageSource(workerSplit, pixelsColumns, pixelsTransactionHandle, storage,
+                                cacheFile, indexFile, pixelsFooterCache, readAheadExecutor, prefetchMaxBatches,
+                                config.getPrefetchMaxOpenReaders(), false, filterCache, workerSplit.getConstraint(),
+                                DynamicFilter.EMPTY));
+                    }
+                    return new PixelsGlobalAggrPageSource(tableHandle.getAggrHandle(), pixelsColumns, sources.build());
+                }
                 return new PixelsPageSource(pixelsSplit, pixelsColumns, pixelsTransactionHandle, storage,
-                        cacheFile, indexFile, pixelsFooterCache);
+                        cacheFile, indexFile, pixelsFooterCache, readAheadExecutor, prefetchMaxBatches,
+                        config.getPrefetchMaxOpenReaders(), false, filterCache, pixelsSplit.getConstraint(),
+                        DynamicFilter.EMPTY);
             } else
             {
                 // perform scan push down.
                 List<PixelsColumnHandle> withFilterColumns = getIncludeColumns(pixelsColumns, tableHandle);
+                TupleDomain<PixelsColumnHandle> constraint = pixelsSplit.getConstraint();
+                if (pixelsSplit.getLimit().isPresent())
+                {
+                    // the rows of a split with limit are counted without the dynamic filter.
+                    dynamicFilter = DynamicFilter.EMPTY;
+                }
+                else
+                {
+                    /*
+                     * The dynamic filter is only applied on the columns to read, so that the filter columns
+                     * are not changed. If the dynamic filter is not completed yet, its current predicate is
+                     * used and the page source will add the completed one later.
+                     */
+                    constraint = constraint.intersect(
+                            PixelsPageSource.getDynamicConstraint(dynamicFilter, withFilterColumns));
+                    if (constraint.isNone())
+                    {
+                        return new EmptyPageSource();
+                    }
+                }
                 return new PixelsPageSource(pixelsSplit, withFilterColumns, pixelsTransactionHandle, storage,
-                        cacheFile, indexFile, pixelsFooterCache);
+                        cacheFile, indexFile, pixelsFooterCache, readAheadExecutor, prefetchMaxBatches,
+                        config.getPrefetchMaxOpenReaders(), isRowFilterEnabled(session, pixelsTransactionHandle),
+                        filterCache, constraint, dynamicFilter);
             }
         } catch (IOException e)
         {
             throw new TrinoException(PixelsErrorCode.PIXELS_SQL_EXECUTE_ERROR, e);
         }
     }
+
+    /**
+     * Check whether the page sources filter the rows by the pushed down constraint. The serverless
+     * workers always filter the rows, so do the page sources in queries executed by pixels-turbo.
+     * Otherwise, it is decided by the session property, and Trino filters the rows if it is false.
+     * @param session the connector session
+     * @param transHandle the transaction handle of the query
+     * @return true if the rows are filtered in the page sources
+     */
+    public static boolean isRowFilterEnabled(ConnectorSession session, PixelsTransactionHandle transHandle)
+    {
+        return transHandle.getExecutorType() == ExecutorType.CF || PixelsSessionProperties.getRowFilterEnabled(session);
+    }
+
+    /**
+     * Drop the compiled filters and predicates of a transaction, this is called when the transaction
+     * is committed or rolled back.
+     * @param transId the transaction id
+     */
+    public void invalidateFilters(long transId)
+    {
+        this.filterCache.invalidate(transId);
+    }
+
+    /**
+     * Stop the read-ahead threads, this is called when the connector is shut down.
+     */
+    public void shutdown()
+    {
+        this.readAheadExecutor.shutdownNow();
+    }
 }
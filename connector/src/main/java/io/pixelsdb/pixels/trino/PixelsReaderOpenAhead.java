@@ -0,0 +1,186 @@
+/*
+ * Copyright 2026 PixelsDB.
+ *
+ * This file is part of Pixels.
+ *
+ * Pixels is free software: you can redistribute it and/or modify
+ * it under the terms of the Affero GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * Pixels is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * Affero GNU General Public License for more details.
+ *
+ * You should have received a copy of the Affero GNU General Public
+ * License along with Pixels.  If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package io.pixelsdb.pixels.trino;
+
+import io.airlift.log.Logger;
+import io.pixelsdb.pixels.core.PixelsReader;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.base.Throwables.throwIfInstanceOf;
+import static com.google.common.base.Throwables.throwIfUnchecked;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Opens the readers (including fetching the footers) of the next paths in a split in the
+ * background for {@link PixelsPageSource}, so that it is overlapped with the scan on the
+ * current path. At most maxOpenReaders readers, including the current one, are open at the
+ * same time. The readers are taken in the same order as the paths in the split.
+ */
+class PixelsReaderOpenAhead
+{
+    private static final Logger logger = Logger.get(PixelsReaderOpenAhead.class);
+
+    /**
+     * The opener of the reader of a path in the split.
+     */
+    interface ReaderOpener
+    {
+        PixelsReader open(int pathIndex) throws IOException;
+    }
+
+    private final Executor executor;
+    private final ReaderOpener opener;
+    private final int maxOpenReaders;
+    /**
+     * The readers of the next paths, which are being opened in the background, keyed by the path index.
+     */
+    private final TreeMap<Integer, CompletableFuture<PixelsReader>> pendingReaders = new TreeMap<>();
+    /**
+     * The index of the next path to be opened in the background.
+     */
+    private int nextPathToOpen = 0;
+    private volatile boolean closed = false;
+
+    PixelsReaderOpenAhead(Executor executor, ReaderOpener opener, int maxOpenReaders)
+    {
+        checkArgument(maxOpenReaders > 0, "maxOpenReaders must be positive");
+        this.executor = requireNonNull(executor, "executor is null");
+        this.opener = requireNonNull(opener, "opener is null");
+        this.maxOpenReaders = maxOpenReaders;
+    }
+
+    /**
+     * Get the reader of the path, it is opened in the background by {@link #openAhead(int)},
+     * or opened here if it is not opened ahead. The reader is waited for without holding the
+     * monitor of this object, so that {@link #close()} is not blocked by the opening.
+     * @param pathIndex the index of the path in the split
+     * @return the reader of the path
+     * @throws IOException if failed to open the reader
+     * @throws IllegalStateException if the path is not the next one opened ahead
+     */
+    PixelsReader take(int pathIndex) throws IOException
+    {
+        CompletableFuture<PixelsReader> pendingReader;
+        synchronized (this)
+        {
+            Map.Entry<Integer, CompletableFuture<PixelsReader>> first = this.pendingReaders.firstEntry();
+            if (first == null)
+            {
+                pendingReader = null;
+                this.nextPathToOpen = pathIndex + 1;
+            }
+            else
+            {
+                checkState(first.getKey() == pathIndex,
+                        "path %s is taken while path %s is opened ahead", pathIndex, first.getKey());
+                pendingReader = this.pendingReaders.pollFirstEntry().getValue();
+            }
+        }
+        if (pendingReader == null)
+        {
+            return this.opener.open(pathIndex);
+        }
+        try
+        {
+            return requireNonNull(pendingReader.join(), "the pending reader is not opened");
+        } catch (CompletionException e)
+        {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throwIfInstanceOf(cause, IOException.class);
+            throwIfUnchecked(cause);
+            throw new IOException("failed to open reader", cause);
+        }
+    }
+
+    /**
+     * Start opening the readers of the next paths in the background, until maxOpenReaders
+     * readers (including the current one) are open.
+     * @param numPaths the number of paths in the split
+     */
+    synchronized void openAhead(int numPaths)
+    {
+        while (!this.closed && this.pendingReaders.size() + 1 < this.maxOpenReaders &&
+                this.nextPathToOpen < numPaths)
+        {
+            int pathIndex = this.nextPathToOpen++;
+            this.pendingReaders.put(pathIndex, CompletableFuture.supplyAsync(() -> {
+                if (this.closed)
+                {
+                    return null;
+                }
+                try
+                {
+                    return this.opener.open(pathIndex);
+                } catch (IOException e)
+                {
+                    throw new CompletionException(e);
+                }
+            }, this.executor));
+        }
+    }
+
+    /**
+     * @return the maximum number of readers, including the current one, that are open at the same time
+     */
+    int getMaxOpenReaders()
+    {
+        return this.maxOpenReaders;
+    }
+
+    /**
+     * @return the number of readers that are opened or being opened in the background
+     */
+    synchronized int getNumPendingReaders()
+    {
+        return this.pendingReaders.size();
+    }
+
+    /**
+     * Stop opening ahead and close the readers that are opened in the background but not taken.
+     */
+    synchronized void close()
+    {
+        this.closed = true;
+        for (CompletableFuture<PixelsReader> pendingReader : this.pendingReaders.values())
+        {
+            pendingReader.thenAccept(reader -> {
+                if (reader != null)
+                {
+                    try
+                    {
+                        reader.close();
+                    } catch (IOException e)
+                    {
+                        logger.error(e, "failed to close the pending reader");
+                    }
+                }
+            });
+        }
+        this.pendingReaders.clear();
+    }
+}
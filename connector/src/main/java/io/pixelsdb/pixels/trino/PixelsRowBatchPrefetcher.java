@@ -0,0 +1,288 @@
+/*
+ * Copyright 2026 PixelsDB.
+ *
+ * This file is part of Pixels.
+ *
+ * Pixels is free software: you can redistribute it and/or modify
+ * it under the terms of the Affero GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * Pixels is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * Affero GNU General Public License for more details.
+ *
+ * You should have received a copy of the Affero GNU General Public
+ * License along with Pixels.  If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package io.pixelsdb.pixels.trino;
+
+import io.pixelsdb.pixels.core.vector.*;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Throwables.throwIfInstanceOf;
+import static com.google.common.base.Throwables.throwIfUnchecked;
+import static io.airlift.slice.SizeOf.sizeOf;
+import static io.trino.spi.connector.ConnectorPageSource.NOT_BLOCKED;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The bounded read-ahead stage of {@link PixelsPageSource}. It reads (and filters) the
+ * next row batches in a background thread while the driver thread is processing the
+ * current page, so that the driver is not blocked by the I/O of the record reader.
+ * <p/>
+ * The filling is pull-driven: a background task is only scheduled when the buffer has
+ * free slots and the consumer asks for a row batch or for the blocked future. At most
+ * one background task is running for a prefetcher, hence the batch supplier is never
+ * called concurrently.
+ * <p/>
+ * Lock order: the supplier may lock the page source, so this class never calls the
+ * supplier while holding its own lock.
+ */
+class PixelsRowBatchPrefetcher
+{
+    /**
+     * The supplier of row batches, it returns null when there is no more row batches.
+     */
+    interface RowBatchSupplier
+    {
+        VectorizedRowBatch next() throws IOException;
+    }
+
+    private final Executor executor;
+    private final RowBatchSupplier supplier;
+    private final int maxBatches;
+    private final ArrayDeque<VectorizedRowBatch> buffer;
+    private final ArrayDeque<Long> bufferedSizes;
+    private CompletableFuture<?> notEmpty = new CompletableFuture<>();
+    private long bufferedBytes = 0L;
+    private boolean running = false;
+    private boolean exhausted = false;
+    private boolean closed = false;
+    private Throwable failure = null;
+
+    PixelsRowBatchPrefetcher(Executor executor, RowBatchSupplier supplier, int maxBatches)
+    {
+        checkArgument(maxBatches > 0, "maxBatches must be positive");
+        this.executor = requireNonNull(executor, "executor is null");
+        this.supplier = requireNonNull(supplier, "supplier is null");
+        this.maxBatches = maxBatches;
+        this.buffer = new ArrayDeque<>(maxBatches);
+        this.bufferedSizes = new ArrayDeque<>(maxBatches);
+    }
+
+    /**
+     * @return a future that is done when a row batch is available, or the prefetcher is finished
+     */
+    synchronized CompletableFuture<?> isBlocked()
+    {
+        if (!buffer.isEmpty() || exhausted || closed || failure != null)
+        {
+            return NOT_BLOCKED;
+        }
+        scheduleIfNeeded();
+        return notEmpty;
+    }
+
+    /**
+     * Poll a prefetched row batch without blocking.
+     * @return the row batch, or null if no row batch is ready or the prefetcher is finished
+     * @throws IOException if the background reading failed
+     */
+    synchronized VectorizedRowBatch poll() throws IOException
+    {
+        if (failure != null)
+        {
+            throwIfInstanceOf(failure, IOException.class);
+            throwIfUnchecked(failure);
+            throw new IOException("failed to prefetch row batch", failure);
+        }
+        VectorizedRowBatch rowBatch = buffer.poll();
+        if (rowBatch != null)
+        {
+            bufferedBytes -= bufferedSizes.poll();
+        }
+        scheduleIfNeeded();
+        return rowBatch;
+    }
+
+    /**
+     * @return true if all the row batches have been read and consumed
+     */
+    synchronized boolean isFinished()
+    {
+        return closed || (exhausted && buffer.isEmpty());
+    }
+
+    /**
+     * @return true if the background reading failed, the failure is thrown by {@link #poll()}
+     */
+    synchronized boolean hasFailed()
+    {
+        return failure != null;
+    }
+
+    /**
+     * @return the estimated size in bytes of the buffered row batches
+     */
+    synchronized long getBufferedBytes()
+    {
+        return bufferedBytes;
+    }
+
+    /**
+     * Drop the buffered row batches and stop prefetching. A running background read
+     * is not interrupted, its result is discarded. The failure of the background reading
+     * (if any) is kept and still thrown by {@link #poll()}.
+     */
+    void close()
+    {
+        CompletableFuture<?> toComplete;
+        synchronized (this)
+        {
+            if (closed)
+            {
+                return;
+            }
+            closed = true;
+            buffer.clear();
+            bufferedSizes.clear();
+            bufferedBytes = 0L;
+            toComplete = notEmpty;
+        }
+        toComplete.complete(null);
+    }
+
+    private void scheduleIfNeeded()
+    {
+        if (!running && !exhausted && !closed && failure == null && buffer.size() < maxBatches)
+        {
+            running = true;
+            executor.execute(this::fill);
+        }
+    }
+
+    private void fill()
+    {
+        while (true)
+        {
+            synchronized (this)
+            {
+                if (closed || buffer.size() >= maxBatches)
+                {
+                    running = false;
+                    return;
+                }
+            }
+
+            VectorizedRowBatch rowBatch = null;
+            Throwable error = null;
+            try
+            {
+                rowBatch = supplier.next();
+            } catch (Throwable e)
+            {
+                error = e;
+            }
+
+            long size = rowBatch != null ? estimateSizeInBytes(rowBatch) : 0L;
+            CompletableFuture<?> toComplete;
+            boolean stop;
+            synchronized (this)
+            {
+                if (error != null)
+                {
+                    failure = error;
+                } else if (rowBatch == null)
+                {
+                    exhausted = true;
+                } else if (!closed)
+                {
+                    buffer.add(rowBatch);
+                    bufferedSizes.add(size);
+                    bufferedBytes += size;
+                }
+                stop = failure != null || exhausted || closed;
+                if (stop)
+                {
+                    running = false;
+                }
+                toComplete = notEmpty;
+                notEmpty = new CompletableFuture<>();
+            }
+            // complete the future outside the lock, as the listeners may call back into this prefetcher.
+            toComplete.complete(null);
+            if (stop)
+            {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Estimate the memory footprint of the column vectors in a row batch.
+     * @param rowBatch the row batch
+     * @return the estimated size in bytes
+     */
+    static long estimateSizeInBytes(VectorizedRowBatch rowBatch)
+    {
+        long size = 0L;
+        for (ColumnVector vector : rowBatch.cols)
+        {
+            if (vector == null)
+            {
+                continue;
+            }
+            size += sizeOf(vector.isNull);
+            if (vector instanceof LongColumnVector)
+            {
+                size += sizeOf(((LongColumnVector) vector).vector);
+            } else if (vector instanceof DoubleColumnVector)
+            {
+                size += sizeOf(((DoubleColumnVector) vector).vector);
+            } else if (vector instanceof DecimalColumnVector)
+            {
+                size += sizeOf(((DecimalColumnVector) vector).vector);
+            } else if (vector instanceof LongDecimalColumnVector)
+            {
+                size += sizeOf(((LongDecimalColumnVector) vector).vector);
+            } else if (vector instanceof ByteColumnVector)
+            {
+                size += sizeOf(((ByteColumnVector) vector).vector);
+            } else if (vector instanceof DateColumnVector)
+            {
+                size += sizeOf(((DateColumnVector) vector).dates);
+            } else if (vector instanceof TimeColumnVector)
+            {
+                size += sizeOf(((TimeColumnVector) vector).times);
+            } else if (vector instanceof TimestampColumnVector)
+            {
+                size += sizeOf(((TimestampColumnVector) vector).times);
+            } else if (vector instanceof BinaryColumnVector)
+            {
+                BinaryColumnVector bcv = (BinaryColumnVector) vector;
+                size += sizeOf(bcv.start) + sizeOf(bcv.lens);
+                for (int i = 0; i < rowBatch.size; ++i)
+                {
+                    size += bcv.lens[i];
+                }
+            } else if (vector instanceof DictionaryColumnVector)
+            {
+                DictionaryColumnVector dcv = (DictionaryColumnVector) vector;
+                size += sizeOf(dcv.ids) + sizeOf(dcv.dictArray) + sizeOf(dcv.dictOffsets);
+            } else if (vector instanceof VectorColumnVector)
+            {
+                VectorColumnVector vcv = (VectorColumnVector) vector;
+                size += (long) rowBatch.size * vcv.dimension * Double.BYTES;
+            }
+        }
+        return size;
+    }
+}
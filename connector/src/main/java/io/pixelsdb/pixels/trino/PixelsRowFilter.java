@@ -0,0 +1,480 @@
+/*
+ * Copyright 2026 PixelsDB.
+ *
+ * This file is part of Pixels.
+ *
+ * Pixels is free software: you can redistribute it and/or modify
+ * it under the terms of the Affero GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * Pixels is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * Affero GNU General Public License for more details.
+ *
+ * You should have received a copy of the Affero GNU General Public
+ * License along with Pixels.  If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package io.pixelsdb.pixels.trino;
+
+import io.pixelsdb.pixels.core.utils.Bitmap;
+import io.pixelsdb.pixels.core.vector.ColumnVector;
+import io.pixelsdb.pixels.core.vector.DateColumnVector;
+import io.pixelsdb.pixels.core.vector.DecimalColumnVector;
+import io.pixelsdb.pixels.core.vector.DoubleColumnVector;
+import io.pixelsdb.pixels.core.vector.LongColumnVector;
+import io.pixelsdb.pixels.core.vector.TimestampColumnVector;
+import io.pixelsdb.pixels.core.vector.VectorizedRowBatch;
+import io.pixelsdb.pixels.executor.predicate.TableScanFilter;
+import io.trino.spi.predicate.Domain;
+import io.trino.spi.predicate.Range;
+import io.trino.spi.predicate.TupleDomain;
+import io.trino.spi.type.DecimalType;
+import io.trino.spi.type.TimestampType;
+import io.trino.spi.type.Type;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.DateType.DATE;
+import static io.trino.spi.type.DoubleType.DOUBLE;
+import static io.trino.spi.type.IntegerType.INTEGER;
+import static io.trino.spi.type.SmallintType.SMALLINT;
+import static io.trino.spi.type.TinyintType.TINYINT;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The row-level filter of the constraint pushed down into the page source.
+ * <p/>
+ * The domains on the integral (including date, short timestamp, and short decimal) and double
+ * columns are evaluated by type-specialized loops over the primitive arrays of the column vectors.
+ * The domains on the other columns are evaluated by the {@link TableScanFilter} of pixels-executor.
+ */
+public class PixelsRowFilter
+{
+    /**
+     * The filter on a single column, it clears the bits of the rows that do not match.
+     */
+    private interface ColumnFilter
+    {
+        void filter(ColumnVector vector, int size, Bitmap result);
+    }
+
+    /**
+     * The indexes of the filtered columns in the row batch.
+     */
+    private final int[] channels;
+    private final ColumnFilter[] columnFilters;
+    /**
+     * The filter on the columns whose types are not supported by the type-specialized filters.
+     */
+    private final Optional<TableScanFilter> fallbackFilter;
+
+    private PixelsRowFilter(int[] channels, ColumnFilter[] columnFilters, Optional<TableScanFilter> fallbackFilter)
+    {
+        this.channels = channels;
+        this.columnFilters = columnFilters;
+        this.fallbackFilter = fallbackFilter;
+    }
+
+    /**
+     * Create the row filter of the constraint.
+     * @param schemaName the schema name of the table
+     * @param tableName the table name
+     * @param includeCols the names of the columns to read, in the order of the columns in the row batch
+     * @param columns the handles of the columns to read, in the order of the columns in the row batch
+     * @param constraint the constraint
+     * @return the row filter, or empty if the constraint does not filter any row
+     */
+    public static Optional<PixelsRowFilter> create(String schemaName, String tableName, String[] includeCols,
+                                                   List<PixelsColumnHandle> columns,
+                                                   TupleDomain<PixelsColumnHandle> constraint)
+    {
+        requireNonNull(constraint, "constraint is null");
+        if (constraint.isAll() || !constraint.getDomains().isPresent())
+        {
+            return Optional.empty();
+        }
+        List<Integer> channels = new ArrayList<>();
+        List<ColumnFilter> columnFilters = new ArrayList<>();
+        Map<PixelsColumnHandle, Domain> fallbackDomains = new HashMap<>();
+        for (Map.Entry<PixelsColumnHandle, Domain> entry : constraint.getDomains().get().entrySet())
+        {
+            int channel = columns.indexOf(entry.getKey());
+            ColumnFilter columnFilter = channel < 0 ? null : createColumnFilter(entry.getValue());
+            if (columnFilter != null)
+            {
+                channels.add(channel);
+                columnFilters.add(columnFilter);
+            }
+            else
+            {
+                fallbackDomains.put(entry.getKey(), entry.getValue());
+            }
+        }
+        Optional<TableScanFilter> fallbackFilter = fallbackDomains.isEmpty() ? Optional.empty() :
+                Optional.of(PixelsSplitManager.createTableScanFilter(schemaName, tableName, includeCols,
+                        TupleDomain.withColumnDomains(fallbackDomains)));
+        return Optional.of(new PixelsRowFilter(channels.stream().mapToInt(Integer::intValue).toArray(),
+                columnFilters.toArray(new ColumnFilter[0]), fallbackFilter));
+    }
+
+    /**
+     * Filter the rows in the row batch. The same as {@link TableScanFilter#doFilter(VectorizedRowBatch, Bitmap, Bitmap)},
+     * the bits of the matched rows in the result are set, and the row batch is not modified.
+     * @param rowBatch the row batch
+     * @param result the result
+     * @param tmp the temporary bitmap, it has the same capacity as the result
+     */
+    public void doFilter(VectorizedRowBatch rowBatch, Bitmap result, Bitmap tmp)
+    {
+        if (fallbackFilter.isPresent())
+        {
+            fallbackFilter.get().doFilter(rowBatch, result, tmp);
+        }
+        else
+        {
+            result.set(0, rowBatch.size);
+        }
+        for (int i = 0; i < columnFilters.length; ++i)
+        {
+            columnFilters[i].filter(rowBatch.cols[channels[i]], rowBatch.size, result);
+        }
+    }
+
+    /**
+     * @return the type-specialized filter of the domain, or null if the type of the domain is not supported
+     */
+    private static ColumnFilter createColumnFilter(Domain domain)
+    {
+        Type type = domain.getType();
+        if (domain.isAll())
+        {
+            return (vector, size, result) -> {};
+        }
+        if (domain.isNone())
+        {
+            return (vector, size, result) -> result.clear(0, size);
+        }
+        if (domain.isOnlyNull())
+        {
+            return PixelsRowFilter::filterNull;
+        }
+        if (domain.getValues().isAll())
+        {
+            /*
+             * E.g., 'is not null'. It must not be evaluated by the ranges, as NaN is in the value set all
+             * of a double domain (see SortedRangeSet.containsValue of Trino) but not in any bounded range.
+             */
+            return PixelsRowFilter::filterNotNull;
+        }
+        if (type == BIGINT || type == INTEGER || type == SMALLINT || type == TINYINT)
+        {
+            LongRanges ranges = LongRanges.of(domain);
+            return (vector, size, result) -> filterLongs(((LongColumnVector) vector).vector, vector, size, ranges, result);
+        }
+        if (type instanceof DecimalType && ((DecimalType) type).isShort())
+        {
+            LongRanges ranges = LongRanges.of(domain);
+            return (vector, size, result) -> filterLongs(((DecimalColumnVector) vector).vector, vector, size, ranges, result);
+        }
+        if (type instanceof TimestampType && ((TimestampType) type).isShort())
+        {
+            LongRanges ranges = LongRanges.of(domain);
+            return (vector, size, result) -> filterLongs(((TimestampColumnVector) vector).times, vector, size, ranges, result);
+        }
+        if (type == DATE)
+        {
+            LongRanges ranges = LongRanges.of(domain);
+            return (vector, size, result) -> filterInts(((DateColumnVector) vector).dates, vector, size, ranges, result);
+        }
+        if (type == DOUBLE)
+        {
+            DoubleRanges ranges = DoubleRanges.of(domain);
+            return (vector, size, result) -> filterDoubles(((DoubleColumnVector) vector).vector, vector, size, ranges, result);
+        }
+        return null;
+    }
+
+    private static void filterNull(ColumnVector vector, int size, Bitmap result)
+    {
+        if (vector.noNulls)
+        {
+            result.clear(0, size);
+            return;
+        }
+        boolean[] isNull = vector.isNull;
+        for (int i = 0; i < size; ++i)
+        {
+            if (!isNull[i])
+            {
+                result.clear(i);
+            }
+        }
+    }
+
+    private static void filterNotNull(ColumnVector vector, int size, Bitmap result)
+    {
+        if (vector.noNulls)
+        {
+            return;
+        }
+        boolean[] isNull = vector.isNull;
+        for (int i = 0; i < size; ++i)
+        {
+            if (isNull[i])
+            {
+                result.clear(i);
+            }
+        }
+    }
+
+    private static void filterLongs(long[] values, ColumnVector vector, int size, LongRanges ranges, Bitmap result)
+    {
+        boolean[] isNull = vector.noNulls ? null : vector.isNull;
+        if (ranges.lows.length == 1)
+        {
+            // the most common case, e.g., comparisons and between, is specialized without the range search.
+            long low = ranges.lows[0], high = ranges.highs[0];
+            if (isNull == null)
+            {
+                for (int i = 0; i < size; ++i)
+                {
+                    long value = values[i];
+                    if (value < low | value > high)
+                    {
+                        result.clear(i);
+                    }
+                }
+            }
+            else
+            {
+                boolean nullAllowed = ranges.nullAllowed;
+                for (int i = 0; i < size; ++i)
+                {
+                    long value = values[i];
+                    if (isNull[i] ? !nullAllowed : (value < low | value > high))
+                    {
+                        result.clear(i);
+                    }
+                }
+            }
+            return;
+        }
+        for (int i = 0; i < size; ++i)
+        {
+            if (isNull != null && isNull[i] ? !ranges.nullAllowed : !ranges.contains(values[i]))
+            {
+                result.clear(i);
+            }
+        }
+    }
+
+    private static void filterInts(int[] values, ColumnVector vector, int size, LongRanges ranges, Bitmap result)
+    {
+        boolean[] isNull = vector.noNulls ? null : vector.isNull;
+        if (ranges.lows.length == 1)
+        {
+            long low = ranges.lows[0], high = ranges.highs[0];
+            if (isNull == null)
+            {
+                for (int i = 0; i < size; ++i)
+                {
+                    int value = values[i];
+                    if (value < low | value > high)
+                    {
+                        result.clear(i);
+                    }
+                }
+            }
+            else
+            {
+                boolean nullAllowed = ranges.nullAllowed;
+                for (int i = 0; i < size; ++i)
+                {
+                    int value = values[i];
+                    if (isNull[i] ? !nullAllowed : (value < low | value > high))
+                    {
+                        result.clear(i);
+                    }
+                }
+            }
+            return;
+        }
+        for (int i = 0; i < size; ++i)
+        {
+            if (isNull != null && isNull[i] ? !ranges.nullAllowed : !ranges.contains(values[i]))
+            {
+                result.clear(i);
+            }
+        }
+    }
+
+    /**
+     * @param values the raw long bits of the double values
+     */
+    private static void filterDoubles(long[] values, ColumnVector vector, int size, DoubleRanges ranges, Bitmap result)
+    {
+        boolean[] isNull = vector.noNulls ? null : vector.isNull;
+        for (int i = 0; i < size; ++i)
+        {
+            if (isNull != null && isNull[i] ? !ranges.nullAllowed : !ranges.contains(Double.longBitsToDouble(values[i])))
+            {
+                result.clear(i);
+            }
+        }
+    }
+
+    /**
+     * The disjoint ranges of an integral domain, sorted by the bounds. The bounds are inclusive.
+     */
+    static final class LongRanges
+    {
+        private final long[] lows;
+        private final long[] highs;
+        private final boolean nullAllowed;
+
+        private LongRanges(long[] lows, long[] highs, boolean nullAllowed)
+        {
+            this.lows = lows;
+            this.highs = highs;
+            this.nullAllowed = nullAllowed;
+        }
+
+        static LongRanges of(Domain domain)
+        {
+            List<Range> ranges = domain.getValues().getRanges().getOrderedRanges();
+            long[] lows = new long[ranges.size()];
+            long[] highs = new long[ranges.size()];
+            int n = 0;
+            for (Range range : ranges)
+            {
+                long low = Long.MIN_VALUE, high = Long.MAX_VALUE;
+                if (!range.isLowUnbounded())
+                {
+                    low = (long) range.getLowBoundedValue();
+                    if (!range.isLowInclusive())
+                    {
+                        if (low == Long.MAX_VALUE)
+                        {
+                            continue;
+                        }
+                        ++low;
+                    }
+                }
+                if (!range.isHighUnbounded())
+                {
+                    high = (long) range.getHighBoundedValue();
+                    if (!range.isHighInclusive())
+                    {
+                        if (high == Long.MIN_VALUE)
+                        {
+                            continue;
+                        }
+                        --high;
+                    }
+                }
+                if (low <= high)
+                {
+                    lows[n] = low;
+                    highs[n++] = high;
+                }
+            }
+            if (n == 0)
+            {
+                // no value matches, use an empty range.
+                return new LongRanges(new long[] {Long.MAX_VALUE}, new long[] {Long.MIN_VALUE}, domain.isNullAllowed());
+            }
+            return new LongRanges(Arrays.copyOf(lows, n), Arrays.copyOf(highs, n),
+                    domain.isNullAllowed());
+        }
+
+        boolean contains(long value)
+        {
+            // binary search the first range whose high bound is not less than the value.
+            int left = 0, right = highs.length;
+            while (left < right)
+            {
+                int mid = (left + right) >>> 1;
+                if (highs[mid] < value)
+                {
+                    left = mid + 1;
+                }
+                else
+                {
+                    right = mid;
+                }
+            }
+            return left < highs.length && lows[left] <= value;
+        }
+    }
+
+    /**
+     * The disjoint ranges of a double domain, sorted by the bounds. As in Trino, NaN is only in the value set all,
+     * which is not evaluated by the ranges, hence NaN is not in any range, including the unbounded ones.
+     */
+    static final class DoubleRanges
+    {
+        private final double[] lows;
+        private final double[] highs;
+        private final boolean[] lowInclusive;
+        private final boolean[] highInclusive;
+        private final boolean nullAllowed;
+
+        private DoubleRanges(double[] lows, double[] highs, boolean[] lowInclusive, boolean[] highInclusive,
+                             boolean nullAllowed)
+        {
+            this.lows = lows;
+            this.highs = highs;
+            this.lowInclusive = lowInclusive;
+            this.highInclusive = highInclusive;
+            this.nullAllowed = nullAllowed;
+        }
+
+        static DoubleRanges of(Domain domain)
+        {
+            List<Range> ranges = domain.getValues().getRanges().getOrderedRanges();
+            int n = ranges.size();
+            double[] lows = new double[n];
+            double[] highs = new double[n];
+            boolean[] lowInclusive = new boolean[n];
+            boolean[] highInclusive = new boolean[n];
+            for (int i = 0; i < n; ++i)
+            {
+                Range range = ranges.get(i);
+                lows[i] = range.isLowUnbounded() ? Double.NEGATIVE_INFINITY : (double) range.getLowBoundedValue();
+                lowInclusive[i] = range.isLowUnbounded() || range.isLowInclusive();
+                highs[i] = range.isHighUnbounded() ? Double.POSITIVE_INFINITY : (double) range.getHighBoundedValue();
+                highInclusive[i] = range.isHighUnbounded() || range.isHighInclusive();
+            }
+            return new DoubleRanges(lows, highs, lowInclusive, highInclusive, domain.isNullAllowed());
+        }
+
+        boolean contains(double value)
+        {
+            // binary search the first range whose high bound is not below the value, NaN is below no range.
+            int left = 0, right = highs.length;
+            while (left < right)
+            {
+                int mid = (left + right) >>> 1;
+                if (value < highs[mid] || (highInclusive[mid] && value == highs[mid]))
+                {
+                    right = mid;
+                }
+                else
+                {
+                    left = mid + 1;
+                }
+            }
+            // the ranges are sorted, only this range may contain the value.
+            return left < highs.length && (value > lows[left] || (lowInclusive[left] && value == lows[left]));
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2026 PixelsDB.
+ *
+ * This file is part of Pixels.
+ *
+ * Pixels is free software: you can redistribute it and/or modify
+ * it under the terms of the Affero GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * Pixels is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * Affero GNU General Public License for more details.
+ *
+ * You should have received a copy of the Affero GNU General Public
+ * License along with Pixels.  If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package io.pixelsdb.pixels.trino;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.pixelsdb.pixels.core.predicate.PixelsPredicate;
+import io.pixelsdb.pixels.trino.exception.PixelsErrorCode;
+import io.trino.spi.TrinoException;
+import io.trino.spi.predicate.TupleDomain;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static com.google.common.base.Throwables.throwIfUnchecked;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The worker-side cache of the row filters and the predicates compiled from the constraints of the
+ * splits. The splits of the same table scan in a query usually have the same constraint and column
+ * order, hence the page sources of these splits can share the compiled filter and predicate.
+ * <p/>
+ * The cached filters and predicates are immutable after construction, so they are shared by the
+ * page sources without synchronization.
+ */
+public class PixelsScanFilterCache
+{
+    private final Cache<Key, CompiledFilter> cache = CacheBuilder.newBuilder()
+            .maximumSize(1024).expireAfterAccess(10, TimeUnit.MINUTES).build();
+
+    /**
+     * Get the compiled filter and predicate from the cache, or compile them by the loader.
+     * @param transId the transaction id of the query
+     * @param schemaName the schema name of the table
+     * @param tableName the table name
+     * @param includeCols the names of the columns to read
+     * @param columnOrder the column order in the files of the split
+     * @param rowFilterEnabled whether the rows are filtered in the page source
+     * @param constraint the constraint of the split
+     * @param loader the loader to compile the filter and predicate if they are not cached
+     * @return the compiled filter and predicate
+     */
+    public CompiledFilter get(long transId, String schemaName, String tableName, String[] includeCols,
+                              List<String> columnOrder, boolean rowFilterEnabled,
+                              TupleDomain<PixelsColumnHandle> constraint, Supplier<CompiledFilter> loader)
+    {
+        Key key = new Key(transId, schemaName, tableName, ImmutableList.copyOf(includeCols),
+                columnOrder, rowFilterEnabled, constraint);
+        try
+        {
+            return this.cache.get(key, loader::get);
+        } catch (ExecutionException | UncheckedExecutionException e)
+        {
+            throwIfUnchecked(e.getCause());
+            throw new TrinoException(PixelsErrorCode.PIXELS_CONNECTOR_ERROR, "failed to compile the filter", e);
+        }
+    }
+
+    /**
+     * Drop the cached filters and predicates of a transaction.
+     * @param transId the transaction id
+     */
+    public void invalidate(long transId)
+    {
+        this.cache.asMap().keySet().removeIf(key -> key.transId == transId);
+    }
+
+    /**
+     * The filter and predicate compiled from the constraint of a split.
+     */
+    public static final class CompiledFilter
+    {
+        private final Optional<PixelsRowFilter> filter;
+        private final PixelsPredicate predicate;
+
+        public CompiledFilter(Optional<PixelsRowFilter> filter, PixelsPredicate predicate)
+        {
+            this.filter = requireNonNull(filter, "filter is null");
+            this.predicate = predicate;
+        }
+
+        public Optional<PixelsRowFilter> getFilter()
+        {
+            return filter;
+        }
+
+        /**
+         * @return the predicate to skip the row groups, or null if there is no predicate
+         */
+        public PixelsPredicate getPredicate()
+        {
+            return predicate;
+        }
+    }
+
+    private static final class Key
+    {
+        private final long transId;
+        private final String schemaName;
+        private final String tableName;
+        private final List<String> includeCols;
+        private final List<String> columnOrder;
+        private final boolean rowFilterEnabled;
+        private final TupleDomain<PixelsColumnHandle> constraint;
+        private final int hashCode;
+
+        private Key(long transId, String schemaName, String tableName, List<String> includeCols,
+                    List<String> columnOrder, boolean rowFilterEnabled, TupleDomain<PixelsColumnHandle> constraint)
+        {
+            this.transId = transId;
+            this.schemaName = schemaName;
+            this.tableName = tableName;
+            this.includeCols = includeCols;
+            this.columnOrder = columnOrder;
+            this.rowFilterEnabled = rowFilterEnabled;
+            this.constraint = constraint;
+            this.hashCode = Objects.hash(transId, schemaName, tableName, includeCols,
+                    columnOrder, rowFilterEnabled, constraint);
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key that = (Key) o;
+            return transId == that.transId && hashCode == that.hashCode &&
+                    rowFilterEnabled == that.rowFilterEnabled &&
+                    Objects.equals(schemaName, that.schemaName) && Objects.equals(tableName, that.tableName) &&
+                    Objects.equals(includeCols, that.includeCols) && Objects.equals(columnOrder, that.columnOrder) &&
+                    Objects.equals(constraint, that.constraint);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hashCode;
+        }
+    }
+}
@@ -29,6 +29,7 @@ import io.trino.spi.predicate.TupleDomain;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.OptionalLong;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
@@ -57,6 +58,19 @@ public class PixelsSplit implements ConnectorSplit
     private final TupleDomain<PixelsColumnHandle> constraint;
     private boolean fromServerlessOutput;
     private final boolean readSynthColumns;
+    private OptionalLong limit;
+    private PixelsTopNHandle topNHandle;
+
+    public PixelsSplit(long transId, long splitId, String connectorId, String schemaName, String tableName,
+                       String storageScheme, List<String> paths, List<Integer> rgStarts, List<Integer> rgLengths,
+                       boolean cached, boolean ensureLocality, List<HostAddress> addresses, List<String> columnOrder,
+                       List<String> cacheOrder, TupleDomain<PixelsColumnHandle> constraint,
+                       boolean fromServerlessOutput, boolean readSynthColumns)
+    {
+        this(transId, splitId, connectorId, schemaName, tableName, storageScheme, paths, rgStarts, rgLengths,
+                cached, ensureLocality, addresses, columnOrder, cacheOrder, constraint,
+                fromServerlessOutput, readSynthColumns, OptionalLong.empty(), null);
+    }
 
     @JsonCreator
     public PixelsSplit(
@@ -76,7 +90,9 @@ public class PixelsSplit implements ConnectorSplit
             @JsonProperty("cacheOrder") List<String> cacheOrder,
             @JsonProperty("constraint") TupleDomain<PixelsColumnHandle> constraint,
             @JsonProperty("fromServerlessOutput") boolean fromServerlessOutput,
-            @JsonProperty("readSynthColumns") boolean readSynthColumns) {
+            @JsonProperty("readSynthColumns") boolean readSynthColumns,
+            @JsonProperty("limit") OptionalLong limit,
+            @JsonProperty("topNHandle") PixelsTopNHandle topNHandle) {
         this.transId = transId;
         this.splitId = splitId;
         this.schemaName = requireNonNull(schemaName, "schema name is null");
@@ -100,6 +116,8 @@ public class PixelsSplit implements ConnectorSplit
         this.constraint = requireNonNull(constraint, "constraint is null");
         this.fromServerlessOutput = fromServerlessOutput;
         this.readSynthColumns = readSynthColumns;
+        this.limit = requireNonNull(limit, "limit is null");
+        this.topNHandle = topNHandle;
     }
 
     /**
@@ -118,6 +136,25 @@ public class PixelsSplit implements ConnectorSplit
         this.rgLengths = this.rgLengths.subList(0, numOutputs);
     }
 
+    /**
+     * Set the maximum number of rows to be read from this split.
+     * @param limit the row limit, or empty if this split is not limited
+     */
+    public void setLimit(OptionalLong limit)
+    {
+        this.limit = requireNonNull(limit, "limit is null");
+        checkArgument(!limit.isPresent() || limit.getAsLong() >= 0, "limit is negative");
+    }
+
+    /**
+     * Set the top-n to be applied on the rows read from this split.
+     * @param topNHandle the top-n, or null if this split does not have top-n
+     */
+    public void setTopNHandle(PixelsTopNHandle topNHandle)
+    {
+        this.topNHandle = topNHandle;
+    }
+
     @JsonProperty
     public String getConnectorId()
     {
@@ -227,6 +264,19 @@ public class PixelsSplit implements ConnectorSplit
         return this.rgLengths.get(pathIndex);
     }
 
+    /**
+     * @return the index of the current path in this split
+     */
+    public int currentPathIndex()
+    {
+        return this.pathIndex;
+    }
+
+    public String getPath(int index)
+    {
+        return this.paths.get(index);
+    }
+
     public SchemaTableName getSchemaTableName()
     {
         return new SchemaTableName(this.schemaName, this.tableName);
@@ -267,6 +317,24 @@ public class PixelsSplit implements ConnectorSplit
         return readSynthColumns;
     }
 
+    /**
+     * @return the maximum number of rows to be read from this split, or empty if this split is not limited
+     */
+    @JsonProperty
+    public OptionalLong getLimit()
+    {
+        return limit;
+    }
+
+    /**
+     * @return the top-n to be applied on the rows read from this split, or null if not present
+     */
+    @JsonProperty
+    public PixelsTopNHandle getTopNHandle()
+    {
+        return topNHandle;
+    }
+
     @Override
     public Object getInfo()
     {
@@ -290,7 +358,9 @@ public class PixelsSplit implements ConnectorSplit
                 Objects.equals(this.rgLengths, that.rgLengths) &&
                 Objects.equals(this.addresses, that.addresses) &&
                 // No need to consider this.order and this.cacheOrder.
-                Objects.equals(this.constraint, that.constraint);
+                Objects.equals(this.constraint, that.constraint) &&
+                Objects.equals(this.limit, that.limit) &&
+                Objects.equals(this.topNHandle, that.topNHandle);
     }
 
     @Override
@@ -298,7 +368,7 @@ public class PixelsSplit implements ConnectorSplit
     {
         // No need to consider this.order and this.cacheOrder.
         return Objects.hash(transId, splitId, connectorId, schemaName, tableName,
-                paths, rgStarts, rgLengths, addresses, cached, constraint);
+                paths, rgStarts, rgLengths, addresses, cached, constraint, limit, topNHandle);
     }
 
     @Override
@@ -316,6 +386,7 @@ public class PixelsSplit implements ConnectorSplit
                 ", rgLengths=" + listToJsonArray(rgLengths) +
                 ", isCached=" + cached +
                 ", addresses=" + addresses +
+                ", limit=" + limit +
                 '}';
     }
 
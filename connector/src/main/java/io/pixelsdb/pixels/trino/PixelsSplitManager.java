@@ -21,8 +21,12 @@ package io.pixelsdb.pixels.trino;
 
 import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.serializer.SerializerFeature;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.google.protobuf.InvalidProtocolBufferException;
 import io.airlift.log.Logger;
 import io.airlift.slice.Slice;
@@ -42,7 +46,13 @@ import io.pixelsdb.pixels.common.turbo.Output;
 import io.pixelsdb.pixels.common.turbo.SimpleOutput;
 import io.pixelsdb.pixels.common.utils.Constants;
 import io.pixelsdb.pixels.common.utils.EtcdUtil;
+import io.pixelsdb.pixels.core.PixelsFooterCache;
+import io.pixelsdb.pixels.core.PixelsReader;
+import io.pixelsdb.pixels.core.PixelsProto;
+import io.pixelsdb.pixels.core.PixelsReaderImpl;
 import io.pixelsdb.pixels.core.TypeDescription;
+import io.pixelsdb.pixels.core.stats.ColumnStats;
+import io.pixelsdb.pixels.core.stats.StatsRecorder;
 import io.pixelsdb.pixels.core.utils.Pair;
 import io.pixelsdb.pixels.executor.aggregation.FunctionType;
 import io.pixelsdb.pixels.executor.join.JoinAlgorithm;
@@ -64,6 +74,7 @@ import io.pixelsdb.pixels.trino.exception.CacheException;
 import io.pixelsdb.pixels.trino.exception.PixelsErrorCode;
 import io.pixelsdb.pixels.trino.impl.PixelsMetadataProxy;
 import io.pixelsdb.pixels.trino.impl.PixelsTrinoConfig;
+import io.pixelsdb.pixels.trino.impl.PixelsTupleDomainPredicate;
 import io.pixelsdb.pixels.trino.properties.PixelsSessionProperties;
 import io.trino.spi.HostAddress;
 import io.trino.spi.TrinoException;
@@ -75,12 +86,21 @@ import io.trino.spi.type.Type;
 
 import javax.inject.Inject;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Throwables.throwIfInstanceOf;
+import static com.google.common.base.Throwables.throwIfUnchecked;
 import static io.pixelsdb.pixels.planner.PixelsPlanner.getFilePaths;
 import static io.pixelsdb.pixels.trino.impl.PixelsTrinoConfig.getOutputStateKeyPrefix;
 import static java.util.Objects.requireNonNull;
@@ -102,6 +122,33 @@ public class PixelsSplitManager implements ConnectorSplitManager
     private final String cacheSchema;
     private final String cacheTable;
     private final int fixedSplitSize;
+    /**
+     * The footer cache used by the coordinator to get the number of rows in the splits.
+     */
+    private final PixelsFooterCache footerCache = new PixelsFooterCache();
+    /**
+     * The number of splits in a chunk emitted to the split source.
+     */
+    static final int SPLIT_CHUNK_SIZE = 256;
+    /**
+     * The cache of the host addresses of the files.
+     */
+    private final Cache<String, List<HostAddress>> locationCache = CacheBuilder.newBuilder()
+            .maximumSize(100_000).expireAfterWrite(10, TimeUnit.MINUTES).build();
+    /**
+     * The executor to generate the scan splits in the background.
+     */
+    private final ExecutorService splitGenerator = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+            .setNameFormat("pixels-split-generator-%d").setDaemon(true).build());
+    /**
+     * The maximum number of file footers read in parallel for the row group pruning.
+     */
+    private static final int FOOTER_READ_PARALLELISM = 16;
+    /**
+     * The executor to read the file footers for the row group pruning.
+     */
+    private final ExecutorService footerReader = Executors.newFixedThreadPool(FOOTER_READ_PARALLELISM,
+            new ThreadFactoryBuilder().setNameFormat("pixels-footer-reader-%d").setDaemon(true).build());
 
     @Inject
     public PixelsSplitManager(PixelsConnectorId connectorId, PixelsMetadataProxy metadataProxy,
@@ -135,6 +182,15 @@ public class PixelsSplitManager implements ConnectorSplitManager
         }
     }
 
+    /**
+     * Stop the split generation threads, this is called when the connector is shut down.
+     */
+    public void shutdown()
+    {
+        this.splitGenerator.shutdownNow();
+        this.footerReader.shutdownNow();
+    }
+
     public static List<PixelsColumnHandle> getIncludeColumns(PixelsTableHandle tableHandle)
     {
         return getIncludeColumns(tableHandle.getColumns(), tableHandle);
@@ -221,7 +277,7 @@ public class PixelsSplitManager implements ConnectorSplitManager
                                 Collections.nCopies(outputPaths.size(), 0), Collections.nCopies(outputPaths.size(), -1),
                                 false, false, Arrays.asList(address), columnOrder, cacheOrder,
                                 // we do not use synthetic columns for scan operator
-                                emptyConstraint, true, false);
+                                emptyConstraint, true, false, tableHandle.getLimit(), tableHandle.getTopNHandle());
                         splitsBuilder.add(split);
                     }
                     if (Objects.equals(config.getConfigFactory().getProperty("executor.exchange.method"), ExchangeMethod.stream.name()))
@@ -263,8 +319,30 @@ public class PixelsSplitManager implements ConnectorSplitManager
                     pixelsSplits = splitsBuilder.build();
                 } else
                 {
-                    pixelsSplits = getScanSplits(transHandle, session, tableHandle);
-                    Collections.shuffle(pixelsSplits);
+                    /*
+                     * The scan splits are generated in the background and returned to Trino chunk by chunk,
+                     * so that the first splits can be scheduled before all the splits are generated.
+                     * The splits with limit are not dropped by the dynamic filter, as the limit is distributed
+                     * to the splits by the number of rows without considering the dynamic filter.
+                     */
+                    boolean dynamicFiltering = !tableHandle.getLimit().isPresent() &&
+                            !dynamicFilter.getColumnsCovered().isEmpty();
+                    return new PixelsSplitSource(this.splitGenerator,
+                            sink -> {
+                                try
+                                {
+                                    generateScanSplits(transHandle, session, tableHandle,
+                                            new ScanSplitEmitter(tableHandle, sink));
+                                } catch (MetadataException e)
+                                {
+                                    logger.error(e, "failed to get scan splits");
+                                    throw new TrinoException(PixelsErrorCode.PIXELS_METASTORE_ERROR,
+                                            "failed to get scan splits", e);
+                                }
+                            },
+                            dynamicFiltering ? dynamicFilter : DynamicFilter.EMPTY,
+                            PixelsSessionProperties.getDynamicFilterWaitTimeout(session), this::mayMatch,
+                            this.footerReader);
                 }
             } catch (MetadataException | IOException e)
             {
@@ -377,6 +455,27 @@ public class PixelsSplitManager implements ConnectorSplitManager
                             cacheOrder, emptyConstraint, true, true);
                     splitsBuilder.add(split);
                 }
+                List<PixelsSplit> splits = splitsBuilder.build();
+                if (tableHandle.getAggrHandle().isGlobalAggregation() && !splits.isEmpty())
+                {
+                    /*
+                     * A global aggregation must output exactly one row even if the input is empty. The outputs of
+                     * the final aggregation workers are read by one split, which merges the rows of the workers
+                     * into one, or outputs the default row if none of the workers outputs any row. The split id
+                     * of the worker i is i. See PixelsGlobalAggrPageSource.
+                     */
+                    ImmutableList.Builder<String> paths = ImmutableList.builder();
+                    for (PixelsSplit split : splits)
+                    {
+                        paths.addAll(split.getPaths());
+                    }
+                    splits = ImmutableList.of(new PixelsSplit(
+                            transHandle.getTransId(), 0, connectorId, root.getSchemaName(), root.getTableName(),
+                            config.getOutputStorageScheme().name(), paths.build(),
+                            Collections.nCopies(splits.size(), 0), Collections.nCopies(splits.size(), -1),
+                            false, false, Arrays.asList(address), columnOrder, cacheOrder, emptyConstraint,
+                            true, true));
+                }
 
                 // logger.debug("aggregation operator: " + JSON.toJSONString(aggrOperator));
                 aggrOperator.execute().thenAccept(aggrOutputs -> {
@@ -410,7 +509,7 @@ public class PixelsSplitManager implements ConnectorSplitManager
                 // PIXELS-506: add the scan size of the sub-plan.
                 transHandle.addScanBytes(planner.getScanSize());
 
-                return new PixelsSplitSource(splitsBuilder.build());
+                return new PixelsSplitSource(splits);
             } catch (IOException | MetadataException e)
             {
                 throw new TrinoException(PixelsErrorCode.PIXELS_SQL_EXECUTE_ERROR, e);
@@ -667,7 +766,35 @@ public class PixelsSplitManager implements ConnectorSplitManager
     {
         PixelsAggrHandle aggrHandle = tableHandle.getAggrHandle();
         PixelsTableHandle originTableHandle = aggrHandle.getOriginTable();
-        List<PixelsColumnHandle> originColumns = originTableHandle.getColumns();
+
+        // Build the origin table.
+        io.pixelsdb.pixels.planner.plan.logical.Table originTable;
+        List<PixelsColumnHandle> originColumns;
+        if (originTableHandle.getTableType() == TableType.JOINED)
+        {
+            originTable = parseJoinPlan(transId, originTableHandle);
+            /*
+             * The join result may be rotated, thus the columns of the joined table are ordered by the
+             * (synthetic) column names in the join result, which are read by the aggregation workers.
+             */
+            Map<String, PixelsColumnHandle> joinedColumnMap = new HashMap<>();
+            for (PixelsColumnHandle joinedColumn : originTableHandle.getColumns())
+            {
+                joinedColumnMap.put(joinedColumn.getSynthColumnName(), joinedColumn);
+            }
+            ImmutableList.Builder<PixelsColumnHandle> originColumnsBuilder = ImmutableList.builder();
+            for (String columnName : originTable.getColumnNames())
+            {
+                originColumnsBuilder.add(requireNonNull(joinedColumnMap.get(columnName),
+                        "column " + columnName + " is not found in the joined table"));
+            }
+            originColumns = originColumnsBuilder.build();
+        }
+        else
+        {
+            originTable = parseBaseTable(originTableHandle);
+            originColumns = originTableHandle.getColumns();
+        }
 
         // groupKeyColumns and aggrColumns are from the origin table.
         int numGroupKeyColumns = aggrHandle.getGroupKeyColumns().size();
@@ -755,17 +882,6 @@ public class PixelsSplitManager implements ConnectorSplitManager
             functionTypes[i] = functionTypeList.get(i);
         }
 
-        // Build the origin table.
-        io.pixelsdb.pixels.planner.plan.logical.Table originTable;
-        if (originTableHandle.getTableType() == TableType.JOINED)
-        {
-            originTable = parseJoinPlan(transId, originTableHandle);
-        }
-        else
-        {
-            originTable = parseBaseTable(originTableHandle);
-        }
-
         Aggregation aggregation = new Aggregation(
                 groupKeyColumnAlias, resultColumnAlias, resultColumnTypes, groupKeyColumnProj,
                 groupKeyColumnIds, aggregateColumnIds, functionTypes, originTable);
@@ -807,8 +923,16 @@ public class PixelsSplitManager implements ConnectorSplitManager
         return new Pair<>(splitSize, new InputSplit(inputInfos));
     }
 
-    private List<PixelsSplit> getScanSplits(PixelsTransactionHandle transHandle, ConnectorSession session,
-                                            PixelsTableHandle tableHandle) throws MetadataException
+    /**
+     * Generate the scan splits of a base table and add them into the emitter.
+     * @param transHandle the transaction handle
+     * @param session the connector session
+     * @param tableHandle the handle of the base table
+     * @param emitter the emitter of the splits, the generation stops if it does not need more splits
+     * @throws MetadataException if failed to get the metadata of the table
+     */
+    private void generateScanSplits(PixelsTransactionHandle transHandle, ConnectorSession session,
+                                    PixelsTableHandle tableHandle, ScanSplitEmitter emitter) throws MetadataException
     {
         // Do not use constraint_ in the parameters, it is always TupleDomain.all().
         TupleDomain<PixelsColumnHandle> constraint = tableHandle.getConstraint();
@@ -867,8 +991,10 @@ public class PixelsSplitManager implements ConnectorSplitManager
          */
         boolean orderedPathEnabled = PixelsSessionProperties.getOrderedPathEnabled(session);
         boolean compactPathEnabled = PixelsSessionProperties.getCompactPathEnabled(session);
+        // the row groups can be pruned only if there is a filter on the table.
+        boolean splitPruningEnabled = PixelsSessionProperties.getSplitPruningEnabled(session) &&
+                !constraint.isAll() && constraint.getDomains().isPresent();
 
-        List<PixelsSplit> pixelsSplits = new ArrayList<>();
         for (Layout layout : layouts)
         {
             // get index
@@ -999,6 +1125,10 @@ public class PixelsSplitManager implements ConnectorSplitManager
                             {
                                 List<String> orderedFilePaths = getFilePaths(
                                         layout.getOrderedPaths(), metadataProxy.getMetadataService());
+                                // We do not cache files in the ordered paths, thus get locations from the storage.
+                                Map<String, CompletableFuture<List<HostAddress>>> orderedAddressFutures =
+                                        lookupHostAddresses(storage, getFirstPaths(orderedFilePaths,
+                                                this.multiSplitForOrdered ? splitSize : 1));
 
                                 int numPath = orderedFilePaths.size();
                                 for (int i = 0; i < numPath; )
@@ -1016,9 +1146,8 @@ public class PixelsSplitManager implements ConnectorSplitManager
                                         paths.add(orderedFilePaths.get(i++));
                                     }
 
-                                    // We do not cache files in the ordered paths, thus get locations from the storage.
-                                    List<HostAddress> orderedAddresses = toHostAddresses(
-                                            storage.getLocations(orderedFilePaths.get(firstPath)));
+                                    List<HostAddress> orderedAddresses = joinHostAddresses(
+                                            orderedAddressFutures.get(orderedFilePaths.get(firstPath)));
 
                                     PixelsSplit pixelsSplit = new PixelsSplit(
                                             transHandle.getTransId(), splitId++, connectorId,
@@ -1030,47 +1159,67 @@ public class PixelsSplitManager implements ConnectorSplitManager
                                             ordered.getColumnOrder(), new ArrayList<>(0),
                                             constraint, false, false);
                                     // log.debug("Split in orderPaths: " + pixelsSplit.toString());
-                                    pixelsSplits.add(pixelsSplit);
+                                    if (!emitter.add(pixelsSplit))
+                                    {
+                                        cancelAll(orderedAddressFutures.values());
+                                        return;
+                                    }
                                 }
                             }
                             // 4. add splits in compactPaths
                             if (compactPathEnabled)
                             {
-                                int curFileRGIdx;
                                 List<String> compactFilePaths = getFilePaths(
                                         compactPaths, metadataProxy.getMetadataService());
+                                List<String> uncachedFilePaths = new ArrayList<>();
                                 for (String path : compactFilePaths)
                                 {
-                                    curFileRGIdx = 0;
-                                    while (curFileRGIdx < rowGroupNum)
+                                    if (!fileToNodeMap.containsKey(path))
+                                    {
+                                        uncachedFilePaths.add(path);
+                                    }
+                                }
+                                Map<String, CompletableFuture<List<HostAddress>>> compactAddressFutures =
+                                        lookupHostAddresses(storage, uncachedFilePaths);
+                                List<CompletableFuture<boolean[]>> matchedRowGroups = splitPruningEnabled ?
+                                        pruneRowGroups(storage, compactFilePaths, constraint) : null;
+                                for (int pathIndex = 0; pathIndex < compactFilePaths.size(); ++pathIndex)
+                                {
+                                    String path = compactFilePaths.get(pathIndex);
+                                    // the locations are the same for the splits in the same file.
+                                    String node = fileToNodeMap.get(path);
+                                    List<HostAddress> compactAddresses;
+                                    boolean ensureLocality;
+                                    if (node == null)
+                                    {
+                                        // this file is not cached, get the locations from the storage.
+                                        compactAddresses = joinHostAddresses(compactAddressFutures.get(path));
+                                        ensureLocality = storage.hasLocality();
+                                    } else
+                                    {
+                                        // this file is cached.
+                                        ImmutableList.Builder<HostAddress> builder = ImmutableList.builder();
+                                        builder.add(HostAddress.fromString(node));
+                                        compactAddresses = builder.build();
+                                        ensureLocality = true;
+                                    }
+                                    for (RowGroupRange range : getRowGroupRanges(matchedRowGroups == null ?
+                                            null : matchedRowGroups.get(pathIndex).join(), rowGroupNum, splitSize))
                                     {
-                                        String node = fileToNodeMap.get(path);
-                                        List<HostAddress> compactAddresses;
-                                        boolean ensureLocality;
-                                        if (node == null)
-                                        {
-                                            // this file is not cached, get the locations from the storage.
-                                            compactAddresses = toHostAddresses(storage.getLocations(path));
-                                            ensureLocality = storage.hasLocality();
-                                        } else
-                                        {
-                                            // this file is cached.
-                                            ImmutableList.Builder<HostAddress> builder = ImmutableList.builder();
-                                            builder.add(HostAddress.fromString(node));
-                                            compactAddresses = builder.build();
-                                            ensureLocality = true;
-                                        }
-
                                         PixelsSplit pixelsSplit = new PixelsSplit(
                                                 transHandle.getTransId(), splitId++, connectorId,
                                                 tableHandle.getSchemaName(), tableHandle.getTableName(),
                                                 table.getStorageScheme().name(), Arrays.asList(path),
-                                                Arrays.asList(curFileRGIdx), Arrays.asList(splitSize),
+                                                Arrays.asList(range.start), Arrays.asList(range.length),
                                                 true, ensureLocality, compactAddresses, ordered.getColumnOrder(),
                                                 cacheColumnChunkOrders, constraint, false, false);
-                                        pixelsSplits.add(pixelsSplit);
+                                        if (!emitter.add(pixelsSplit))
+                                        {
+                                            cancelAll(compactAddressFutures.values());
+                                            cancelAll(matchedRowGroups);
+                                            return;
+                                        }
                                         // log.debug("Split in compactPaths" + pixelsSplit.toString());
-                                        curFileRGIdx += splitSize;
                                     }
                                 }
                             }
@@ -1103,6 +1252,9 @@ public class PixelsSplitManager implements ConnectorSplitManager
                     {
                         List<String> orderedFilePaths = getFilePaths(
                                 layout.getOrderedPaths(), metadataProxy.getMetadataService());
+                        Map<String, CompletableFuture<List<HostAddress>>> orderedAddressFutures =
+                                lookupHostAddresses(storage, getFirstPaths(orderedFilePaths,
+                                        this.multiSplitForOrdered ? splitSize : 1));
 
                         int numPath = orderedFilePaths.size();
                         for (int i = 0; i < numPath; )
@@ -1120,8 +1272,8 @@ public class PixelsSplitManager implements ConnectorSplitManager
                                 paths.add(orderedFilePaths.get(i++));
                             }
 
-                            List<HostAddress> orderedAddresses = toHostAddresses(
-                                    storage.getLocations(orderedFilePaths.get(firstPath)));
+                            List<HostAddress> orderedAddresses = joinHostAddresses(
+                                    orderedAddressFutures.get(orderedFilePaths.get(firstPath)));
 
                             PixelsSplit pixelsSplit = new PixelsSplit(
                                     transHandle.getTransId(), splitId++, connectorId,
@@ -1133,7 +1285,11 @@ public class PixelsSplitManager implements ConnectorSplitManager
                                     ordered.getColumnOrder(), new ArrayList<>(0),
                                     constraint, false, false);
                             // logger.debug("Split in orderPaths: " + pixelsSplit.toString());
-                            pixelsSplits.add(pixelsSplit);
+                            if (!emitter.add(pixelsSplit))
+                            {
+                                cancelAll(orderedAddressFutures.values());
+                                return;
+                            }
                         }
                     }
                     // 2. add splits in compactPaths
@@ -1141,25 +1297,33 @@ public class PixelsSplitManager implements ConnectorSplitManager
                     {
                         List<String> compactFilePaths = getFilePaths(
                                 compactPaths, metadataProxy.getMetadataService());
+                        Map<String, CompletableFuture<List<HostAddress>>> compactAddressFutures =
+                                lookupHostAddresses(storage, compactFilePaths);
+                        List<CompletableFuture<boolean[]>> matchedRowGroups = splitPruningEnabled ?
+                                pruneRowGroups(storage, compactFilePaths, constraint) : null;
 
-                        int curFileRGIdx;
-                        for (String path : compactFilePaths)
+                        for (int pathIndex = 0; pathIndex < compactFilePaths.size(); ++pathIndex)
                         {
-                            curFileRGIdx = 0;
-                            while (curFileRGIdx < rowGroupNum)
+                            String path = compactFilePaths.get(pathIndex);
+                            // the locations are the same for the splits in the same file.
+                            List<HostAddress> compactAddresses = joinHostAddresses(compactAddressFutures.get(path));
+                            for (RowGroupRange range : getRowGroupRanges(matchedRowGroups == null ?
+                                    null : matchedRowGroups.get(pathIndex).join(), rowGroupNum, splitSize))
                             {
-                                List<HostAddress> compactAddresses = toHostAddresses(storage.getLocations(path));
-
                                 PixelsSplit pixelsSplit = new PixelsSplit(
                                         transHandle.getTransId(), splitId++, connectorId,
                                         tableHandle.getSchemaName(), tableHandle.getTableName(),
                                         table.getStorageScheme().name(), Arrays.asList(path),
-                                        Arrays.asList(curFileRGIdx), Arrays.asList(splitSize),
+                                        Arrays.asList(range.start), Arrays.asList(range.length),
                                         false, storage.hasLocality(), compactAddresses,
                                         ordered.getColumnOrder(), new ArrayList<>(0),
                                         constraint, false, false);
-                                pixelsSplits.add(pixelsSplit);
-                                curFileRGIdx += splitSize;
+                                if (!emitter.add(pixelsSplit))
+                                {
+                                    cancelAll(compactAddressFutures.values());
+                                    cancelAll(matchedRowGroups);
+                                    return;
+                                }
                             }
                         }
                     }
@@ -1171,7 +1335,296 @@ public class PixelsSplitManager implements ConnectorSplitManager
             }
         }
 
-        return pixelsSplits;
+        emitter.flush();
+    }
+
+    /**
+     * Applies the limit and top-n of the table handle on the generated scan splits, and emits the
+     * splits to the split source chunk by chunk. The splits in a chunk are shuffled, while the chunks
+     * are emitted in the natural order of the splits.
+     * <p/>
+     * If there is a limit, each split reads at most limit visible rows, and Trino applies the limit on the
+     * union of the splits. No split is dropped by the limit, because the numbers of rows in the file footers
+     * include the deleted rows and the rows invisible to the transaction, thus they can not tell which
+     * splits are enough to produce the limited number of rows.
+     */
+    static final class ScanSplitEmitter
+    {
+        private final PixelsTableHandle tableHandle;
+        private final Predicate<List<PixelsSplit>> sink;
+        private List<PixelsSplit> chunk = new ArrayList<>(SPLIT_CHUNK_SIZE);
+        private boolean stopped = false;
+
+        ScanSplitEmitter(PixelsTableHandle tableHandle, Predicate<List<PixelsSplit>> sink)
+        {
+            this.tableHandle = requireNonNull(tableHandle, "tableHandle is null");
+            this.sink = requireNonNull(sink, "sink is null");
+        }
+
+        /**
+         * @param split the generated split
+         * @return false if no more splits are needed
+         */
+        boolean add(PixelsSplit split)
+        {
+            if (stopped)
+            {
+                return false;
+            }
+            chunk.add(split);
+            if (chunk.size() >= SPLIT_CHUNK_SIZE)
+            {
+                return flush();
+            }
+            return true;
+        }
+
+        /**
+         * Emit the buffered splits to the split source.
+         * @return false if no more splits are needed
+         */
+        boolean flush()
+        {
+            if (stopped || chunk.isEmpty())
+            {
+                return !stopped;
+            }
+            List<PixelsSplit> splits = chunk;
+            chunk = new ArrayList<>(SPLIT_CHUNK_SIZE);
+            for (PixelsSplit split : splits)
+            {
+                split.setLimit(tableHandle.getLimit());
+                if (tableHandle.getTopNHandle() != null)
+                {
+                    split.setTopNHandle(tableHandle.getTopNHandle());
+                }
+            }
+            Collections.shuffle(splits);
+            if (!sink.test(splits))
+            {
+                // the split source is closed.
+                stopped = true;
+            }
+            return !stopped;
+        }
+    }
+
+    /**
+     * Check if any row group in the split may contain the rows matching the constraint, using the
+     * row group statistics in the (cached) file footers. It is used to drop the splits by the
+     * dynamic filter.
+     * @param split the split
+     * @param constraint the constraint
+     * @return false if none of the row groups in the split matches the constraint
+     */
+    private boolean mayMatch(PixelsSplit split, TupleDomain<PixelsColumnHandle> constraint)
+    {
+        if (constraint.isNone())
+        {
+            return false;
+        }
+        if (constraint.isAll() || !constraint.getDomains().isPresent())
+        {
+            return true;
+        }
+        try
+        {
+            Storage storage = StorageFactory.Instance().getStorage(split.getStorageScheme());
+            for (int i = 0; i < split.getPaths().size(); ++i)
+            {
+                try (PixelsReader reader = openFooterReader(storage, split.getPath(i)))
+                {
+                    int rgStart = split.getRgStarts().get(i);
+                    boolean[] matches = matchRowGroups(reader, constraint);
+                    int rgEnd = getRgEnd(split, i, reader.getRowGroupNum());
+                    for (int rgId = rgStart; rgId < rgEnd; ++rgId)
+                    {
+                        if (matches == null || matches[rgId])
+                        {
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        } catch (Exception e)
+        {
+            // keep the split if its statistics can not be checked.
+            logger.error(e, "failed to check the statistics of split " + split.getSplitId());
+            return true;
+        }
+    }
+
+    /**
+     * Check which row groups in the file may contain the rows matching the constraint, using the
+     * row group statistics in the file footer.
+     * @param reader the reader of the file footer
+     * @param constraint the constraint, it must not be all or none
+     * @return the flags of the row groups, false if the row group does not match the constraint,
+     * or null if none of the columns in the constraint is in the file
+     */
+    private static boolean[] matchRowGroups(PixelsReader reader, TupleDomain<PixelsColumnHandle> constraint)
+    {
+        TypeDescription fileSchema = reader.getFileSchema();
+        List<String> fieldNames = fileSchema.getFieldNames();
+        List<PixelsTupleDomainPredicate.ColumnReference<PixelsColumnHandle>> columnReferences = new ArrayList<>();
+        for (PixelsColumnHandle column : constraint.getDomains().get().keySet())
+        {
+            int columnOrdinal = fieldNames.indexOf(column.getColumnName());
+            if (columnOrdinal >= 0)
+            {
+                columnReferences.add(new PixelsTupleDomainPredicate.ColumnReference<>(
+                        column, columnOrdinal, column.getColumnType()));
+            }
+        }
+        if (columnReferences.isEmpty())
+        {
+            return null;
+        }
+        PixelsTupleDomainPredicate<PixelsColumnHandle> predicate =
+                new PixelsTupleDomainPredicate<>(constraint, columnReferences);
+        List<PixelsProto.RowGroupStatistic> rowGroupStats = reader.getRowGroupStats();
+        boolean[] matches = new boolean[reader.getRowGroupNum()];
+        for (int rgId = 0; rgId < matches.length; ++rgId)
+        {
+            Map<Integer, ColumnStats> columnStats = new HashMap<>(columnReferences.size());
+            for (PixelsTupleDomainPredicate.ColumnReference<PixelsColumnHandle> reference : columnReferences)
+            {
+                int columnOrdinal = reference.getPhysicalOrdinal();
+                columnStats.put(columnOrdinal, StatsRecorder.create(fileSchema.getChildren().get(columnOrdinal),
+                        rowGroupStats.get(rgId).getColumnChunkStats(columnOrdinal)));
+            }
+            matches[rgId] = predicate.matches(reader.getRowGroupInfo(rgId).getNumberOfRows(), columnStats);
+        }
+        return matches;
+    }
+
+    /**
+     * Read the footers of the files in parallel and check which row groups may match the constraint.
+     * @param storage the storage of the files
+     * @param paths the paths of the files
+     * @param constraint the constraint, it must not be all or none
+     * @return the futures of the row group flags of the files, see {@link #matchRowGroups(PixelsReader, TupleDomain)}
+     */
+    private List<CompletableFuture<boolean[]>> pruneRowGroups(
+            Storage storage, List<String> paths, TupleDomain<PixelsColumnHandle> constraint)
+    {
+        List<CompletableFuture<boolean[]>> futures = new ArrayList<>(paths.size());
+        for (String path : paths)
+        {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try (PixelsReader reader = openFooterReader(storage, path))
+                {
+                    return matchRowGroups(reader, constraint);
+                } catch (Exception e)
+                {
+                    // keep all the row groups if the statistics can not be checked.
+                    logger.error(e, "failed to check the statistics of file " + path);
+                    return null;
+                }
+            }, this.footerReader));
+        }
+        return futures;
+    }
+
+    private static void cancelAll(Collection<? extends CompletableFuture<?>> futures)
+    {
+        if (futures != null)
+        {
+            futures.forEach(future -> future.cancel(false));
+        }
+    }
+
+    /**
+     * A range of row groups in a file that is read by a split.
+     */
+    static final class RowGroupRange
+    {
+        private final int start;
+        private final int length;
+
+        private RowGroupRange(int start, int length)
+        {
+            this.start = start;
+            this.length = length;
+        }
+
+        int getStart()
+        {
+            return start;
+        }
+
+        int getLength()
+        {
+            return length;
+        }
+    }
+
+    /**
+     * Get the row group ranges of the splits on a file. Each range covers at most splitSize row groups.
+     * If the row groups are pruned, the ranges only cover the row groups that may match the filter, and
+     * the unmatched row groups at the beginning and the end of each range are trimmed.
+     * @param matches the row group flags of the file, null if the row groups are not pruned
+     * @param rowGroupNum the number of row groups in the file given by the layout
+     * @param splitSize the number of row groups in a split
+     * @return the row group ranges
+     */
+    static List<RowGroupRange> getRowGroupRanges(boolean[] matches, int rowGroupNum, int splitSize)
+    {
+        List<RowGroupRange> ranges = new ArrayList<>();
+        if (matches == null)
+        {
+            for (int rgStart = 0; rgStart < rowGroupNum; rgStart += splitSize)
+            {
+                ranges.add(new RowGroupRange(rgStart, splitSize));
+            }
+            return ranges;
+        }
+        int rgId = 0;
+        while (rgId < matches.length)
+        {
+            if (!matches[rgId])
+            {
+                ++rgId;
+                continue;
+            }
+            int rgStart = rgId, rgLast = rgId;
+            for (++rgId; rgId < matches.length && rgId < rgStart + splitSize; ++rgId)
+            {
+                if (matches[rgId])
+                {
+                    rgLast = rgId;
+                }
+            }
+            ranges.add(new RowGroupRange(rgStart, rgLast - rgStart + 1));
+        }
+        return ranges;
+    }
+
+    /**
+     * Open a reader on the coordinator to read the (cached) file footer.
+     */
+    private PixelsReader openFooterReader(Storage storage, String path) throws IOException
+    {
+        return PixelsReaderImpl.newBuilder()
+                .setStorage(storage)
+                .setPath(path)
+                .setEnableCache(false)
+                .setCacheOrder(ImmutableList.of())
+                .setPixelsCacheReader(null)
+                .setPixelsFooterCache(this.footerCache)
+                .build();
+    }
+
+    /**
+     * Get the end (exclusive) of the row group range of a path in the split. The row group range
+     * in the split may exceed the actual number of row groups in the file.
+     */
+    private static int getRgEnd(PixelsSplit split, int pathIndex, int rgNum)
+    {
+        int rgStart = split.getRgStarts().get(pathIndex);
+        int rgLength = split.getRgLengths().get(pathIndex);
+        return rgLength < 0 ? rgNum : (int) Math.min(rgNum, (long) rgStart + rgLength);
     }
 
     public static TableScanFilter createTableScanFilter(
@@ -1332,6 +1785,95 @@ public class PixelsSplitManager implements ConnectorSplitManager
         return bound;
     }
 
+    /**
+     * Get the host addresses of a file, the addresses are cached as the file locations rarely change.
+     * @param storage the storage of the file
+     * @param path the path of the file
+     * @return the host addresses
+     * @throws IOException if failed to get the locations from the storage
+     */
+    private List<HostAddress> getHostAddresses(Storage storage, String path) throws IOException
+    {
+        try
+        {
+            return this.locationCache.get(path, () -> toHostAddresses(storage.getLocations(path)));
+        } catch (ExecutionException | UncheckedExecutionException e)
+        {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throwIfInstanceOf(cause, IOException.class);
+            throwIfUnchecked(cause);
+            throw new IOException("failed to get the locations of " + path, cause);
+        }
+    }
+
+    /**
+     * Get the host addresses of the files in parallel. The lookups of the files that are not in the location
+     * cache are issued together, so that they do not block the generation of the splits one by one.
+     * @param storage the storage of the files
+     * @param paths the paths of the files
+     * @return the futures of the host addresses, keyed by the paths
+     */
+    private Map<String, CompletableFuture<List<HostAddress>>> lookupHostAddresses(Storage storage, List<String> paths)
+    {
+        Map<String, CompletableFuture<List<HostAddress>>> futures = new HashMap<>(paths.size());
+        for (String path : paths)
+        {
+            if (futures.containsKey(path))
+            {
+                continue;
+            }
+            List<HostAddress> addresses = this.locationCache.getIfPresent(path);
+            futures.put(path, addresses != null ? CompletableFuture.completedFuture(addresses) :
+                    CompletableFuture.supplyAsync(() -> {
+                        try
+                        {
+                            return getHostAddresses(storage, path);
+                        } catch (IOException e)
+                        {
+                            throw new UncheckedIOException(e);
+                        }
+                    }, this.footerReader));
+        }
+        return futures;
+    }
+
+    /**
+     * @param future the future returned by {@link #lookupHostAddresses(Storage, List)}
+     * @return the host addresses
+     * @throws IOException if failed to get the locations from the storage
+     */
+    private static List<HostAddress> joinHostAddresses(CompletableFuture<List<HostAddress>> future) throws IOException
+    {
+        try
+        {
+            return future.join();
+        } catch (CompletionException e)
+        {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof UncheckedIOException)
+            {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            throwIfUnchecked(cause);
+            throw new IOException("failed to get the host addresses", cause);
+        }
+    }
+
+    /**
+     * @param paths the paths of the files
+     * @param step the number of files in each group
+     * @return the first path in each group of the paths
+     */
+    private static List<String> getFirstPaths(List<String> paths, int step)
+    {
+        List<String> firstPaths = new ArrayList<>((paths.size() + step - 1) / step);
+        for (int i = 0; i < paths.size(); i += step)
+        {
+            firstPaths.add(paths.get(i));
+        }
+        return firstPaths;
+    }
+
     private List<HostAddress> toHostAddresses(List<Location> locations)
     {
         ImmutableList.Builder<HostAddress> addressBuilder = ImmutableList.builder();
@@ -19,49 +19,249 @@
  */
 package io.pixelsdb.pixels.trino;
 
+import com.google.common.collect.ImmutableList;
+import io.pixelsdb.pixels.trino.exception.PixelsErrorCode;
+import io.trino.spi.TrinoException;
 import io.trino.spi.connector.ConnectorSplit;
 import io.trino.spi.connector.ConnectorSplitSource;
+import io.trino.spi.connector.DynamicFilter;
+import io.trino.spi.predicate.TupleDomain;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
 
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.CompletableFuture.completedFuture;
 
 /**
+ * The splits can be given up front, or generated incrementally by a {@link SplitProducer}
+ * in the background. In the latter case, {@link #getNextBatch(int)} returns the splits that
+ * are already generated, so that the scheduling of the first splits is not blocked by the
+ * generation of the remaining ones.
+ *
  * @author hank
  */
 public class PixelsSplitSource implements ConnectorSplitSource
 {
-    private final List<PixelsSplit> splits;
-    private int offset;
+    /**
+     * The producer that generates the splits in the background.
+     */
+    public interface SplitProducer
+    {
+        /**
+         * Generate the splits and add them into the sink chunk by chunk.
+         * @param sink the sink of the splits, it returns false if the split source
+         *             is closed and the producer should stop
+         * @throws Exception if failed to generate the splits, the exceptions other than
+         *                   {@link TrinoException} are wrapped into a TrinoException
+         */
+        void produce(Predicate<List<PixelsSplit>> sink) throws Exception;
+    }
+
+    private final ArrayDeque<PixelsSplit> splits = new ArrayDeque<>();
+    /**
+     * It is completed when new splits are added or the producer is finished.
+     */
+    private CompletableFuture<?> notEmpty = new CompletableFuture<>();
+    private boolean producerFinished;
+    private Throwable failure = null;
+    private boolean closed = false;
+    private final DynamicFilter dynamicFilter;
+    /**
+     * The time in milliseconds until which the split source waits for the dynamic filter.
+     */
+    private final long dynamicFilterDeadline;
+    /**
+     * Returns false if the split does not contain any row that matches the constraint of the dynamic filter.
+     */
+    private final BiPredicate<PixelsSplit, TupleDomain<PixelsColumnHandle>> splitMatcher;
+    /**
+     * The executor to run the split matcher, as it may read the file footers.
+     */
+    private final Executor matchExecutor;
 
     public PixelsSplitSource(List<PixelsSplit> splits)
     {
+        this(splits, DynamicFilter.EMPTY, 0, (split, constraint) -> true, directExecutor());
+    }
+
+    /**
+     * Create a split source that drops the splits not matching the dynamic filter.
+     * @param splits the splits
+     * @param dynamicFilter the dynamic filter
+     * @param dynamicFilterWaitTimeout the maximum time in milliseconds to wait for the dynamic filter
+     * @param splitMatcher checks if a split may contain the rows matching the constraint of the dynamic filter
+     * @param matchExecutor the executor to run the split matcher
+     */
+    public PixelsSplitSource(List<PixelsSplit> splits, DynamicFilter dynamicFilter, long dynamicFilterWaitTimeout,
+                             BiPredicate<PixelsSplit, TupleDomain<PixelsColumnHandle>> splitMatcher,
+                             Executor matchExecutor)
+    {
+        this(dynamicFilter, dynamicFilterWaitTimeout, splitMatcher, matchExecutor);
         requireNonNull(splits, "splits is null");
-        this.splits = splits;
+        this.splits.addAll(splits);
+        this.producerFinished = true;
+    }
+
+    /**
+     * Create a split source whose splits are generated by the producer in the background.
+     * @param executor the executor to run the producer
+     * @param producer the producer of the splits
+     * @param dynamicFilter the dynamic filter
+     * @param dynamicFilterWaitTimeout the maximum time in milliseconds to wait for the dynamic filter
+     * @param splitMatcher checks if a split may contain the rows matching the constraint of the dynamic filter
+     * @param matchExecutor the executor to run the split matcher
+     */
+    public PixelsSplitSource(Executor executor, SplitProducer producer, DynamicFilter dynamicFilter,
+                             long dynamicFilterWaitTimeout,
+                             BiPredicate<PixelsSplit, TupleDomain<PixelsColumnHandle>> splitMatcher,
+                             Executor matchExecutor)
+    {
+        this(dynamicFilter, dynamicFilterWaitTimeout, splitMatcher, matchExecutor);
+        requireNonNull(executor, "executor is null");
+        requireNonNull(producer, "producer is null");
+        this.producerFinished = false;
+        executor.execute(() -> {
+            Throwable error = null;
+            try
+            {
+                producer.produce(this::addSplits);
+            } catch (Throwable e)
+            {
+                error = e;
+            }
+            finishProducer(error);
+        });
+    }
+
+    private PixelsSplitSource(DynamicFilter dynamicFilter, long dynamicFilterWaitTimeout,
+                              BiPredicate<PixelsSplit, TupleDomain<PixelsColumnHandle>> splitMatcher,
+                              Executor matchExecutor)
+    {
+        this.dynamicFilter = requireNonNull(dynamicFilter, "dynamicFilter is null");
+        this.dynamicFilterDeadline = System.currentTimeMillis() + dynamicFilterWaitTimeout;
+        this.splitMatcher = requireNonNull(splitMatcher, "splitMatcher is null");
+        this.matchExecutor = requireNonNull(matchExecutor, "matchExecutor is null");
+    }
+
+    private boolean addSplits(List<PixelsSplit> newSplits)
+    {
+        CompletableFuture<?> toComplete;
+        synchronized (this)
+        {
+            if (closed)
+            {
+                return false;
+            }
+            splits.addAll(newSplits);
+            toComplete = notEmpty;
+            notEmpty = new CompletableFuture<>();
+        }
+        // complete the future outside the lock, as the listeners may call back into this split source.
+        toComplete.complete(null);
+        return true;
+    }
+
+    private void finishProducer(Throwable error)
+    {
+        CompletableFuture<?> toComplete;
+        synchronized (this)
+        {
+            producerFinished = true;
+            if (!closed && error != null)
+            {
+                failure = error instanceof TrinoException ? error : new TrinoException(
+                        PixelsErrorCode.PIXELS_SQL_EXECUTE_ERROR, "failed to generate the splits", error);
+            }
+            toComplete = notEmpty;
+        }
+        toComplete.complete(null);
     }
 
     @Override
     public CompletableFuture<ConnectorSplitBatch> getNextBatch(int maxSize)
     {
-        int remainingSplits = splits.size() - offset;
-        int size = Math.min(remainingSplits, maxSize);
-        List<ConnectorSplit> results = new ArrayList<>(size);
-        for (int i = offset; i < offset+size; ++i)
+        long waitTime = dynamicFilterDeadline - System.currentTimeMillis();
+        if (dynamicFilter.isAwaitable() && waitTime > 0)
         {
-            results.add(splits.get(i));
+            // wait for the dynamic filter without blocking the scheduler, Trino will call this method again.
+            CompletableFuture<?> timeout = new CompletableFuture<>().completeOnTimeout(null, waitTime, TimeUnit.MILLISECONDS);
+            return CompletableFuture.anyOf(dynamicFilter.isBlocked(), timeout)
+                    .thenApply(ignored -> new ConnectorSplitBatch(ImmutableList.of(), false));
         }
-        offset += size;
 
-        return completedFuture(new ConnectorSplitBatch(results, isFinished()));
+        List<PixelsSplit> candidates;
+        synchronized (this)
+        {
+            if (failure != null)
+            {
+                return CompletableFuture.failedFuture(failure);
+            }
+            if (splits.isEmpty() && !producerFinished)
+            {
+                // wait for the producer, Trino will call this method again.
+                return notEmpty.thenApply(ignored -> new ConnectorSplitBatch(ImmutableList.of(), false));
+            }
+            candidates = new ArrayList<>(Math.min(splits.size(), maxSize));
+            while (!splits.isEmpty() && candidates.size() < maxSize)
+            {
+                candidates.add(splits.poll());
+            }
+        }
+
+        TupleDomain<PixelsColumnHandle> constraint = dynamicFilter.getCurrentPredicate()
+                .transformKeys(PixelsColumnHandle.class::cast);
+        if (constraint.isNone())
+        {
+            // no row can match the dynamic filter.
+            close();
+            return completedFuture(new ConnectorSplitBatch(ImmutableList.of(), true));
+        }
+
+        if (constraint.isAll())
+        {
+            return completedFuture(new ConnectorSplitBatch(ImmutableList.copyOf(candidates), isFinished()));
+        }
+
+        /*
+         * The splits are checked by the match executor in parallel, as it may read the file footers,
+         * which should not block the scheduling thread of Trino. The returned future is completed
+         * when all the candidates are checked.
+         */
+        List<CompletableFuture<Boolean>> matches = new ArrayList<>(candidates.size());
+        for (PixelsSplit split : candidates)
+        {
+            matches.add(CompletableFuture.supplyAsync(() -> splitMatcher.test(split, constraint), matchExecutor));
+        }
+        return CompletableFuture.allOf(matches.toArray(new CompletableFuture[0])).thenApply(ignored -> {
+            List<ConnectorSplit> results = new ArrayList<>(candidates.size());
+            for (int i = 0; i < candidates.size(); ++i)
+            {
+                if (matches.get(i).join())
+                {
+                    results.add(candidates.get(i));
+                }
+            }
+            return new ConnectorSplitBatch(results, isFinished());
+        });
     }
 
+    /**
+     * Drop the remaining splits and stop the producer.
+     */
     @Override
-    public void close()
+    public synchronized void close()
     {
-
+        closed = true;
+        producerFinished = true;
+        splits.clear();
     }
 
     /**
@@ -73,8 +273,9 @@ public class PixelsSplitSource implements ConnectorSplitSource
      * will be inherently racy.
      */
     @Override
-    public boolean isFinished()
+    public synchronized boolean isFinished()
     {
-        return offset >= splits.size();
+        // if the producer failed, the failure is thrown by the next getNextBatch.
+        return producerFinished && splits.isEmpty() && failure == null;
     }
 }
@@ -30,6 +30,7 @@ import io.trino.spi.predicate.TupleDomain;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.OptionalLong;
 
 import static java.util.Objects.requireNonNull;
 
@@ -61,6 +62,14 @@ public final class PixelsTableHandle implements ConnectorTableHandle
      * This is the storage paths of a base table to be observed by users.
      */
     private final List<String> storagePaths;
+    /**
+     * The maximum number of rows to read from a base table, it is pushed down by applyLimit.
+     */
+    private final OptionalLong limit;
+    /**
+     * The top-n on a base table, it is pushed down by applyTopN.
+     */
+    private final PixelsTopNHandle topNHandle;
 
     /**
      * The constructor for bast table handle.
@@ -72,6 +81,10 @@ public final class PixelsTableHandle implements ConnectorTableHandle
      * @param tableType the type of the table (base for physical table)
      * @param joinHandle the handle of the join, must be non-null if tableType is JOINED
      * @param aggrHandle the handle of the aggregation, must be non-null if tableType is AGGREGATED
+     * @param storageScheme the storage scheme of the base table
+     * @param storagePaths the storage paths of the base table
+     * @param limit the maximum number of rows to read, only used for base table
+     * @param topNHandle the handle of the top-n, null if top-n is not pushed down, only used for base table
      */
     @JsonCreator
     public PixelsTableHandle(
@@ -85,7 +98,9 @@ public final class PixelsTableHandle implements ConnectorTableHandle
             @JsonProperty("joinHandle") PixelsJoinHandle joinHandle,
             @JsonProperty("aggrHandle") PixelsAggrHandle aggrHandle,
             @JsonProperty("storageScheme") Storage.Scheme storageScheme,
-            @JsonProperty("storagePaths") List<String> storagePaths)
+            @JsonProperty("storagePaths") List<String> storagePaths,
+            @JsonProperty("limit") OptionalLong limit,
+            @JsonProperty("topNHandle") PixelsTopNHandle topNHandle)
     {
         this.connectorId = requireNonNull(connectorId, "connectorId is null");
         this.schemaName = requireNonNull(schemaName, "schemaName is null");
@@ -120,6 +135,8 @@ public final class PixelsTableHandle implements ConnectorTableHandle
             this.storageScheme = null;
             this.storagePaths = null;
         }
+        this.limit = requireNonNull(limit, "limit is null");
+        this.topNHandle = topNHandle;
     }
 
     @JsonProperty
@@ -188,6 +205,18 @@ public final class PixelsTableHandle implements ConnectorTableHandle
         return storagePaths;
     }
 
+    @JsonProperty
+    public OptionalLong getLimit()
+    {
+        return limit;
+    }
+
+    @JsonProperty
+    public PixelsTopNHandle getTopNHandle()
+    {
+        return topNHandle;
+    }
+
     public SchemaTableName getSchemaTableName()
     {
         return new SchemaTableName(schemaName, tableName);
@@ -197,7 +226,7 @@ public final class PixelsTableHandle implements ConnectorTableHandle
     public int hashCode()
     {
         return Objects.hash(connectorId, schemaName, tableName, tableAlias,
-                columns, tableType, joinHandle, aggrHandle);
+                columns, tableType, joinHandle, aggrHandle, limit, topNHandle);
     }
 
     @Override
@@ -222,7 +251,9 @@ public final class PixelsTableHandle implements ConnectorTableHandle
                 Objects.equals(this.joinHandle, other.joinHandle) &&
                 Objects.equals(this.aggrHandle, other.aggrHandle) &&
                 Objects.equals(this.storageScheme, other.storageScheme) &&
-                Objects.equals(this.storagePaths, other.getStoragePaths());
+                Objects.equals(this.storagePaths, other.getStoragePaths()) &&
+                Objects.equals(this.limit, other.limit) &&
+                Objects.equals(this.topNHandle, other.topNHandle);
     }
 
     @Override
@@ -230,6 +261,8 @@ public final class PixelsTableHandle implements ConnectorTableHandle
     {
         return Joiner.on(":").join(connectorId, schemaName == null ? "" : schemaName,
                 tableName, tableAlias, tableType, aggrHandle == null ? "aggr=false" : "aggr=true",
+                limit.isPresent() ? "limit=" + limit.getAsLong() : "limit=false",
+                topNHandle == null ? "topN=false" : "topN=true",
                 Joiner.on(",").join(columns));
     }
 
@@ -256,6 +289,8 @@ public final class PixelsTableHandle implements ConnectorTableHandle
         private PixelsAggrHandle builderAggrHandle;
         private Storage.Scheme builderStorageScheme;
         private List<String> builderStoragePaths;
+        private OptionalLong builderLimit = OptionalLong.empty();
+        private PixelsTopNHandle builderTopNHandle;
 
         private Builder() { }
 
@@ -272,6 +307,8 @@ public final class PixelsTableHandle implements ConnectorTableHandle
             this.builderAggrHandle = tableHandle.aggrHandle;
             this.builderStorageScheme = tableHandle.storageScheme;
             this.builderStoragePaths = tableHandle.storagePaths;
+            this.builderLimit = tableHandle.limit;
+            this.builderTopNHandle = tableHandle.topNHandle;
         }
 
         public void setConnectorId(String builderConnectorId)
@@ -324,6 +361,16 @@ public final class PixelsTableHandle implements ConnectorTableHandle
             this.builderStoragePaths = builderStoragePaths;
         }
 
+        public void setLimit(OptionalLong builderLimit)
+        {
+            this.builderLimit = builderLimit;
+        }
+
+        public void setTopNHandle(PixelsTopNHandle builderTopNHandle)
+        {
+            this.builderTopNHandle = builderTopNHandle;
+        }
+
 
         public PixelsTableHandle build()
         {
@@ -338,7 +385,9 @@ public final class PixelsTableHandle implements ConnectorTableHandle
                     builderJoinHandle,
                     builderAggrHandle,
                     builderStorageScheme,
-                    builderStoragePaths
+                    builderStoragePaths,
+                    builderLimit,
+                    builderTopNHandle
             );
         }
     }
@@ -0,0 +1,321 @@
+/*
+ * Copyright 2026 PixelsDB.
+ *
+ * This file is part of Pixels.
+ *
+ * Pixels is free software: you can redistribute it and/or modify
+ * it under the terms of the Affero GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * Pixels is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * Affero GNU General Public License for more details.
+ *
+ * You should have received a copy of the Affero GNU General Public
+ * License along with Pixels.  If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package io.pixelsdb.pixels.trino;
+
+import com.google.common.collect.ImmutableList;
+import io.pixelsdb.pixels.core.stats.ColumnStats;
+import io.pixelsdb.pixels.core.stats.RangeStats;
+import io.trino.spi.Page;
+import io.trino.spi.PageBuilder;
+import io.trino.spi.block.Block;
+import io.trino.spi.type.DecimalType;
+import io.trino.spi.type.Type;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.DateType.DATE;
+import static io.trino.spi.type.DoubleType.DOUBLE;
+import static io.trino.spi.type.IntegerType.INTEGER;
+import static io.trino.spi.type.SmallintType.SMALLINT;
+import static io.trino.spi.type.TinyintType.TINYINT;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Collects the top-n rows of the pages by a single sort column, null values are sorted last.
+ * <p/>
+ * The values of the sort column are mapped to long sort keys that keep the order of the values,
+ * so that the rows and the row group statistics can be compared in the same way. The current
+ * top-n rows are kept in a bounded heap whose head is the k-th (i.e., the worst) row.
+ */
+class PixelsTopNCollector
+{
+    /**
+     * The range of the sort keys in a row group, derived from the statistics of the sort column.
+     */
+    static final class RowGroupRange
+    {
+        private final int pathIndex;
+        private final int rgId;
+        /**
+         * True if the min and max sort keys of the non-null values are known.
+         */
+        private final boolean known;
+        /**
+         * True if all the values of the sort column in the row group are null.
+         */
+        private final boolean allNull;
+        private final long minKey;
+        private final long maxKey;
+
+        private RowGroupRange(int pathIndex, int rgId, boolean known, boolean allNull, long minKey, long maxKey)
+        {
+            this.pathIndex = pathIndex;
+            this.rgId = rgId;
+            this.known = known;
+            this.allNull = allNull;
+            this.minKey = minKey;
+            this.maxKey = maxKey;
+        }
+
+        int getPathIndex()
+        {
+            return pathIndex;
+        }
+
+        int getRgId()
+        {
+            return rgId;
+        }
+    }
+
+    private static final class Row
+    {
+        private final boolean isNull;
+        private final long key;
+        private int page;
+        private int position;
+
+        private Row(boolean isNull, long key, int page, int position)
+        {
+            this.isNull = isNull;
+            this.key = key;
+            this.page = page;
+            this.position = position;
+        }
+    }
+
+    private final List<Type> types;
+    private final int sortChannel;
+    private final Type sortType;
+    private final boolean ascending;
+    private final int count;
+    /**
+     * The comparator that sorts the better rows first.
+     */
+    private final Comparator<Row> betterFirst;
+    /**
+     * The heap of the current top-n rows, the head is the worst one.
+     */
+    private final PriorityQueue<Row> heap;
+    private final List<Page> pages = new ArrayList<>();
+    private long retainedPositions = 0L;
+    private long retainedBytes = 0L;
+
+    PixelsTopNCollector(List<Type> types, int sortChannel, boolean ascending, int count)
+    {
+        this.types = ImmutableList.copyOf(requireNonNull(types, "types is null"));
+        checkArgument(sortChannel >= 0 && sortChannel < types.size(), "sortChannel is out of bound");
+        checkArgument(count > 0, "count must be positive");
+        this.sortChannel = sortChannel;
+        this.sortType = types.get(sortChannel);
+        checkArgument(isSupportedType(this.sortType), "unsupported sort type: " + this.sortType);
+        this.ascending = ascending;
+        this.count = count;
+        Comparator<Row> byKey = ascending ? Comparator.comparingLong(row -> row.key) :
+                Comparator.<Row>comparingLong(row -> row.key).reversed();
+        this.betterFirst = Comparator.<Row, Boolean>comparing(row -> row.isNull).thenComparing(
+                (left, right) -> left.isNull ? 0 : byKey.compare(left, right));
+        this.heap = new PriorityQueue<>(count, this.betterFirst.reversed());
+    }
+
+    /**
+     * @param type the type of the sort column
+     * @return true if the sort column of this type can be used by the top-n
+     */
+    static boolean isSupportedType(Type type)
+    {
+        return type == BIGINT || type == INTEGER || type == SMALLINT || type == TINYINT || type == DATE ||
+                type == DOUBLE || (type instanceof DecimalType && ((DecimalType) type).isShort());
+    }
+
+    /**
+     * Get the range of the sort keys in a row group.
+     * @param pathIndex the index of the path (file) in the split
+     * @param rgId the id of the row group in the file
+     * @param stats the statistics of the sort column in the row group, null if not present
+     * @return the range of the sort keys
+     */
+    RowGroupRange getRowGroupRange(int pathIndex, int rgId, ColumnStats stats)
+    {
+        if (stats != null && stats.getNumberOfValues() == 0)
+        {
+            return new RowGroupRange(pathIndex, rgId, false, true, 0L, 0L);
+        }
+        if (stats instanceof RangeStats<?> rangeStats && rangeStats.hasMinimum() && rangeStats.hasMaximum() &&
+                rangeStats.getMinimum() instanceof Number min && rangeStats.getMaximum() instanceof Number max)
+        {
+            long minKey = sortType == DOUBLE ? toSortKey(min.doubleValue()) : min.longValue();
+            long maxKey = sortType == DOUBLE ? toSortKey(max.doubleValue()) : max.longValue();
+            return new RowGroupRange(pathIndex, rgId, true, false, minKey, maxKey);
+        }
+        return new RowGroupRange(pathIndex, rgId, false, false, 0L, 0L);
+    }
+
+    /**
+     * @return the comparator that sorts the row groups in the order to be visited: the row groups
+     * with unknown range first, then the ones that are most likely to contain the top-n rows, and
+     * the row groups with only null values last
+     */
+    Comparator<RowGroupRange> getVisitOrder()
+    {
+        Comparator<RowGroupRange> byKey = ascending ? Comparator.comparingLong(range -> range.minKey) :
+                Comparator.<RowGroupRange>comparingLong(range -> range.maxKey).reversed();
+        return Comparator.<RowGroupRange>comparingInt(range -> range.allNull ? 2 : (range.known ? 1 : 0))
+                .thenComparing((left, right) -> left.known && right.known ? byKey.compare(left, right) : 0);
+    }
+
+    /**
+     * @param range the range of the sort keys in a row group
+     * @return false if none of the rows in the row group can beat the current k-th row
+     */
+    boolean mayImprove(RowGroupRange range)
+    {
+        if (heap.size() < count)
+        {
+            return true;
+        }
+        Row worst = heap.peek();
+        if (range.allNull)
+        {
+            return false;
+        }
+        if (worst.isNull || !range.known)
+        {
+            return true;
+        }
+        return ascending ? range.minKey < worst.key : range.maxKey > worst.key;
+    }
+
+    /**
+     * Add the rows in a page into the top-n. The page is retained if some of its rows are in the current top-n.
+     * @param page the page, its blocks must be loaded
+     */
+    void add(Page page)
+    {
+        Block sortBlock = page.getBlock(sortChannel);
+        int pageIndex = pages.size();
+        boolean retained = false;
+        for (int position = 0; position < page.getPositionCount(); ++position)
+        {
+            boolean isNull = sortBlock.isNull(position);
+            Row row = new Row(isNull, isNull ? 0L : toSortKey(sortType, sortBlock, position), pageIndex, position);
+            if (heap.size() < count)
+            {
+                heap.add(row);
+                retained = true;
+            }
+            else if (betterFirst.compare(row, heap.peek()) < 0)
+            {
+                heap.poll();
+                heap.add(row);
+                retained = true;
+            }
+        }
+        if (retained)
+        {
+            pages.add(page);
+            retainedPositions += page.getPositionCount();
+            retainedBytes += page.getRetainedSizeInBytes();
+            if (pages.size() > 1 && retainedPositions > 2L * count)
+            {
+                compact();
+            }
+        }
+    }
+
+    /**
+     * @return the estimated size in bytes of the retained pages
+     */
+    long getRetainedSizeInBytes()
+    {
+        return retainedBytes;
+    }
+
+    /**
+     * @return the page of the top-n rows in order, or null if there is no row
+     */
+    Page build()
+    {
+        if (heap.isEmpty())
+        {
+            return null;
+        }
+        List<Row> rows = new ArrayList<>(heap);
+        rows.sort(betterFirst);
+        return copyRows(rows);
+    }
+
+    /**
+     * Copy the rows in the current top-n into a single page and release the other pages.
+     */
+    private void compact()
+    {
+        List<Row> rows = new ArrayList<>(heap);
+        Page page = copyRows(rows);
+        for (int i = 0; i < rows.size(); ++i)
+        {
+            // the keys of the rows are not changed, so the heap order is kept.
+            rows.get(i).page = 0;
+            rows.get(i).position = i;
+        }
+        pages.clear();
+        pages.add(page);
+        retainedPositions = page.getPositionCount();
+        retainedBytes = page.getRetainedSizeInBytes();
+    }
+
+    private Page copyRows(List<Row> rows)
+    {
+        PageBuilder pageBuilder = new PageBuilder(rows.size(), types);
+        for (Row row : rows)
+        {
+            Page page = pages.get(row.page);
+            pageBuilder.declarePosition();
+            for (int channel = 0; channel < types.size(); ++channel)
+            {
+                types.get(channel).appendTo(page.getBlock(channel), row.position, pageBuilder.getBlockBuilder(channel));
+            }
+        }
+        return pageBuilder.build();
+    }
+
+    private static long toSortKey(Type type, Block block, int position)
+    {
+        if (type == DOUBLE)
+        {
+            return toSortKey(DOUBLE.getDouble(block, position));
+        }
+        return type.getLong(block, position);
+    }
+
+    /**
+     * Map a double value to a long that has the same order as the double value.
+     */
+    private static long toSortKey(double value)
+    {
+        long bits = Double.doubleToLongBits(value);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2026 PixelsDB.
+ *
+ * This file is part of Pixels.
+ *
+ * Pixels is free software: you can redistribute it and/or modify
+ * it under the terms of the Affero GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * Pixels is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * Affero GNU General Public License for more details.
+ *
+ * You should have received a copy of the Affero GNU General Public
+ * License along with Pixels.  If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package io.pixelsdb.pixels.trino;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.base.Objects;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The top-n (order by column limit count) pushed down into a base table. Only a single
+ * sort column is supported, and null values are always sorted last.
+ */
+public class PixelsTopNHandle
+{
+    private final PixelsColumnHandle sortColumn;
+    private final boolean ascending;
+    private final long count;
+
+    @JsonCreator
+    public PixelsTopNHandle(
+            @JsonProperty("sortColumn") PixelsColumnHandle sortColumn,
+            @JsonProperty("ascending") boolean ascending,
+            @JsonProperty("count") long count)
+    {
+        this.sortColumn = requireNonNull(sortColumn, "sortColumn is null");
+        this.ascending = ascending;
+        checkArgument(count > 0, "count must be positive");
+        this.count = count;
+    }
+
+    @JsonProperty
+    public PixelsColumnHandle getSortColumn()
+    {
+        return sortColumn;
+    }
+
+    @JsonProperty
+    public boolean isAscending()
+    {
+        return ascending;
+    }
+
+    @JsonProperty
+    public long getCount()
+    {
+        return count;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PixelsTopNHandle that = (PixelsTopNHandle) o;
+        return ascending == that.ascending && count == that.count &&
+                Objects.equal(sortColumn, that.sortColumn);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hashCode(sortColumn, ascending, count);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "PixelsTopNHandle{" +
+                "sortColumn=" + sortColumn +
+                ", ascending=" + ascending +
+                ", count=" + count + '}';
+    }
+}
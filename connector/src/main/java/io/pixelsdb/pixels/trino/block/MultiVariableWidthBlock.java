@@ -0,0 +1,587 @@
+/*
+ * Copyright 2026 PixelsDB.
+ *
+ * This file is part of Pixels.
+ *
+ * Pixels is free software: you can redistribute it and/or modify
+ * it under the terms of the Affero GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * Pixels is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * Affero GNU General Public License for more details.
+ *
+ * You should have received a copy of the Affero GNU General Public
+ * License along with Pixels.  If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package io.pixelsdb.pixels.trino.block;
+
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+import io.trino.spi.block.Block;
+import io.trino.spi.block.BlockBuilder;
+import io.trino.spi.block.VariableWidthBlock;
+import org.openjdk.jol.info.ClassLayout;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.function.ObjLongConsumer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.airlift.slice.SizeOf.sizeOf;
+import static io.pixelsdb.pixels.trino.block.BlockUtil.checkArrayRange;
+import static io.pixelsdb.pixels.trino.block.BlockUtil.checkValidPositions;
+import static io.pixelsdb.pixels.trino.block.BlockUtil.checkValidRegion;
+import static java.lang.Math.toIntExact;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The flattened form of a tree of {@link PairVariableWidthBlock}s. It holds the leaf VariableWidthBlocks
+ * in an array, together with the prefix sums of their position counts, so that the leaf of a position is
+ * found by a binary search instead of descending the tree level by level.
+ * <p/>
+ * The leaves can be merged into a single VariableWidthBlock by {@link #compact()}, and {@link #concat(Block...)}
+ * does so when the number of leaves exceeds {@link #COMPACT_LEAF_THRESHOLD}.
+ */
+public class MultiVariableWidthBlock implements Block
+{
+    private static final int INSTANCE_SIZE = toIntExact(ClassLayout.parseClass(MultiVariableWidthBlock.class).instanceSize());
+    /**
+     * The max number of leaves of the block returned by {@link #concat(Block...)}.
+     */
+    public static final int COMPACT_LEAF_THRESHOLD = 64;
+
+    private final VariableWidthBlock[] leaves;
+    /**
+     * positionOffsets[i] is the position of the first value of leaf i, positionOffsets[leaves.length]
+     * is the position count of this block.
+     */
+    private final int[] positionOffsets;
+    private final int positionCount;
+
+    /**
+     * @param blocks the blocks to concat, each of them is a VariableWidthBlock, PairVariableWidthBlock,
+     *               or MultiVariableWidthBlock
+     */
+    public MultiVariableWidthBlock(List<Block> blocks)
+    {
+        this(flattenLeaves(requireNonNull(blocks, "blocks is null")));
+    }
+
+    private MultiVariableWidthBlock(VariableWidthBlock[] leaves)
+    {
+        checkArgument(leaves.length > 0, "leaves is empty");
+        this.leaves = leaves;
+        this.positionOffsets = new int[leaves.length + 1];
+        for (int i = 0; i < leaves.length; ++i)
+        {
+            this.positionOffsets[i + 1] = this.positionOffsets[i] + leaves[i].getPositionCount();
+        }
+        this.positionCount = this.positionOffsets[leaves.length];
+    }
+
+    /**
+     * Concat the blocks into one block. The leaves of the blocks are flattened, and they are compacted
+     * into a single VariableWidthBlock if there are more than {@link #COMPACT_LEAF_THRESHOLD} leaves.
+     * @param blocks the blocks to concat, each of them is a VariableWidthBlock, PairVariableWidthBlock,
+     *               or MultiVariableWidthBlock
+     * @return the concatenated block
+     */
+    public static Block concat(Block... blocks)
+    {
+        VariableWidthBlock[] leaves = flattenLeaves(Arrays.asList(blocks));
+        if (leaves.length == 1)
+        {
+            return leaves[0];
+        }
+        MultiVariableWidthBlock block = new MultiVariableWidthBlock(leaves);
+        return leaves.length > COMPACT_LEAF_THRESHOLD ? block.compact() : block;
+    }
+
+    private static VariableWidthBlock[] flattenLeaves(List<Block> blocks)
+    {
+        List<VariableWidthBlock> leaves = new ArrayList<>();
+        for (Block block : blocks)
+        {
+            addLeaves(requireNonNull(block, "block is null"), leaves);
+        }
+        if (leaves.isEmpty() && !blocks.isEmpty())
+        {
+            // all the leaves are empty, keep one of them so that the block has a leaf.
+            Block block = blocks.get(0);
+            while (!(block instanceof VariableWidthBlock))
+            {
+                block = block.getChildren().get(0);
+            }
+            leaves.add((VariableWidthBlock) block);
+        }
+        return leaves.toArray(new VariableWidthBlock[0]);
+    }
+
+    private static void addLeaves(Block block, List<VariableWidthBlock> leaves)
+    {
+        if (block instanceof VariableWidthBlock)
+        {
+            if (block.getPositionCount() > 0)
+            {
+                // empty leaves are skipped, so that the position offsets of the leaves are strictly increasing.
+                leaves.add((VariableWidthBlock) block);
+            }
+        }
+        else if (block instanceof PairVariableWidthBlock)
+        {
+            PairVariableWidthBlock pairBlock = (PairVariableWidthBlock) block;
+            addLeaves(pairBlock.getLeftBlock(), leaves);
+            addLeaves(pairBlock.getRightBlock(), leaves);
+        }
+        else if (block instanceof MultiVariableWidthBlock)
+        {
+            for (VariableWidthBlock leaf : ((MultiVariableWidthBlock) block).leaves)
+            {
+                leaves.add(leaf);
+            }
+        }
+        else
+        {
+            throw new IllegalArgumentException("block is not VariableWidthBlock, PairVariableWidthBlock, " +
+                    "nor MultiVariableWidthBlock");
+        }
+    }
+
+    /**
+     * @param position the position in this block
+     * @return the index of the leaf that contains the position
+     */
+    private int getLeafIndex(int position)
+    {
+        if (position < 0 || position >= positionCount)
+        {
+            throw new IndexOutOfBoundsException("position " + position + " is out of bounds 0-" + positionCount);
+        }
+        // find the last leaf whose first position is not greater than the position.
+        int low = 0, high = leaves.length - 1;
+        while (low < high)
+        {
+            int mid = (low + high + 1) >>> 1;
+            if (positionOffsets[mid] <= position)
+            {
+                low = mid;
+            }
+            else
+            {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    public int getLeafCount()
+    {
+        return leaves.length;
+    }
+
+    public VariableWidthBlock getLeaf(int index)
+    {
+        return leaves[index];
+    }
+
+    /**
+     * Merge the values in the leaves into a single VariableWidthBlock backed by one contiguous slice.
+     * @return the merged block
+     */
+    public VariableWidthBlock compact()
+    {
+        return copyRegionToLeaf(0, positionCount);
+    }
+
+    private VariableWidthBlock copyRegionToLeaf(int positionOffset, int length)
+    {
+        int sliceLength = 0;
+        for (int i = positionOffset; i < positionOffset + length; ++i)
+        {
+            sliceLength += getSliceLength(i);
+        }
+        Slice slice = Slices.allocate(sliceLength);
+        int[] offsets = new int[length + 1];
+        boolean[] valueIsNull = new boolean[length];
+        boolean hasNull = false;
+        for (int i = 0; i < length; ++i)
+        {
+            hasNull |= copyValue(positionOffset + i, slice, offsets, valueIsNull, i);
+        }
+        return new VariableWidthBlock(length, slice, offsets, hasNull ? Optional.of(valueIsNull) : Optional.empty());
+    }
+
+    private VariableWidthBlock copyPositionsToLeaf(int[] positions, int offset, int length)
+    {
+        int sliceLength = 0;
+        for (int i = offset; i < offset + length; ++i)
+        {
+            sliceLength += getSliceLength(positions[i]);
+        }
+        Slice slice = Slices.allocate(sliceLength);
+        int[] offsets = new int[length + 1];
+        boolean[] valueIsNull = new boolean[length];
+        boolean hasNull = false;
+        for (int i = 0; i < length; ++i)
+        {
+            hasNull |= copyValue(positions[offset + i], slice, offsets, valueIsNull, i);
+        }
+        return new VariableWidthBlock(length, slice, offsets, hasNull ? Optional.of(valueIsNull) : Optional.empty());
+    }
+
+    /**
+     * Copy the value in the position of this block to the target position of the new leaf.
+     * @return true if the value is null
+     */
+    private boolean copyValue(int position, Slice slice, int[] offsets, boolean[] valueIsNull, int target)
+    {
+        int leafIndex = getLeafIndex(position);
+        VariableWidthBlock leaf = leaves[leafIndex];
+        int leafPosition = position - positionOffsets[leafIndex];
+        int length = leaf.getSliceLength(leafPosition);
+        if (length > 0)
+        {
+            slice.setBytes(offsets[target], leaf.getSlice(leafPosition, 0, length));
+        }
+        offsets[target + 1] = offsets[target] + length;
+        valueIsNull[target] = leaf.isNull(leafPosition);
+        return valueIsNull[target];
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder sb = new StringBuilder("MultiVariableWidthBlock{");
+        sb.append("positionCount=").append(positionCount).append(",");
+        sb.append("leafCount=").append(leaves.length);
+        sb.append('}');
+        return sb.toString();
+    }
+
+    @Override
+    public Block getSingleValueBlock(int position)
+    {
+        int leafIndex = getLeafIndex(position);
+        return leaves[leafIndex].getSingleValueBlock(position - positionOffsets[leafIndex]);
+    }
+
+    @Override
+    public int getSliceLength(int position)
+    {
+        int leafIndex = getLeafIndex(position);
+        return leaves[leafIndex].getSliceLength(position - positionOffsets[leafIndex]);
+    }
+
+    @Override
+    public byte getByte(int position, int offset)
+    {
+        int leafIndex = getLeafIndex(position);
+        return leaves[leafIndex].getByte(position - positionOffsets[leafIndex], offset);
+    }
+
+    @Override
+    public short getShort(int position, int offset)
+    {
+        int leafIndex = getLeafIndex(position);
+        return leaves[leafIndex].getShort(position - positionOffsets[leafIndex], offset);
+    }
+
+    @Override
+    public int getInt(int position, int offset)
+    {
+        int leafIndex = getLeafIndex(position);
+        return leaves[leafIndex].getInt(position - positionOffsets[leafIndex], offset);
+    }
+
+    @Override
+    public long getLong(int position, int offset)
+    {
+        int leafIndex = getLeafIndex(position);
+        return leaves[leafIndex].getLong(position - positionOffsets[leafIndex], offset);
+    }
+
+    @Override
+    public Slice getSlice(int position, int offset, int length)
+    {
+        int leafIndex = getLeafIndex(position);
+        return leaves[leafIndex].getSlice(position - positionOffsets[leafIndex], offset, length);
+    }
+
+    @Override
+    public <T> T getObject(int position, Class<T> clazz)
+    {
+        int leafIndex = getLeafIndex(position);
+        return leaves[leafIndex].getObject(position - positionOffsets[leafIndex], clazz);
+    }
+
+    @Override
+    public boolean bytesEqual(int position, int offset, Slice otherSlice, int otherOffset, int length)
+    {
+        int leafIndex = getLeafIndex(position);
+        return leaves[leafIndex].bytesEqual(position - positionOffsets[leafIndex], offset, otherSlice, otherOffset, length);
+    }
+
+    @Override
+    public int bytesCompare(int position, int offset, int length, Slice otherSlice, int otherOffset, int otherLength)
+    {
+        int leafIndex = getLeafIndex(position);
+        return leaves[leafIndex].bytesCompare(position - positionOffsets[leafIndex], offset, length,
+                otherSlice, otherOffset, otherLength);
+    }
+
+    @Override
+    public void writeBytesTo(int position, int offset, int length, BlockBuilder blockBuilder)
+    {
+        int leafIndex = getLeafIndex(position);
+        leaves[leafIndex].writeBytesTo(position - positionOffsets[leafIndex], offset, length, blockBuilder);
+    }
+
+    @Override
+    public boolean equals(int position, int offset, Block otherBlock, int otherPosition, int otherOffset, int length)
+    {
+        int leafIndex = getLeafIndex(position);
+        return leaves[leafIndex].equals(position - positionOffsets[leafIndex], offset,
+                otherBlock, otherPosition, otherOffset, length);
+    }
+
+    @Override
+    public long hash(int position, int offset, int length)
+    {
+        int leafIndex = getLeafIndex(position);
+        return leaves[leafIndex].hash(position - positionOffsets[leafIndex], offset, length);
+    }
+
+    @Override
+    public int compareTo(int leftPosition, int leftOffset, int leftLength, Block rightBlock, int rightPosition, int rightOffset, int rightLength)
+    {
+        int leafIndex = getLeafIndex(leftPosition);
+        return leaves[leafIndex].compareTo(leftPosition - positionOffsets[leafIndex], leftOffset, leftLength,
+                rightBlock, rightPosition, rightOffset, rightLength);
+    }
+
+    @Override
+    public long getLogicalSizeInBytes()
+    {
+        long logicalSize = 0;
+        for (VariableWidthBlock leaf : leaves)
+        {
+            logicalSize += leaf.getLogicalSizeInBytes();
+        }
+        return logicalSize;
+    }
+
+    @Override
+    public boolean mayHaveNull()
+    {
+        for (VariableWidthBlock leaf : leaves)
+        {
+            if (leaf.mayHaveNull())
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isLoaded()
+    {
+        // the leaves are VariableWidthBlocks, which are always loaded.
+        return true;
+    }
+
+    @Override
+    public Block getLoadedBlock()
+    {
+        return this;
+    }
+
+    @Override
+    public List<Block> getChildren()
+    {
+        return ImmutableList.copyOf(leaves);
+    }
+
+    @Override
+    public int getPositionCount()
+    {
+        return positionCount;
+    }
+
+    @Override
+    public long getSizeInBytes()
+    {
+        long sizeInBytes = 0;
+        for (VariableWidthBlock leaf : leaves)
+        {
+            sizeInBytes += leaf.getSizeInBytes();
+        }
+        return sizeInBytes;
+    }
+
+    /**
+     * The values in the positions are copied into a new VariableWidthBlock, as the positions may be in
+     * any number of leaves.
+     */
+    @Override
+    public Block getPositions(int[] positions, int offset, int length)
+    {
+        return copyPositions(positions, offset, length);
+    }
+
+    @Override
+    public long getRegionSizeInBytes(int positionOffset, int length)
+    {
+        checkValidRegion(positionCount, positionOffset, length);
+        if (length == 0)
+        {
+            return 0;
+        }
+        int firstLeaf = getLeafIndex(positionOffset);
+        int lastLeaf = getLeafIndex(positionOffset + length - 1);
+        long sizeInBytes = 0;
+        for (int i = firstLeaf; i <= lastLeaf; ++i)
+        {
+            int start = Math.max(positionOffset, positionOffsets[i]);
+            int end = Math.min(positionOffset + length, positionOffsets[i + 1]);
+            sizeInBytes += leaves[i].getRegionSizeInBytes(start - positionOffsets[i], end - start);
+        }
+        return sizeInBytes;
+    }
+
+    @Override
+    public OptionalInt fixedSizeInBytesPerPosition()
+    {
+        // the leaves are VariableWidthBlocks, which do not have a fixed size per position.
+        return OptionalInt.empty();
+    }
+
+    @Override
+    public long getPositionsSizeInBytes(boolean[] positions, int selectedPositionsCount)
+    {
+        checkValidPositions(positions, positionCount);
+        if (selectedPositionsCount == 0)
+        {
+            return 0;
+        }
+        if (selectedPositionsCount == positionCount)
+        {
+            return getSizeInBytes();
+        }
+        long sizeInBytes = 0;
+        for (int i = 0; i < leaves.length; ++i)
+        {
+            boolean[] leafPositions = Arrays.copyOfRange(positions, positionOffsets[i], positionOffsets[i + 1]);
+            int leafSelected = 0;
+            for (boolean selected : leafPositions)
+            {
+                if (selected)
+                {
+                    leafSelected++;
+                }
+            }
+            sizeInBytes += leaves[i].getPositionsSizeInBytes(leafPositions, leafSelected);
+        }
+        return sizeInBytes;
+    }
+
+    @Override
+    public long getRetainedSizeInBytes()
+    {
+        long retainedSize = INSTANCE_SIZE + sizeOf(leaves) + sizeOf(positionOffsets);
+        for (VariableWidthBlock leaf : leaves)
+        {
+            retainedSize += leaf.getRetainedSizeInBytes();
+        }
+        return retainedSize;
+    }
+
+    @Override
+    public long getEstimatedDataSizeForStats(int position)
+    {
+        int leafIndex = getLeafIndex(position);
+        return leaves[leafIndex].getEstimatedDataSizeForStats(position - positionOffsets[leafIndex]);
+    }
+
+    @Override
+    public void retainedBytesForEachPart(ObjLongConsumer<Object> consumer)
+    {
+        for (VariableWidthBlock leaf : leaves)
+        {
+            consumer.accept(leaf, leaf.getRetainedSizeInBytes());
+        }
+        consumer.accept(leaves, sizeOf(leaves));
+        consumer.accept(positionOffsets, sizeOf(positionOffsets));
+        consumer.accept(this, INSTANCE_SIZE);
+    }
+
+    @Override
+    public String getEncodingName()
+    {
+        return MultiVariableWidthBlockEncoding.NAME;
+    }
+
+    @Override
+    public Block copyPositions(int[] positions, int offset, int length)
+    {
+        checkArrayRange(positions, offset, length);
+        return copyPositionsToLeaf(positions, offset, length);
+    }
+
+    @Override
+    public Block getRegion(int positionOffset, int length)
+    {
+        checkValidRegion(positionCount, positionOffset, length);
+        if (positionOffset == 0 && length == positionCount)
+        {
+            return this;
+        }
+        if (length == 0)
+        {
+            return leaves[0].getRegion(0, 0);
+        }
+        int firstLeaf = getLeafIndex(positionOffset);
+        int lastLeaf = getLeafIndex(positionOffset + length - 1);
+        if (firstLeaf == lastLeaf)
+        {
+            return leaves[firstLeaf].getRegion(positionOffset - positionOffsets[firstLeaf], length);
+        }
+        VariableWidthBlock[] regionLeaves = Arrays.copyOfRange(leaves, firstLeaf, lastLeaf + 1);
+        int firstStart = positionOffset - positionOffsets[firstLeaf];
+        regionLeaves[0] = (VariableWidthBlock) leaves[firstLeaf].getRegion(
+                firstStart, leaves[firstLeaf].getPositionCount() - firstStart);
+        regionLeaves[regionLeaves.length - 1] = (VariableWidthBlock) leaves[lastLeaf].getRegion(
+                0, positionOffset + length - positionOffsets[lastLeaf]);
+        return new MultiVariableWidthBlock(regionLeaves);
+    }
+
+    @Override
+    public Block copyRegion(int positionOffset, int length)
+    {
+        checkValidRegion(positionCount, positionOffset, length);
+        return copyRegionToLeaf(positionOffset, length);
+    }
+
+    @Override
+    public boolean isNull(int position)
+    {
+        int leafIndex = getLeafIndex(position);
+        return leaves[leafIndex].isNull(position - positionOffsets[leafIndex]);
+    }
+
+    @Override
+    public Block copyWithAppendedNull()
+    {
+        VariableWidthBlock[] newLeaves = Arrays.copyOf(leaves, leaves.length);
+        newLeaves[newLeaves.length - 1] = (VariableWidthBlock) leaves[leaves.length - 1].copyWithAppendedNull();
+        return new MultiVariableWidthBlock(newLeaves);
+    }
+}
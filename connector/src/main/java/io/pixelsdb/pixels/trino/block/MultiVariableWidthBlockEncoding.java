@@ -0,0 +1,78 @@
+/*
+ * Copyright 2026 PixelsDB.
+ *
+ * This file is part of Pixels.
+ *
+ * Pixels is free software: you can redistribute it and/or modify
+ * it under the terms of the Affero GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * Pixels is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * Affero GNU General Public License for more details.
+ *
+ * You should have received a copy of the Affero GNU General Public
+ * License along with Pixels.  If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package io.pixelsdb.pixels.trino.block;
+
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.SliceInput;
+import io.airlift.slice.SliceOutput;
+import io.trino.spi.block.*;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * The encoding of {@link MultiVariableWidthBlock}, it writes the number of leaves followed by the leaves.
+ */
+public class MultiVariableWidthBlockEncoding implements BlockEncoding
+{
+    public static final String NAME = "MULTI_VARIABLE_WIDTH";
+
+    private static final MultiVariableWidthBlockEncoding instance = new MultiVariableWidthBlockEncoding();
+
+    public static MultiVariableWidthBlockEncoding Instance()
+    {
+        return instance;
+    }
+
+    private static final VariableWidthBlockEncoding LeafNodeEncoding = new VariableWidthBlockEncoding();
+
+    @Override
+    public String getName()
+    {
+        return NAME;
+    }
+
+    @Override
+    public void writeBlock(BlockEncodingSerde blockEncodingSerde, SliceOutput sliceOutput, Block block)
+    {
+        MultiVariableWidthBlock multiBlock = (MultiVariableWidthBlock) block;
+        sliceOutput.appendInt(multiBlock.getPositionCount());
+        sliceOutput.appendInt(multiBlock.getLeafCount());
+        for (int i = 0; i < multiBlock.getLeafCount(); ++i)
+        {
+            LeafNodeEncoding.writeBlock(blockEncodingSerde, sliceOutput, multiBlock.getLeaf(i));
+        }
+    }
+
+    @Override
+    public Block readBlock(BlockEncodingSerde blockEncodingSerde, SliceInput sliceInput)
+    {
+        int positionCount = sliceInput.readInt();
+        int leafCount = sliceInput.readInt();
+        ImmutableList.Builder<Block> leaves = ImmutableList.builderWithExpectedSize(leafCount);
+        for (int i = 0; i < leafCount; ++i)
+        {
+            leaves.add(LeafNodeEncoding.readBlock(blockEncodingSerde, sliceInput));
+        }
+        MultiVariableWidthBlock block = new MultiVariableWidthBlock(leaves.build());
+        checkArgument(block.getPositionCount() == positionCount,
+                "the decoded block has an incorrect position count");
+        return block;
+    }
+}
@@ -94,6 +94,16 @@ public class PairVariableWidthBlock implements Block
         return leftPositionCount;
     }
 
+    /**
+     * Flatten the tree rooted at this block, so that the leaf of a position is found by a binary search
+     * instead of descending the tree.
+     * @return the flattened block with the same values
+     */
+    public MultiVariableWidthBlock flatten()
+    {
+        return new MultiVariableWidthBlock(ImmutableList.of(this));
+    }
+
     @Override
     public String toString()
     {
@@ -345,7 +355,7 @@ public class PairVariableWidthBlock implements Block
         }
         for (int i = leftPositionCount; i < positionCount; ++i)
         {
-            leftUsed[i-leftPositionCount] = positions[i];
+            rightUsed[i-leftPositionCount] = positions[i];
             if (positions[i])
             {
                 rightSelected++;
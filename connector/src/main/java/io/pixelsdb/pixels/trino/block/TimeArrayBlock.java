@@ -263,6 +263,7 @@ public class TimeArrayBlock implements Block
 
         boolean[] newValueIsNull = new boolean[length];
         int[] newValues = new int[length];
+        // the values are copied as ints, without being widened to the longs returned by getLong.
         for (int i = 0; i < length; i++)
         {
             int position = positions[offset + i];
@@ -277,6 +278,10 @@ public class TimeArrayBlock implements Block
     public Block getRegion(int positionOffset, int length)
     {
         checkValidRegion(getPositionCount(), positionOffset, length);
+        if (positionOffset == 0 && length == positionCount)
+        {
+            return this;
+        }
 
         return new TimeArrayBlock(positionOffset + arrayOffset, length, valueIsNull, values);
     }
@@ -297,6 +302,21 @@ public class TimeArrayBlock implements Block
         return new TimeArrayBlock(length, newValueIsNull, newValues);
     }
 
+    int getRawArrayOffset()
+    {
+        return arrayOffset;
+    }
+
+    boolean[] getRawValueIsNull()
+    {
+        return valueIsNull;
+    }
+
+    int[] getRawValues()
+    {
+        return values;
+    }
+
     @Override
     public String getEncodingName()
     {
@@ -29,9 +29,7 @@ import org.openjdk.jol.info.ClassLayout;
 import sun.misc.Unsafe;
 
 import java.util.Arrays;
-import java.util.HashSet;
 import java.util.OptionalInt;
-import java.util.Set;
 import java.util.function.ObjLongConsumer;
 
 import static io.airlift.slice.SizeOf.sizeOf;
@@ -64,12 +62,11 @@ public class VarcharArrayBlock implements Block
     private final int[] lengths; // byte length of each item.
     private final boolean[] valueIsNull; // isNull flag of each item.
 
-    private final long retainedSizeInBytes;
     /**
      * PIXELS-167:
-     * The actual memory footprint of the member values.
+     * The actual memory footprint of the member values, computed on first use, -1 if not computed yet.
      */
-    private final long retainedSizeOfValues;
+    private volatile long retainedSizeOfValues = -1L;
     private final long sizeInBytes;
 
     static
@@ -131,26 +128,41 @@ public class VarcharArrayBlock implements Block
         }
         this.valueIsNull = valueIsNull;
 
-        long size = 0L, retainedSize = 0L;
-        Set<byte[]> existingValues = new HashSet<>(2);
+        long size = 0L;
         for (int i = 0; i < positionCount; ++i)
         {
             size += lengths[arrayOffset + i];
-            // retainedSize should count the physical footprint of the values.
-            if (!valueIsNull[arrayOffset + i])
+        }
+        sizeInBytes = size;
+    }
+
+    /**
+     * Get the physical footprint of the values, it is computed on the first call and then memoized.
+     * <p>
+     * The values usually share a few large buffers, e.g., the buffer of a column chunk or a dictionary, and
+     * the positions referencing the same buffer are adjacent. Hence, a buffer is only counted when it differs
+     * from the one of the previous non-null position. This avoids the hashing of a per-block set of buffers,
+     * and it may over-count a buffer if the references to it are interleaved with other buffers.
+     */
+    private long getRetainedSizeOfValues()
+    {
+        long retainedSize = retainedSizeOfValues;
+        if (retainedSize < 0)
+        {
+            retainedSize = sizeOf(values);
+            byte[] previous = null;
+            for (int i = arrayOffset; i < arrayOffset + positionCount; ++i)
             {
-                if (!existingValues.contains(values[arrayOffset + i]))
+                byte[] value = values[i];
+                if (!valueIsNull[i] && value != previous)
                 {
-                    existingValues.add(values[arrayOffset + i]);
-                    retainedSize += values[arrayOffset + i].length;
+                    retainedSize += value.length;
+                    previous = value;
                 }
             }
+            retainedSizeOfValues = retainedSize;
         }
-        existingValues.clear();
-        sizeInBytes = size;
-        retainedSizeOfValues = retainedSize + sizeOf(values);
-        retainedSizeInBytes = INSTANCE_SIZE + retainedSizeOfValues +
-                sizeOf(valueIsNull) + sizeOf(offsets) + sizeOf(lengths);
+        return retainedSize;
     }
 
     /**
@@ -254,7 +266,8 @@ public class VarcharArrayBlock implements Block
     @Override
     public long getRetainedSizeInBytes()
     {
-        return retainedSizeInBytes;
+        return INSTANCE_SIZE + getRetainedSizeOfValues() +
+                sizeOf(valueIsNull) + sizeOf(offsets) + sizeOf(lengths);
     }
 
     /**
@@ -284,7 +297,7 @@ public class VarcharArrayBlock implements Block
          * PIXELS-167:
          * DO NOT calculate the retained size of values by adding up values[i].length.
          */
-        consumer.accept(values, retainedSizeOfValues);
+        consumer.accept(values, getRetainedSizeOfValues());
         consumer.accept(offsets, sizeOf(offsets));
         consumer.accept(lengths, sizeOf(lengths));
         consumer.accept(valueIsNull, sizeOf(valueIsNull));
@@ -573,7 +586,7 @@ public class VarcharArrayBlock implements Block
         StringBuilder sb = new StringBuilder("VarcharArrayBlock{");
         sb.append("positionCount=").append(getPositionCount());
         sb.append(", size=").append(sizeInBytes);
-        sb.append(", retainedSize=").append(retainedSizeInBytes);
+        sb.append(", retainedSize=").append(getRetainedSizeInBytes());
         sb.append('}');
         return sb.toString();
     }
@@ -22,10 +22,14 @@ package io.pixelsdb.pixels.trino.block;
 import io.trino.spi.block.Block;
 import io.trino.spi.block.BlockEncoding;
 import io.trino.spi.block.BlockEncodingSerde;
+import io.trino.spi.block.VariableWidthBlock;
+import io.airlift.slice.Slice;
 import io.airlift.slice.SliceInput;
 import io.airlift.slice.SliceOutput;
 import io.airlift.slice.Slices;
 
+import java.util.Optional;
+
 import static io.airlift.slice.SizeOf.SIZE_OF_INT;
 import static io.pixelsdb.pixels.trino.block.EncoderUtil.*;
 
@@ -64,51 +68,83 @@ public class VarcharArrayBlockEncoding implements BlockEncoding
 
         // do not encode offsets, they should be 0.
 
-        // lengths
+        // lengths, the length of null value is 0, write them in one bulk call.
+        int[] lengths = new int[positionCount];
         for (int position = 0; position < positionCount; position++)
         {
-            sliceOutput.appendInt(varcharArrayBlock.getSliceLength(position));
+            lengths[position] = varcharArrayBlock.getSliceLength(position);
         }
+        sliceOutput.writeBytes(Slices.wrappedIntArray(lengths));
 
         // isNull
         encodeNullsAsBits(sliceOutput, varcharArrayBlock);
 
         // values
         // sliceOutput.appendInt((int) varcharArrayBlock.getSizeInBytes());
+        /*
+         * The values of consecutive positions are usually contiguous in the same backing array,
+         * e.g., the blocks built from BinaryColumnVector. Such a run of positions is written
+         * by one bulk copy.
+         */
+        byte[] runValue = null;
+        int runOffset = 0, runLength = 0;
         for (int position = 0; position < positionCount; position++)
         {
             byte[] rawValue = varcharArrayBlock.getRawValue(position);
-            if (rawValue != null)
+            int length = lengths[position];
+            if (rawValue == null || length == 0)
+            {
+                continue;
+            }
+            int offset = varcharArrayBlock.getPositionOffset(position);
+            if (rawValue == runValue && offset == runOffset + runLength)
             {
-                sliceOutput.writeBytes(rawValue, varcharArrayBlock.getPositionOffset(position),
-                        varcharArrayBlock.getSliceLength(position));
+                runLength += length;
             }
+            else
+            {
+                if (runValue != null)
+                {
+                    sliceOutput.writeBytes(runValue, runOffset, runLength);
+                }
+                runValue = rawValue;
+                runOffset = offset;
+                runLength = length;
+            }
+        }
+        if (runValue != null)
+        {
+            sliceOutput.writeBytes(runValue, runOffset, runLength);
         }
     }
 
+    /**
+     * The values of all the positions are contiguous in the serialized block, hence we read them
+     * as a single slice that is shared by all the positions, instead of allocating a byte array
+     * for each position. The result is a {@link VariableWidthBlock}, whose offsets are the prefix
+     * sums of the lengths.
+     * <p/>
+     * The serialization format is not changed, so that blocks written by any version of
+     * {@link #writeBlock(BlockEncodingSerde, SliceOutput, Block)} can be read here.
+     */
     @Override
     public Block readBlock(BlockEncodingSerde blockEncodingSerde, SliceInput sliceInput)
     {
         int positionCount = sliceInput.readInt();
 
-        int[] offsets = new int[positionCount];
-        int[] lengths = new int[positionCount];
-
-        // offsets should be 0, do not read them from sliceInput.
-
-        // destinationIndex should be 0, because we do not need 0 the be the first item in lengths.
-        sliceInput.readBytes(Slices.wrappedIntArray(lengths), 0, positionCount * SIZE_OF_INT);
-
-        boolean[] valueIsNull = decodeNullBits(sliceInput, positionCount).get();
-
-        // int blockSize = sliceInput.readInt();
-        byte[][] values = new byte[positionCount][];
-        for (int position = 0; position < positionCount; position++)
+        // offsets[0] is 0, read the lengths into offsets[1...positionCount].
+        int[] offsets = new int[positionCount + 1];
+        sliceInput.readBytes(Slices.wrappedIntArray(offsets), SIZE_OF_INT, positionCount * SIZE_OF_INT);
+        for (int position = 1; position <= positionCount; position++)
         {
-            values[position] = new byte[lengths[position]];
-            sliceInput.readBytes(values[position]);
+            // lengths of null values are 0, so it is safe to accumulate them.
+            offsets[position] += offsets[position - 1];
         }
 
-        return new VarcharArrayBlock(positionCount, values, offsets, lengths, valueIsNull);
+        Optional<boolean[]> valueIsNull = decodeNullBits(sliceInput, positionCount);
+
+        Slice values = sliceInput.readSlice(offsets[positionCount]);
+
+        return new VariableWidthBlock(positionCount, values, offsets, valueIsNull);
     }
 }
@@ -162,6 +162,16 @@ public class PixelsMetadataProxy
         return MetadataCache.Instance().getTableColumns(transId, new SchemaTableName(schemaName, tableName));
     }
 
+    public boolean updateRowCount (String schemaName, String tableName, long rowCount) throws MetadataException
+    {
+        return metadataService.updateRowCount(schemaName, tableName, rowCount);
+    }
+
+    public boolean updateColumn (Column column) throws MetadataException
+    {
+        return metadataService.updateColumn(column);
+    }
+
     public List<Layout> getDataLayouts (String schemaName, String tableName) throws MetadataException
     {
         return metadataService.getLayouts(schemaName, tableName);
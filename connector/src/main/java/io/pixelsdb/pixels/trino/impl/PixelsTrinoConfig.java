@@ -33,6 +33,7 @@ import io.pixelsdb.pixels.trino.exception.PixelsErrorCode;
 import io.trino.spi.TrinoException;
 import io.trino.spi.connector.SchemaTableName;
 
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 import java.io.IOException;
 import java.util.Optional;
@@ -72,6 +73,31 @@ public class PixelsTrinoConfig
     private StorageInfo outputStorageInfo = null;
     private Storage.Scheme outputStorageScheme = null;
     private String outputFolder = null;
+    /**
+     * Whether the page source reads the next row batches in the background.
+     */
+    private boolean prefetchEnabled = false;
+    /**
+     * The maximum number of row batches buffered by the background reading of a page source.
+     */
+    private int prefetchMaxBatches = 2;
+    /**
+     * The maximum number of readers a page source can open at the same time, including the one being read.
+     * The readers of the next paths in a split are opened in the background if it is greater than 1.
+     */
+    private int prefetchMaxOpenReaders = 2;
+    /**
+     * The maximum time in milliseconds the split source waits for the dynamic filters.
+     */
+    private int dynamicFilterWaitTimeout = 1000;
+    /**
+     * Whether the split manager prunes the row groups by the statistics in the file footers.
+     */
+    private boolean splitPruningEnabled = false;
+    /**
+     * Whether the page sources on the MPP workers filter the rows by the pushed down predicates.
+     */
+    private boolean rowFilterEnabled = false;
 
     @Config("cloud.function.switch")
     public PixelsTrinoConfig setCloudFunctionSwitch(String cloudFunctionSwitch)
@@ -163,6 +189,48 @@ public class PixelsTrinoConfig
         return this;
     }
 
+    @Config("prefetch.enabled")
+    public PixelsTrinoConfig setPrefetchEnabled(boolean prefetchEnabled)
+    {
+        this.prefetchEnabled = prefetchEnabled;
+        return this;
+    }
+
+    @Config("prefetch.max.batches")
+    public PixelsTrinoConfig setPrefetchMaxBatches(int prefetchMaxBatches)
+    {
+        this.prefetchMaxBatches = prefetchMaxBatches;
+        return this;
+    }
+
+    @Config("prefetch.max.open.readers")
+    public PixelsTrinoConfig setPrefetchMaxOpenReaders(int prefetchMaxOpenReaders)
+    {
+        this.prefetchMaxOpenReaders = prefetchMaxOpenReaders;
+        return this;
+    }
+
+    @Config("dynamic.filter.wait.timeout")
+    public PixelsTrinoConfig setDynamicFilterWaitTimeout(int dynamicFilterWaitTimeout)
+    {
+        this.dynamicFilterWaitTimeout = dynamicFilterWaitTimeout;
+        return this;
+    }
+
+    @Config("split.pruning.enabled")
+    public PixelsTrinoConfig setSplitPruningEnabled(boolean splitPruningEnabled)
+    {
+        this.splitPruningEnabled = splitPruningEnabled;
+        return this;
+    }
+
+    @Config("row.filter.enabled")
+    public PixelsTrinoConfig setRowFilterEnabled(boolean rowFilterEnabled)
+    {
+        this.rowFilterEnabled = rowFilterEnabled;
+        return this;
+    }
+
     @NotNull
     public PixelsTrinoConfig.CloudFunctionSwitch getCloudFunctionSwitch()
     {
@@ -174,6 +242,39 @@ public class PixelsTrinoConfig
         return cleanIntermediateResult;
     }
 
+    public boolean isPrefetchEnabled()
+    {
+        return prefetchEnabled;
+    }
+
+    @Min(1)
+    public int getPrefetchMaxBatches()
+    {
+        return prefetchMaxBatches;
+    }
+
+    @Min(1)
+    public int getPrefetchMaxOpenReaders()
+    {
+        return prefetchMaxOpenReaders;
+    }
+
+    @Min(0)
+    public int getDynamicFilterWaitTimeout()
+    {
+        return dynamicFilterWaitTimeout;
+    }
+
+    public boolean isSplitPruningEnabled()
+    {
+        return splitPruningEnabled;
+    }
+
+    public boolean isRowFilterEnabled()
+    {
+        return rowFilterEnabled;
+    }
+
     public StorageInfo getInputStorageInfo()
     {
         if (this.cloudFunctionSwitch == CloudFunctionSwitch.OFF)
@@ -29,7 +29,9 @@ import io.trino.spi.predicate.TupleDomain;
 import io.trino.spi.predicate.ValueSet;
 import io.trino.spi.type.*;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -54,11 +56,34 @@ public class PixelsTupleDomainPredicate<C> implements PixelsPredicate
 {
     private final TupleDomain<C> predicate;
     private final List<ColumnReference<C>> columnReferences;
+    /**
+     * The sorted discrete values of the predicate domains (e.g., the values in 'in' lists) on the
+     * integral and double columns, indexed by the physical ordinal of the column. They are prepared
+     * once and tested against the min and max statistics of each row group by binary search.
+     */
+    private final Map<Integer, DiscreteValues> discreteValuesByColumnIndex;
 
     public PixelsTupleDomainPredicate(TupleDomain<C> predicate, List<ColumnReference<C>> columnReferences)
     {
         this.predicate = requireNonNull(predicate, "predicate is null");
         this.columnReferences = ImmutableList.copyOf(requireNonNull(columnReferences, "column references is null"));
+        this.discreteValuesByColumnIndex = new HashMap<>();
+        if (predicate.getDomains().isPresent())
+        {
+            Map<C, Domain> domains = predicate.getDomains().get();
+            for (ColumnReference<C> columnReference : this.columnReferences)
+            {
+                Domain domain = domains.get(columnReference.getColumn());
+                if (domain != null)
+                {
+                    DiscreteValues discreteValues = DiscreteValues.of(columnReference.getType(), domain);
+                    if (discreteValues != null)
+                    {
+                        this.discreteValuesByColumnIndex.put(columnReference.getPhysicalOrdinal(), discreteValues);
+                    }
+                }
+            }
+        }
     }
 
     /**
@@ -171,6 +196,18 @@ public class PixelsTupleDomainPredicate<C> implements PixelsPredicate
     private boolean domainMatches(ColumnReference<C> columnReference, Domain predicateDomain,
                                    long numberOfRows, ColumnStats columnStats)
     {
+        DiscreteValues discreteValues = discreteValuesByColumnIndex.get(columnReference.getPhysicalOrdinal());
+        if (discreteValues != null && numberOfRows > 0 && columnStats.getNumberOfValues() > 0 &&
+                columnStats instanceof RangeStats<?> rangeStats && rangeStats.hasMinimum() && rangeStats.hasMaximum())
+        {
+            boolean hasNullValue = columnStats.getNumberOfValues() != numberOfRows || columnStats.hasNull();
+            if (predicateDomain.isNullAllowed() && hasNullValue)
+            {
+                return true;
+            }
+            return discreteValues.anyInRange(rangeStats.getMinimum(), rangeStats.getMaximum());
+        }
+
         Domain columnDomain = getDomain(columnReference.getType(), numberOfRows, columnStats);
         if (!columnDomain.overlaps(predicateDomain))
         {
@@ -189,8 +226,9 @@ public class PixelsTupleDomainPredicate<C> implements PixelsPredicate
 
         /**
          * PIXELS-103:
-         * 1. No need to process discrete values. Discrete values and ranges will not coexist. However either
-         * of them has been considered in the Domain.overlaps() method above.
+         * 1. The discrete values on the integral and double columns are tested by binary search above.
+         * Discrete values and ranges will not coexist. For other types, either of them has been considered
+         * in the Domain.overlaps() method above.
          *
          * 2. Predicate domain and column domain will always be compatible, i.e. their values are all of the
          * EquatableValue or SortedRangeSet type.
@@ -200,22 +238,16 @@ public class PixelsTupleDomainPredicate<C> implements PixelsPredicate
          * If predicate domain and the column domain are from the same column, they should have the
          * same type of values.
          */
-        // Optional<Collection<Object>> discreteValues = getDiscreteValues(predicateDomain.getValues());
-        // if (!discreteValues.isPresent())
-        // {
-        //     return true;
-        // }
-
         return true;
     }
 
     /**
      * Get all the discrete values, including single values from the ordered ranges
      * and the unordered discrete values.
-     * @param valueSet
-     * @return
+     * @param valueSet the value set of the domain
+     * @return the discrete values, or empty if the value set is not discrete
      */
-    private Optional<Collection<Object>> getDiscreteValues(ValueSet valueSet)
+    private static Optional<Collection<Object>> getDiscreteValues(ValueSet valueSet)
     {
         return valueSet.getValuesProcessor().transform(
                 ranges -> {
@@ -398,6 +430,84 @@ public class PixelsTupleDomainPredicate<C> implements PixelsPredicate
         return Domain.create(ValueSet.none(type), hasNullValue);
     }
 
+    /**
+     * The sorted discrete values of a predicate domain on an integral (including short decimal) or double column.
+     */
+    private static final class DiscreteValues
+    {
+        private final long[] longValues;
+        private final double[] doubleValues;
+
+        private DiscreteValues(long[] longValues, double[] doubleValues)
+        {
+            this.longValues = longValues;
+            this.doubleValues = doubleValues;
+        }
+
+        /**
+         * @return the discrete values of the domain, or null if the domain is not discrete or the type is not supported
+         */
+        private static DiscreteValues of(Type type, Domain domain)
+        {
+            boolean isLong = type.getJavaType() == long.class && !(type instanceof TimestampType) &&
+                    !(type instanceof TimeType) && !(type instanceof DateType);
+            boolean isDouble = type.getJavaType() == double.class;
+            if (!isLong && !isDouble)
+            {
+                return null;
+            }
+            Optional<Collection<Object>> values = getDiscreteValues(domain.getValues());
+            if (!values.isPresent() || values.get().isEmpty())
+            {
+                return null;
+            }
+            int i = 0;
+            if (isLong)
+            {
+                long[] longValues = new long[values.get().size()];
+                for (Object value : values.get())
+                {
+                    longValues[i++] = (long) value;
+                }
+                Arrays.sort(longValues);
+                return new DiscreteValues(longValues, null);
+            }
+            double[] doubleValues = new double[values.get().size()];
+            for (Object value : values.get())
+            {
+                doubleValues[i++] = (double) value;
+            }
+            Arrays.sort(doubleValues);
+            return new DiscreteValues(null, doubleValues);
+        }
+
+        /**
+         * @param min the minimum value in the statistics
+         * @param max the maximum value in the statistics
+         * @return true if any of the discrete values is in the range [min, max]
+         */
+        private boolean anyInRange(Object min, Object max)
+        {
+            if (longValues != null)
+            {
+                long minValue = ((Number) min).longValue(), maxValue = ((Number) max).longValue();
+                int index = Arrays.binarySearch(longValues, minValue);
+                // binarySearch returns (-(insertion point) - 1) if the value is not found.
+                index = index >= 0 ? index : -index - 1;
+                return index < longValues.length && longValues[index] <= maxValue;
+            }
+            double minValue = ((Number) min).doubleValue(), maxValue = ((Number) max).doubleValue();
+            int index = Arrays.binarySearch(doubleValues, minValue);
+            index = index >= 0 ? index : -index - 1;
+            // Arrays.binarySearch distinguishes -0.0 and 0.0, which are equal in the predicate.
+            if (index > 0 && doubleValues[index - 1] == minValue)
+            {
+                return true;
+            }
+            return index < doubleValues.length && doubleValues[index] <= maxValue;
+        }
+    }
+
     public static class ColumnReference<C>
     {
         private final C column;
@@ -19,6 +19,9 @@
  */
 package io.pixelsdb.pixels.trino.properties;
 
+import io.pixelsdb.pixels.trino.impl.PixelsTrinoConfig;
+import io.trino.spi.StandardErrorCode;
+import io.trino.spi.TrinoException;
 import io.trino.spi.connector.ConnectorSession;
 import io.trino.spi.session.PropertyMetadata;
 import com.google.common.collect.ImmutableList;
@@ -27,6 +30,7 @@ import javax.inject.Inject;
 import java.util.List;
 
 import static io.trino.spi.session.PropertyMetadata.booleanProperty;
+import static io.trino.spi.session.PropertyMetadata.integerProperty;
 
 /**
  * @author hank
@@ -36,11 +40,16 @@ public class PixelsSessionProperties
     private static final String ORDERED_PATH_ENABLED = "ordered_path_enabled";
     private static final String COMPACT_PATH_ENABLED = "compact_path_enabled";
     private static final String CLOUD_FUNCTION_ENABLED = "cloud_function_enabled";
+    private static final String PREFETCH_ENABLED = "prefetch_enabled";
+    private static final String PREFETCH_MAX_BATCHES = "prefetch_max_batches";
+    private static final String DYNAMIC_FILTER_WAIT_TIMEOUT = "dynamic_filter_wait_timeout";
+    private static final String SPLIT_PRUNING_ENABLED = "split_pruning_enabled";
+    private static final String ROW_FILTER_ENABLED = "row_filter_enabled";
 
     private final List<PropertyMetadata<?>> sessionProperties;
 
     @Inject
-    public PixelsSessionProperties()
+    public PixelsSessionProperties(PixelsTrinoConfig config)
     {
         PropertyMetadata<Boolean> s1 = booleanProperty(
                 ORDERED_PATH_ENABLED,
@@ -55,7 +64,44 @@ public class PixelsSessionProperties
                 "Set true to enable cloud-function workers for query processing,",
                 false, false);
 
-        sessionProperties = ImmutableList.of(s1, s2, s3);
+        PropertyMetadata<Boolean> s4 = booleanProperty(
+                PREFETCH_ENABLED,
+                "Set true to read the next row batches in the background while the current page is processed.",
+                config.isPrefetchEnabled(), false);
+
+        PropertyMetadata<Integer> s5 = integerProperty(
+                PREFETCH_MAX_BATCHES,
+                "The maximum number of row batches buffered by the background reading of a page source.",
+                config.getPrefetchMaxBatches(), value -> {
+                    if (value < 1)
+                    {
+                        throw new TrinoException(StandardErrorCode.INVALID_SESSION_PROPERTY,
+                                PREFETCH_MAX_BATCHES + " must be positive: " + value);
+                    }
+                }, false);
+
+        PropertyMetadata<Integer> s6 = integerProperty(
+                DYNAMIC_FILTER_WAIT_TIMEOUT,
+                "The maximum time in milliseconds to wait for the dynamic filters before generating the splits.",
+                config.getDynamicFilterWaitTimeout(), value -> {
+                    if (value < 0)
+                    {
+                        throw new TrinoException(StandardErrorCode.INVALID_SESSION_PROPERTY,
+                                DYNAMIC_FILTER_WAIT_TIMEOUT + " must not be negative: " + value);
+                    }
+                }, false);
+
+        PropertyMetadata<Boolean> s7 = booleanProperty(
+                SPLIT_PRUNING_ENABLED,
+                "Set true to prune the row groups by the statistics in the file footers when generating the splits.",
+                config.isSplitPruningEnabled(), false);
+
+        PropertyMetadata<Boolean> s8 = booleanProperty(
+                ROW_FILTER_ENABLED,
+                "Set true to filter the rows by the pushed down predicates in the connector on the MPP workers.",
+                config.isRowFilterEnabled(), false);
+
+        sessionProperties = ImmutableList.of(s1, s2, s3, s4, s5, s6, s7, s8);
     }
 
     public List<PropertyMetadata<?>> getSessionProperties()
@@ -77,4 +123,29 @@ public class PixelsSessionProperties
     {
         return session.getProperty(CLOUD_FUNCTION_ENABLED, Boolean.class);
     }
+
+    public static boolean getPrefetchEnabled(ConnectorSession session)
+    {
+        return session.getProperty(PREFETCH_ENABLED, Boolean.class);
+    }
+
+    public static int getPrefetchMaxBatches(ConnectorSession session)
+    {
+        return session.getProperty(PREFETCH_MAX_BATCHES, Integer.class);
+    }
+
+    public static int getDynamicFilterWaitTimeout(ConnectorSession session)
+    {
+        return session.getProperty(DYNAMIC_FILTER_WAIT_TIMEOUT, Integer.class);
+    }
+
+    public static boolean getSplitPruningEnabled(ConnectorSession session)
+    {
+        return session.getProperty(SPLIT_PRUNING_ENABLED, Boolean.class);
+    }
+
+    public static boolean getRowFilterEnabled(ConnectorSession session)
+    {
+        return session.getProperty(ROW_FILTER_ENABLED, Boolean.class);
+    }
 }
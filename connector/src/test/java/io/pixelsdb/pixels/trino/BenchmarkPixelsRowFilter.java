@@ -0,0 +1,160 @@
+/*
+ * Copyright 2026 PixelsDB.
+ *
+ * This file is part of Pixels.
+ *
+ * Pixels is free software: you can redistribute it and/or modify
+ * it under the terms of the Affero GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * Pixels is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * Affero GNU General Public License for more details.
+ *
+ * You should have received a copy of the Affero GNU General Public
+ * License along with Pixels.  If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package io.pixelsdb.pixels.trino;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.pixelsdb.pixels.core.TypeDescription;
+import io.pixelsdb.pixels.core.utils.Bitmap;
+import io.pixelsdb.pixels.core.vector.DoubleColumnVector;
+import io.pixelsdb.pixels.core.vector.LongColumnVector;
+import io.pixelsdb.pixels.core.vector.VectorizedRowBatch;
+import io.pixelsdb.pixels.executor.predicate.TableScanFilter;
+import io.trino.spi.block.Block;
+import io.trino.spi.block.LongArrayBlock;
+import io.trino.spi.predicate.Domain;
+import io.trino.spi.predicate.Range;
+import io.trino.spi.predicate.TupleDomain;
+import io.trino.spi.predicate.ValueSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.DoubleType.DOUBLE;
+
+/**
+ * Compares the row-level filtering of {@link PixelsRowFilter} with {@link TableScanFilter} and with the
+ * position-by-position evaluation on Trino blocks, which is how the filter operator of Trino evaluates
+ * the same predicate on the pages produced by the page source.
+ * <p/>
+ * Run it by the main method of this class.
+ */
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class BenchmarkPixelsRowFilter
+{
+    private static final int BATCH_SIZE = 10000;
+    private static final PixelsColumnHandle KEY = new PixelsColumnHandle("pixels", "test", "t", "key", "key",
+            BIGINT, TypeDescription.Category.LONG, "", 0);
+    private static final PixelsColumnHandle PRICE = new PixelsColumnHandle("pixels", "test", "t", "price", "price",
+            DOUBLE, TypeDescription.Category.DOUBLE, "", 1);
+    private static final String[] INCLUDE_COLS = new String[] {"key", "price"};
+
+    /**
+     * The percentage of the rows that match the predicate on each column.
+     */
+    @Param({"1", "50", "99"})
+    private int selectivity;
+
+    private VectorizedRowBatch rowBatch;
+    private Block keyBlock;
+    private Block priceBlock;
+    private PixelsRowFilter rowFilter;
+    private TableScanFilter tableScanFilter;
+    private final Bitmap result = new Bitmap(BATCH_SIZE, true);
+    private final Bitmap tmp = new Bitmap(BATCH_SIZE, false);
+    private final int[] positions = new int[BATCH_SIZE];
+    private long keyBound;
+    private double priceBound;
+
+    @Setup
+    public void setup()
+    {
+        Random random = new Random(0);
+        LongColumnVector keyVector = new LongColumnVector(BATCH_SIZE);
+        DoubleColumnVector priceVector = new DoubleColumnVector(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; ++i)
+        {
+            keyVector.vector[i] = random.nextInt(100);
+            priceVector.vector[i] = Double.doubleToLongBits(random.nextDouble() * 100);
+        }
+        rowBatch = new VectorizedRowBatch(2, BATCH_SIZE);
+        rowBatch.cols[0] = keyVector;
+        rowBatch.cols[1] = priceVector;
+        rowBatch.size = BATCH_SIZE;
+        keyBlock = new LongArrayBlock(BATCH_SIZE, Optional.empty(), keyVector.vector);
+        priceBlock = new LongArrayBlock(BATCH_SIZE, Optional.empty(), priceVector.vector);
+
+        keyBound = selectivity;
+        priceBound = selectivity;
+        TupleDomain<PixelsColumnHandle> constraint = TupleDomain.withColumnDomains(ImmutableMap.of(
+                KEY, Domain.create(ValueSet.ofRanges(Range.lessThan(BIGINT, keyBound)), false),
+                PRICE, Domain.create(ValueSet.ofRanges(Range.lessThan(DOUBLE, priceBound)), false)));
+        rowFilter = PixelsRowFilter.create("test", "t", INCLUDE_COLS, ImmutableList.of(KEY, PRICE), constraint).get();
+        tableScanFilter = PixelsSplitManager.createTableScanFilter("test", "t", INCLUDE_COLS, constraint);
+    }
+
+    @Benchmark
+    public Bitmap pixelsRowFilter()
+    {
+        rowFilter.doFilter(rowBatch, result, tmp);
+        return result;
+    }
+
+    @Benchmark
+    public Bitmap tableScanFilter()
+    {
+        tableScanFilter.doFilter(rowBatch, result, tmp);
+        return result;
+    }
+
+    /**
+     * Evaluate the predicate on the blocks and collect the selected positions, as the page filter of Trino does.
+     */
+    @Benchmark
+    public int[] trinoBlockFilter()
+    {
+        int count = 0;
+        for (int position = 0; position < BATCH_SIZE; ++position)
+        {
+            if (!keyBlock.isNull(position) && BIGINT.getLong(keyBlock, position) < keyBound &&
+                    !priceBlock.isNull(position) && DOUBLE.getDouble(priceBlock, position) < priceBound)
+            {
+                positions[count++] = position;
+            }
+        }
+        return positions;
+    }
+
+    public static void main(String[] args) throws RunnerException
+    {
+        new Runner(new OptionsBuilder().include(BenchmarkPixelsRowFilter.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2026 PixelsDB.
+ *
+ * This file is part of Pixels.
+ *
+ * Pixels is free software: you can redistribute it and/or modify
+ * it under the terms of the Affero GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * Pixels is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * Affero GNU General Public License for more details.
+ *
+ * You should have received a copy of the Affero GNU General Public
+ * License along with Pixels.  If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package io.pixelsdb.pixels.trino;
+
+import io.pixelsdb.pixels.core.vector.DoubleColumnVector;
+import io.pixelsdb.pixels.core.vector.LongColumnVector;
+import io.pixelsdb.pixels.core.vector.VectorizedRowBatch;
+import io.trino.spi.Page;
+import io.trino.spi.block.BlockBuilder;
+
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.DoubleType.DOUBLE;
+
+/**
+ * The test data of a table with a bigint key column and a double value column, both nullable.
+ */
+final class PixelsTestData
+{
+    private PixelsTestData() { }
+
+    /**
+     * @return the page with the key block and the value block, a null element is a null value
+     */
+    static Page createPage(Long[] keys, Double[] values)
+    {
+        BlockBuilder keyBuilder = BIGINT.createBlockBuilder(null, keys.length);
+        BlockBuilder valueBuilder = DOUBLE.createBlockBuilder(null, values.length);
+        for (int i = 0; i < keys.length; ++i)
+        {
+            if (keys[i] == null)
+            {
+                keyBuilder.appendNull();
+            }
+            else
+            {
+                BIGINT.writeLong(keyBuilder, keys[i]);
+            }
+            if (values[i] == null)
+            {
+                valueBuilder.appendNull();
+            }
+            else
+            {
+                DOUBLE.writeDouble(valueBuilder, values[i]);
+            }
+        }
+        return new Page(keyBuilder.build(), valueBuilder.build());
+    }
+
+    /**
+     * @return the row batch with the key vector and the value vector, a null element is a null value
+     */
+    static VectorizedRowBatch createRowBatch(Long[] keys, Double[] values)
+    {
+        VectorizedRowBatch rowBatch = new VectorizedRowBatch(2, keys.length);
+        LongColumnVector keyVector = new LongColumnVector(keys.length);
+        DoubleColumnVector valueVector = new DoubleColumnVector(keys.length);
+        for (int i = 0; i < keys.length; ++i)
+        {
+            if (keys[i] == null)
+            {
+                keyVector.noNulls = false;
+                keyVector.isNull[i] = true;
+            }
+            else
+            {
+                keyVector.vector[i] = keys[i];
+            }
+            if (values[i] == null)
+            {
+                valueVector.noNulls = false;
+                valueVector.isNull[i] = true;
+            }
+            else
+            {
+                valueVector.vector[i] = Double.doubleToLongBits(values[i]);
+            }
+        }
+        rowBatch.cols[0] = keyVector;
+        rowBatch.cols[1] = valueVector;
+        rowBatch.size = keys.length;
+        return rowBatch;
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2026 PixelsDB.
+ *
+ * This file is part of Pixels.
+ *
+ * Pixels is free software: you can redistribute it and/or modify
+ * it under the terms of the Affero GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * Pixels is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * Affero GNU General Public License for more details.
+ *
+ * You should have received a copy of the Affero GNU General Public
+ * License along with Pixels.  If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package io.pixelsdb.pixels.trino;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+import io.pixelsdb.pixels.common.metadata.domain.Column;
+import io.pixelsdb.pixels.core.PixelsProto;
+import io.trino.spi.block.Block;
+import io.trino.spi.block.BlockBuilder;
+import io.trino.spi.statistics.ColumnStatisticMetadata;
+import io.trino.spi.type.Type;
+import io.trino.spi.type.VarcharType;
+import org.junit.Test;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import static io.trino.spi.statistics.ColumnStatisticType.MAX_VALUE;
+import static io.trino.spi.statistics.ColumnStatisticType.MIN_VALUE;
+import static io.trino.spi.statistics.ColumnStatisticType.NUMBER_OF_DISTINCT_VALUES;
+import static io.trino.spi.statistics.ColumnStatisticType.NUMBER_OF_NON_NULL_VALUES;
+import static io.trino.spi.statistics.ColumnStatisticType.TOTAL_SIZE_IN_BYTES;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.DoubleType.DOUBLE;
+
+public class TestPixelsColumnStatistics
+{
+    private static final Map<String, Type> COLUMN_TYPES = ImmutableMap.of(
+            "key", BIGINT, "name", VarcharType.createVarcharType(10), "price", DOUBLE);
+
+    private static Column createColumn(String name, String type)
+    {
+        Column column = new Column();
+        column.setName(name);
+        column.setType(type);
+        column.setSize(0);
+        column.setNullFraction(0);
+        column.setCardinality(0);
+        column.setRecordStats(ByteString.EMPTY);
+        return column;
+    }
+
+    private static Block createBlock(Long value)
+    {
+        BlockBuilder builder = BIGINT.createBlockBuilder(null, 1);
+        if (value == null)
+        {
+            builder.appendNull();
+        }
+        else
+        {
+            BIGINT.writeLong(builder, value);
+        }
+        return builder.build();
+    }
+
+    private static Block createBlock(double value)
+    {
+        BlockBuilder builder = DOUBLE.createBlockBuilder(null, 1);
+        DOUBLE.writeDouble(builder, value);
+        return builder.build();
+    }
+
+    private static Map<String, Column> toMap(Collection<Column> columns)
+    {
+        Map<String, Column> columnMap = new HashMap<>();
+        for (Column column : columns)
+        {
+            columnMap.put(column.getName(), column);
+        }
+        return columnMap;
+    }
+
+    @Test
+    public void testApplyColumnStatistics()
+    {
+        Column key = createColumn("key", "bigint");
+        Column name = createColumn("name", "varchar(10)");
+        Column price = createColumn("price", "double");
+
+        Map<ColumnStatisticMetadata, Block> statistics = ImmutableMap.of(
+                new ColumnStatisticMetadata("key", NUMBER_OF_NON_NULL_VALUES), createBlock(100L),
+                new ColumnStatisticMetadata("key", NUMBER_OF_DISTINCT_VALUES), createBlock(100L),
+                new ColumnStatisticMetadata("name", NUMBER_OF_NON_NULL_VALUES), createBlock(75L),
+                new ColumnStatisticMetadata("name", TOTAL_SIZE_IN_BYTES), createBlock(600L),
+                // the distinct values are not computed on an empty column.
+                new ColumnStatisticMetadata("price", NUMBER_OF_DISTINCT_VALUES), createBlock(null),
+                // the columns that are not in the table are ignored.
+                new ColumnStatisticMetadata("dropped", NUMBER_OF_NON_NULL_VALUES), createBlock(1L));
+
+        Map<String, Column> updatedMap = toMap(PixelsMetadata.applyColumnStatistics(
+                ImmutableList.of(key, name, price), COLUMN_TYPES, 100, statistics));
+        assert updatedMap.keySet().equals(ImmutableSet.of("key", "name"));
+
+        Column updatedKey = updatedMap.get("key");
+        assert updatedKey != key;
+        assert updatedKey.getType().equals("bigint");
+        assert updatedKey.getNullFraction() == 0.0;
+        assert updatedKey.getCardinality() == 100;
+
+        Column updatedName = updatedMap.get("name");
+        assert updatedName.getNullFraction() == 0.25;
+        assert updatedName.getSize() == 600;
+        assert updatedName.getCardinality() == 0;
+
+        // the given columns may be cached, thus they must not be modified.
+        assert name.getNullFraction() == 0.0 && name.getSize() == 0;
+        assert key.getCardinality() == 0;
+    }
+
+    @Test
+    public void testEmptyTable()
+    {
+        Column key = createColumn("key", "bigint");
+        Collection<Column> updated = PixelsMetadata.applyColumnStatistics(ImmutableList.of(key), COLUMN_TYPES, 0,
+                ImmutableMap.of(new ColumnStatisticMetadata("key", NUMBER_OF_NON_NULL_VALUES), createBlock(0L)));
+        assert updated.size() == 1;
+        assert updated.iterator().next().getNullFraction() == 0.0;
+    }
+
+    @Test
+    public void testApplyRange() throws InvalidProtocolBufferException
+    {
+        Column key = createColumn("key", "bigint");
+        // the other fields in the record statistics are kept.
+        key.setRecordStats(PixelsProto.ColumnStatistic.newBuilder().setNumberOfValues(100)
+                .setIntStatistics(PixelsProto.IntegerStatistic.newBuilder().setSum(42L)).build().toByteString());
+        Column name = createColumn("name", "varchar(10)");
+        Column price = createColumn("price", "double");
+
+        Map<ColumnStatisticMetadata, Block> statistics = ImmutableMap.of(
+                new ColumnStatisticMetadata("key", MIN_VALUE), createBlock(-5L),
+                new ColumnStatisticMetadata("key", MAX_VALUE), createBlock(100L),
+                new ColumnStatisticMetadata("price", MIN_VALUE), createBlock(0.5),
+                new ColumnStatisticMetadata("price", MAX_VALUE), createBlock(9.5),
+                // the range of varchar is not stored in the record statistics.
+                new ColumnStatisticMetadata("name", MIN_VALUE), createBlock(0L));
+
+        Map<String, Column> updatedMap = toMap(PixelsMetadata.applyColumnStatistics(
+                ImmutableList.of(key, name, price), COLUMN_TYPES, 100, statistics));
+        assert updatedMap.keySet().equals(ImmutableSet.of("key", "price"));
+
+        PixelsProto.ColumnStatistic keyStats = PixelsProto.ColumnStatistic.parseFrom(
+                updatedMap.get("key").getRecordStats().slice());
+        assert keyStats.getNumberOfValues() == 100;
+        assert keyStats.getIntStatistics().getMinimum() == -5L;
+        assert keyStats.getIntStatistics().getMaximum() == 100L;
+        assert keyStats.getIntStatistics().getSum() == 42L;
+
+        PixelsProto.ColumnStatistic priceStats = PixelsProto.ColumnStatistic.parseFrom(
+                updatedMap.get("price").getRecordStats().slice());
+        assert priceStats.getDoubleStatistics().getMinimum() == 0.5;
+        assert priceStats.getDoubleStatistics().getMaximum() == 9.5;
+
+        // the given columns may be cached, thus they must not be modified.
+        assert PixelsProto.ColumnStatistic.parseFrom(key.getRecordStats().slice())
+                .getIntStatistics().getMinimum() == 0L;
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2026 PixelsDB.
+ *
+ * This file is part of Pixels.
+ *
+ * Pixels is free software: you can redistribute it and/or modify
+ * it under the terms of the Affero GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * Pixels is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * Affero GNU General Public License for more details.
+ *
+ * You should have received a copy of the Affero GNU General Public
+ * License along with Pixels.  If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package io.pixelsdb.pixels.trino;
+
+import com.google.common.collect.ImmutableList;
+import io.pixelsdb.pixels.core.TypeDescription;
+import io.pixelsdb.pixels.executor.aggregation.FunctionType;
+import io.trino.spi.Page;
+import io.trino.spi.block.BlockBuilder;
+import io.trino.spi.connector.ConnectorPageSource;
+import io.trino.spi.connector.FixedPageSource;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.DoubleType.DOUBLE;
+
+public class TestPixelsGlobalAggrPageSource
+{
+    private static final PixelsColumnHandle KEY_COLUMN = new PixelsColumnHandle("pixels", "test",
+            "t", "key", "key", BIGINT, TypeDescription.Category.LONG, "", 0);
+    private static final PixelsColumnHandle PRICE_COLUMN = new PixelsColumnHandle("pixels", "test",
+            "t", "price", "price", DOUBLE, TypeDescription.Category.DOUBLE, "", 1);
+    private static final PixelsColumnHandle COUNT_COLUMN = new PixelsColumnHandle("pixels", "aggregate",
+            "aggregate_t", "count_price", "count_price", BIGINT, TypeDescription.Category.LONG, "synthetic", 0);
+    private static final PixelsColumnHandle MAX_COLUMN = new PixelsColumnHandle("pixels", "aggregate",
+            "aggregate_t", "max_price", "max_price", DOUBLE, TypeDescription.Category.DOUBLE, "synthetic", 1);
+    private static final PixelsColumnHandle SUM_COLUMN = new PixelsColumnHandle("pixels", "aggregate",
+            "aggregate_t", "sum_price", "sum_price", DOUBLE, TypeDescription.Category.DOUBLE, "synthetic", 2);
+    private static final PixelsColumnHandle MIN_COLUMN = new PixelsColumnHandle("pixels", "aggregate",
+            "aggregate_t", "min_key", "min_key", BIGINT, TypeDescription.Category.LONG, "synthetic", 3);
+
+    /**
+     * select count(price), max(price), sum(price), min(key) from t
+     */
+    private static final PixelsAggrHandle AGGR_HANDLE = new PixelsAggrHandle(
+            ImmutableList.of(PRICE_COLUMN, PRICE_COLUMN, PRICE_COLUMN, KEY_COLUMN),
+            ImmutableList.of(COUNT_COLUMN, MAX_COLUMN, SUM_COLUMN, MIN_COLUMN), ImmutableList.of(),
+            ImmutableList.of(COUNT_COLUMN, MAX_COLUMN, SUM_COLUMN, MIN_COLUMN),
+            ImmutableList.of(FunctionType.COUNT, FunctionType.MAX, FunctionType.SUM, FunctionType.MIN), null);
+
+    /**
+     * Create the output row of a final aggregation worker, the values of count, max, sum, and min.
+     */
+    private static Page createWorkerPage(long count, Double max, Double sum, Long min)
+    {
+        BlockBuilder countBuilder = BIGINT.createBlockBuilder(null, 1);
+        BIGINT.writeLong(countBuilder, count);
+        BlockBuilder maxBuilder = DOUBLE.createBlockBuilder(null, 1);
+        BlockBuilder sumBuilder = DOUBLE.createBlockBuilder(null, 1);
+        BlockBuilder minBuilder = BIGINT.createBlockBuilder(null, 1);
+        if (max == null)
+        {
+            maxBuilder.appendNull();
+            sumBuilder.appendNull();
+        }
+        else
+        {
+            DOUBLE.writeDouble(maxBuilder, max);
+            DOUBLE.writeDouble(sumBuilder, sum);
+        }
+        if (min == null)
+        {
+            minBuilder.appendNull();
+        }
+        else
+        {
+            BIGINT.writeLong(minBuilder, min);
+        }
+        return new Page(1, countBuilder.build(), maxBuilder.build(), sumBuilder.build(), minBuilder.build());
+    }
+
+    private static Page readAll(ConnectorPageSource source, int expectedPages) throws IOException
+    {
+        Page last = null;
+        int numPages = 0;
+        while (!source.isFinished())
+        {
+            Page page = source.getNextPage();
+            if (page != null)
+            {
+                last = page;
+                numPages++;
+            }
+        }
+        source.close();
+        assert numPages == expectedPages;
+        return last;
+    }
+
+    @Test
+    public void testDefaultRowOnEmptyInput() throws IOException
+    {
+        List<ConnectorPageSource> sources = ImmutableList.of(
+                new FixedPageSource(ImmutableList.of()), new FixedPageSource(ImmutableList.of()));
+        // the result columns are output in a different order from the aggregation.
+        Page page = readAll(new PixelsGlobalAggrPageSource(AGGR_HANDLE,
+                ImmutableList.of(MAX_COLUMN, COUNT_COLUMN), sources), 1);
+        assert page.getPositionCount() == 1;
+        assert page.getBlock(0).isNull(0);
+        assert !page.getBlock(1).isNull(0);
+        assert BIGINT.getLong(page.getBlock(1), 0) == 0L;
+    }
+
+    @Test
+    public void testNoDefaultRowOnNonEmptyInput() throws IOException
+    {
+        List<ConnectorPageSource> sources = ImmutableList.of(new FixedPageSource(ImmutableList.of()),
+                new FixedPageSource(ImmutableList.of(createWorkerPage(42L, 9.5, 100.0, 3L))));
+
+        Page page = readAll(new PixelsGlobalAggrPageSource(AGGR_HANDLE,
+                ImmutableList.of(COUNT_COLUMN, MAX_COLUMN, SUM_COLUMN, MIN_COLUMN), sources), 1);
+        assert page.getPositionCount() == 1;
+        assert BIGINT.getLong(page.getBlock(0), 0) == 42L;
+        assert DOUBLE.getDouble(page.getBlock(1), 0) == 9.5;
+        assert DOUBLE.getDouble(page.getBlock(2), 0) == 100.0;
+        assert BIGINT.getLong(page.getBlock(3), 0) == 3L;
+    }
+
+    @Test
+    public void testMergeWorkerOutputs() throws IOException
+    {
+        // each final aggregation worker outputs the aggregation result of its partition.
+        List<ConnectorPageSource> sources = ImmutableList.of(
+                new FixedPageSource(ImmutableList.of(createWorkerPage(3L, 9.5, 20.0, 7L))),
+                new FixedPageSource(ImmutableList.of()),
+                new FixedPageSource(ImmutableList.of(createWorkerPage(0L, null, null, -2L))),
+                new FixedPageSource(ImmutableList.of(createWorkerPage(2L, 12.5, 1.5, null))),
+                new FixedPageSource(ImmutableList.of(createWorkerPage(5L, Double.NaN, 2.5, 4L))));
+
+        Page page = readAll(new PixelsGlobalAggrPageSource(AGGR_HANDLE,
+                ImmutableList.of(COUNT_COLUMN, MAX_COLUMN, SUM_COLUMN, MIN_COLUMN), sources), 1);
+        assert page.getPositionCount() == 1;
+        assert BIGINT.getLong(page.getBlock(0), 0) == 10L;
+        // NaN is ignored by max.
+        assert DOUBLE.getDouble(page.getBlock(1), 0) == 12.5;
+        assert DOUBLE.getDouble(page.getBlock(2), 0) == 24.0;
+        assert BIGINT.getLong(page.getBlock(3), 0) == -2L;
+    }
+
+    @Test
+    public void testMergeNullResults() throws IOException
+    {
+        // no worker has a non-null price, count is 0 and the other results are null.
+        List<ConnectorPageSource> sources = ImmutableList.of(
+                new FixedPageSource(ImmutableList.of(createWorkerPage(0L, null, null, 1L))),
+                new FixedPageSource(ImmutableList.of(createWorkerPage(0L, null, null, null))));
+
+        Page page = readAll(new PixelsGlobalAggrPageSource(AGGR_HANDLE,
+                ImmutableList.of(COUNT_COLUMN, MAX_COLUMN, SUM_COLUMN, MIN_COLUMN), sources), 1);
+        assert page.getPositionCount() == 1;
+        assert BIGINT.getLong(page.getBlock(0), 0) == 0L;
+        assert page.getBlock(1).isNull(0);
+        assert page.getBlock(2).isNull(0);
+        assert BIGINT.getLong(page.getBlock(3), 0) == 1L;
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2026 PixelsDB.
+ *
+ * This file is part of Pixels.
+ *
+ * Pixels is free software: you can redistribute it and/or modify
+ * it under the terms of the Affero GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * Pixels is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * Affero GNU General Public License for more details.
+ *
+ * You should have received a copy of the Affero GNU General Public
+ * License along with Pixels.  If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package io.pixelsdb.pixels.trino;
+
+import io.pixelsdb.pixels.core.PixelsReader;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+public class TestPixelsReaderOpenAhead
+{
+    /**
+     * The background tasks are queued and run by the test, so that the opening is deterministic.
+     */
+    private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+    private final Executor executor = tasks::add;
+    private final List<Integer> openedPaths = new ArrayList<>();
+    private final Set<Integer> closedPaths = new HashSet<>();
+    private final List<PixelsReader> readers = new ArrayList<>();
+
+    private void runTasks()
+    {
+        while (!tasks.isEmpty())
+        {
+            tasks.poll().run();
+        }
+    }
+
+    /**
+     * Open a fake reader of the path, which only records that it is closed.
+     */
+    private PixelsReader openReader(int pathIndex) throws IOException
+    {
+        if (pathIndex < 0)
+        {
+            throw new IOException("failed to open path " + pathIndex);
+        }
+        openedPaths.add(pathIndex);
+        PixelsReader reader = (PixelsReader) Proxy.newProxyInstance(PixelsReader.class.getClassLoader(),
+                new Class<?>[] {PixelsReader.class}, (proxy, method, args) -> {
+                    switch (method.getName())
+                    {
+                        case "close":
+                            closedPaths.add(pathIndex);
+                            return null;
+                        case "hashCode":
+                            return pathIndex;
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return "reader-" + pathIndex;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+        while (readers.size() <= pathIndex)
+        {
+            readers.add(null);
+        }
+        readers.set(pathIndex, reader);
+        return reader;
+    }
+
+    @Test
+    public void testOpenAhead() throws IOException
+    {
+        PixelsReaderOpenAhead openAhead = new PixelsReaderOpenAhead(executor, this::openReader, 3);
+
+        // the first reader is opened synchronously.
+        PixelsReader reader = openAhead.take(0);
+        assert reader == readers.get(0) && tasks.isEmpty();
+
+        // at most two readers are opened ahead besides the current one.
+        openAhead.openAhead(4);
+        assert openAhead.getNumPendingReaders() == 2 && tasks.size() == 2;
+        assert openedPaths.size() == 1;
+        runTasks();
+        assert openedPaths.equals(List.of(0, 1, 2));
+
+        assert openAhead.take(1) == readers.get(1);
+        openAhead.openAhead(4);
+        assert tasks.size() == 1;
+        runTasks();
+        assert openAhead.take(2) == readers.get(2);
+        openAhead.openAhead(4);
+        assert tasks.isEmpty() : "there is no more path to open";
+        assert openAhead.take(3) == readers.get(3);
+        assert openedPaths.equals(List.of(0, 1, 2, 3));
+        assert closedPaths.isEmpty() : "the taken readers are closed by the page source";
+    }
+
+    @Test
+    public void testOpenAheadDisabled() throws IOException
+    {
+        PixelsReaderOpenAhead openAhead = new PixelsReaderOpenAhead(executor, this::openReader, 1);
+        for (int i = 0; i < 3; ++i)
+        {
+            assert openAhead.take(i) == readers.get(i);
+            openAhead.openAhead(3);
+            assert tasks.isEmpty() && openAhead.getNumPendingReaders() == 0;
+        }
+    }
+
+    @Test
+    public void testClose() throws IOException
+    {
+        PixelsReaderOpenAhead openAhead = new PixelsReaderOpenAhead(executor, this::openReader, 4);
+        openAhead.take(0);
+        openAhead.openAhead(4);
+        assert tasks.size() == 3;
+        // open the reader of path 1, the readers of path 2 and 3 are not opened yet.
+        tasks.poll().run();
+
+        openAhead.close();
+        assert openAhead.getNumPendingReaders() == 0;
+        assert closedPaths.equals(Set.of(1)) : "the reader opened ahead but not taken is not closed";
+        runTasks();
+        assert openedPaths.equals(List.of(0, 1)) : "the readers are opened after close";
+
+        openAhead.openAhead(4);
+        assert tasks.isEmpty();
+    }
+
+    @Test
+    public void testTakeOutOfOrder() throws IOException
+    {
+        PixelsReaderOpenAhead openAhead = new PixelsReaderOpenAhead(executor, this::openReader, 3);
+        openAhead.take(0);
+        openAhead.openAhead(4);
+        runTasks();
+        try
+        {
+            openAhead.take(2);
+            assert false : "path 2 is taken before path 1";
+        } catch (IllegalStateException e)
+        {
+            assert e.getMessage().equals("path 2 is taken while path 1 is opened ahead");
+        }
+        // the pending readers are kept.
+        assert openAhead.getNumPendingReaders() == 2;
+        assert openAhead.take(1) == readers.get(1);
+        assert openAhead.take(2) == readers.get(2);
+    }
+
+    @Test
+    public void testCloseWhileTaking() throws Exception
+    {
+        PixelsReaderOpenAhead openAhead = new PixelsReaderOpenAhead(executor, this::openReader, 2);
+        openAhead.take(0);
+        openAhead.openAhead(2);
+        assert tasks.size() == 1;
+
+        // the reader of path 1 is not opened yet, so that take(1) waits for it.
+        CompletableFuture<PixelsReader> taken = CompletableFuture.supplyAsync(() -> {
+            try
+            {
+                return openAhead.take(1);
+            } catch (IOException e)
+            {
+                throw new CompletionException(e);
+            }
+        });
+        while (openAhead.getNumPendingReaders() > 0)
+        {
+            Thread.sleep(1);
+        }
+        // close() is not blocked by the waiting take(1).
+        openAhead.close();
+        runTasks();
+        try
+        {
+            taken.join();
+            assert false : "the reader is opened after close";
+        } catch (CompletionException e)
+        {
+            assert e.getCause() instanceof NullPointerException;
+        }
+        assert openedPaths.equals(List.of(0));
+    }
+
+    @Test
+    public void testFailure()
+    {
+        // the reader of the second path fails to open.
+        PixelsReaderOpenAhead openAhead = new PixelsReaderOpenAhead(executor,
+                pathIndex -> openReader(pathIndex == 1 ? -1 : pathIndex), 2);
+        try
+        {
+            openAhead.take(0);
+            openAhead.openAhead(2);
+            runTasks();
+        } catch (IOException e)
+        {
+            assert false : "the first reader fails to open";
+        }
+        try
+        {
+            openAhead.take(1);
+            assert false : "the failure of opening ahead is not thrown";
+        } catch (IOException e)
+        {
+            assert e.getMessage().equals("failed to open path -1");
+        }
+    }
+}
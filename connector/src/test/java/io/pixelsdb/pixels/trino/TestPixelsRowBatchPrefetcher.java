@@ -0,0 +1,178 @@
+/*
+ * Copyright 2026 PixelsDB.
+ *
+ * This file is part of Pixels.
+ *
+ * Pixels is free software: you can redistribute it and/or modify
+ * it under the terms of the Affero GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * Pixels is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * Affero GNU General Public License for more details.
+ *
+ * You should have received a copy of the Affero GNU General Public
+ * License along with Pixels.  If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package io.pixelsdb.pixels.trino;
+
+import io.pixelsdb.pixels.core.vector.LongColumnVector;
+import io.pixelsdb.pixels.core.vector.VectorizedRowBatch;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+public class TestPixelsRowBatchPrefetcher
+{
+    /**
+     * A fake record reader that returns the given number of row batches.
+     */
+    private static class FakeRowBatchSupplier implements PixelsRowBatchPrefetcher.RowBatchSupplier
+    {
+        private final int numBatches;
+        private final boolean fail;
+        private int numCalls = 0;
+
+        FakeRowBatchSupplier(int numBatches, boolean fail)
+        {
+            this.numBatches = numBatches;
+            this.fail = fail;
+        }
+
+        @Override
+        public VectorizedRowBatch next() throws IOException
+        {
+            if (numCalls++ >= numBatches)
+            {
+                if (fail)
+                {
+                    throw new IOException("failed to read row batch");
+                }
+                return null;
+            }
+            VectorizedRowBatch rowBatch = new VectorizedRowBatch(1, 16);
+            LongColumnVector vector = new LongColumnVector(16);
+            vector.vector[0] = numCalls;
+            rowBatch.cols[0] = vector;
+            rowBatch.size = 16;
+            return rowBatch;
+        }
+    }
+
+    /**
+     * The background tasks are queued and run by the test, so that the filling is deterministic.
+     */
+    private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+    private final Executor executor = tasks::add;
+
+    private void runTasks()
+    {
+        while (!tasks.isEmpty())
+        {
+            tasks.poll().run();
+        }
+    }
+
+    @Test
+    public void testFill() throws IOException
+    {
+        FakeRowBatchSupplier supplier = new FakeRowBatchSupplier(5, false);
+        PixelsRowBatchPrefetcher prefetcher = new PixelsRowBatchPrefetcher(executor, supplier, 2);
+
+        // nothing is read until the consumer asks for a row batch.
+        assert tasks.isEmpty() && supplier.numCalls == 0;
+        CompletableFuture<?> blocked = prefetcher.isBlocked();
+        assert !blocked.isDone() && tasks.size() == 1;
+        runTasks();
+        assert blocked.isDone();
+        assert supplier.numCalls == 2 : "the reading stops when the buffer is full";
+
+        for (long i = 1; i <= 5; ++i)
+        {
+            prefetcher.isBlocked();
+            runTasks();
+            VectorizedRowBatch rowBatch = prefetcher.poll();
+            assert rowBatch != null;
+            assert ((LongColumnVector) rowBatch.cols[0]).vector[0] == i;
+        }
+        runTasks();
+        assert prefetcher.poll() == null;
+        assert prefetcher.isFinished();
+        assert prefetcher.isBlocked().isDone();
+        assert supplier.numCalls == 6;
+    }
+
+    @Test
+    public void testMemoryBound() throws IOException
+    {
+        FakeRowBatchSupplier supplier = new FakeRowBatchSupplier(10, false);
+        PixelsRowBatchPrefetcher prefetcher = new PixelsRowBatchPrefetcher(executor, supplier, 3);
+        prefetcher.isBlocked();
+        runTasks();
+        assert supplier.numCalls == 3;
+
+        long batchSize = PixelsRowBatchPrefetcher.estimateSizeInBytes(supplier.next());
+        assert batchSize > 16 * Long.BYTES;
+        assert prefetcher.getBufferedBytes() == 3 * batchSize;
+
+        // the buffer is full, no more row batch is read until one is consumed.
+        prefetcher.isBlocked();
+        assert tasks.isEmpty();
+        assert prefetcher.poll() != null;
+        assert prefetcher.getBufferedBytes() == 2 * batchSize;
+        runTasks();
+        assert prefetcher.getBufferedBytes() == 3 * batchSize;
+    }
+
+    @Test
+    public void testClose() throws IOException
+    {
+        FakeRowBatchSupplier supplier = new FakeRowBatchSupplier(5, false);
+        PixelsRowBatchPrefetcher prefetcher = new PixelsRowBatchPrefetcher(executor, supplier, 2);
+        CompletableFuture<?> blocked = prefetcher.isBlocked();
+
+        // close while the background read is pending, its result is discarded.
+        prefetcher.close();
+        assert blocked.isDone();
+        runTasks();
+        assert supplier.numCalls == 0;
+        assert prefetcher.isFinished();
+        assert prefetcher.poll() == null;
+        assert prefetcher.getBufferedBytes() == 0;
+        assert tasks.isEmpty();
+
+        PixelsRowBatchPrefetcher filled = new PixelsRowBatchPrefetcher(executor, supplier, 2);
+        filled.isBlocked();
+        runTasks();
+        assert filled.getBufferedBytes() > 0;
+        filled.close();
+        assert filled.getBufferedBytes() == 0;
+        assert filled.poll() == null;
+        assert tasks.isEmpty();
+    }
+
+    @Test
+    public void testFailure()
+    {
+        FakeRowBatchSupplier supplier = new FakeRowBatchSupplier(1, true);
+        PixelsRowBatchPrefetcher prefetcher = new PixelsRowBatchPrefetcher(executor, supplier, 4);
+        prefetcher.isBlocked();
+        runTasks();
+        assert prefetcher.hasFailed();
+        assert prefetcher.isBlocked().isDone();
+        try
+        {
+            prefetcher.poll();
+            assert false : "the failure of the background reading is not thrown";
+        } catch (IOException e)
+        {
+            assert e.getMessage().equals("failed to read row batch");
+        }
+    }
+}
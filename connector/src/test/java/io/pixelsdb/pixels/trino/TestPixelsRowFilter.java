@@ -0,0 +1,128 @@
+/*
+ * Copyright 2026 PixelsDB.
+ *
+ * This file is part of Pixels.
+ *
+ * Pixels is free software: you can redistribute it and/or modify
+ * it under the terms of the Affero GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * Pixels is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * Affero GNU General Public License for more details.
+ *
+ * You should have received a copy of the Affero GNU General Public
+ * License along with Pixels.  If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package io.pixelsdb.pixels.trino;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.pixelsdb.pixels.core.TypeDescription;
+import io.pixelsdb.pixels.core.utils.Bitmap;
+import io.pixelsdb.pixels.core.vector.VectorizedRowBatch;
+import io.trino.spi.predicate.Domain;
+import io.trino.spi.predicate.Range;
+import io.trino.spi.predicate.TupleDomain;
+import io.trino.spi.predicate.ValueSet;
+import org.junit.Test;
+
+import java.util.List;
+
+import static io.pixelsdb.pixels.trino.PixelsTestData.createRowBatch;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.DoubleType.DOUBLE;
+
+public class TestPixelsRowFilter
+{
+    private static final PixelsColumnHandle KEY = new PixelsColumnHandle("pixels", "test", "t", "key", "key",
+            BIGINT, TypeDescription.Category.LONG, "", 0);
+    private static final PixelsColumnHandle PRICE = new PixelsColumnHandle("pixels", "test", "t", "price", "price",
+            DOUBLE, TypeDescription.Category.DOUBLE, "", 1);
+
+    private static void assertFiltered(VectorizedRowBatch rowBatch, TupleDomain<PixelsColumnHandle> constraint,
+                                       boolean... expected)
+    {
+        PixelsRowFilter filter = PixelsRowFilter.create("test", "t", new String[] {"key", "price"},
+                ImmutableList.of(KEY, PRICE), constraint).get();
+        Bitmap result = new Bitmap(rowBatch.size, false);
+        Bitmap tmp = new Bitmap(rowBatch.size, false);
+        filter.doFilter(rowBatch, result, tmp);
+        for (int i = 0; i < expected.length; ++i)
+        {
+            assert result.get(i) == expected[i] : "row " + i;
+        }
+    }
+
+    @Test
+    public void testLongRanges()
+    {
+        VectorizedRowBatch rowBatch = createRowBatch(new Long[] {1L, 5L, null, 10L, 11L, 20L},
+                new Double[] {0.0, 0.0, 0.0, 0.0, 0.0, 0.0});
+
+        // key > 1 and key <= 10
+        assertFiltered(rowBatch, TupleDomain.withColumnDomains(ImmutableMap.of(KEY,
+                Domain.create(ValueSet.ofRanges(Range.range(BIGINT, 1L, false, 10L, true)), false))),
+                false, true, false, true, false, false);
+
+        // key in (1, 11, 20) or key is null
+        List<Range> values = ImmutableList.of(Range.equal(BIGINT, 1L), Range.equal(BIGINT, 11L), Range.equal(BIGINT, 20L));
+        assertFiltered(rowBatch, TupleDomain.withColumnDomains(ImmutableMap.of(KEY,
+                Domain.create(ValueSet.ofRanges(values), true))),
+                true, false, true, false, true, true);
+    }
+
+    @Test
+    public void testDoubleRanges()
+    {
+        VectorizedRowBatch rowBatch = createRowBatch(new Long[] {1L, 2L, 3L, 4L, 5L},
+                new Double[] {-1.5, 0.0, 2.5, Double.NaN, 100.0});
+
+        // price >= 0 and price < 100
+        assertFiltered(rowBatch, TupleDomain.withColumnDomains(ImmutableMap.of(PRICE,
+                Domain.create(ValueSet.ofRanges(Range.range(DOUBLE, 0.0, true, 100.0, false)), false))),
+                false, true, true, false, false);
+
+        // price > 0 and key < 5
+        assertFiltered(rowBatch, TupleDomain.withColumnDomains(ImmutableMap.of(
+                PRICE, Domain.create(ValueSet.ofRanges(Range.greaterThan(DOUBLE, 0.0)), false),
+                KEY, Domain.create(ValueSet.ofRanges(Range.lessThan(BIGINT, 5L)), false))),
+                false, false, true, false, false);
+
+        // price in (-1.5, 2.5) or price > 50
+        List<Range> ranges = ImmutableList.of(Range.equal(DOUBLE, -1.5), Range.equal(DOUBLE, 2.5),
+                Range.greaterThan(DOUBLE, 50.0));
+        assertFiltered(rowBatch, TupleDomain.withColumnDomains(ImmutableMap.of(PRICE,
+                Domain.create(ValueSet.ofRanges(ranges), false))),
+                true, false, true, false, true);
+    }
+
+    @Test
+    public void testNaN()
+    {
+        VectorizedRowBatch rowBatch = createRowBatch(new Long[] {1L, 2L, null, 4L, 5L},
+                new Double[] {Double.NaN, null, 1.0, Double.NEGATIVE_INFINITY, Double.NaN});
+
+        // price is not null, NaN is not null
+        assertFiltered(rowBatch, TupleDomain.withColumnDomains(ImmutableMap.of(PRICE, Domain.notNull(DOUBLE))),
+                true, false, true, true, true);
+
+        // price is not null and key is not null
+        assertFiltered(rowBatch, TupleDomain.withColumnDomains(ImmutableMap.of(
+                PRICE, Domain.notNull(DOUBLE), KEY, Domain.notNull(BIGINT))),
+                true, false, false, true, true);
+
+        // price > 0 or price is null, NaN is not greater than any value
+        assertFiltered(rowBatch, TupleDomain.withColumnDomains(ImmutableMap.of(PRICE,
+                Domain.create(ValueSet.ofRanges(Range.greaterThan(DOUBLE, 0.0)), true))),
+                false, true, true, false, false);
+
+        // price <= 1, NaN is not less than any value
+        assertFiltered(rowBatch, TupleDomain.withColumnDomains(ImmutableMap.of(PRICE,
+                Domain.create(ValueSet.ofRanges(Range.lessThanOrEqual(DOUBLE, 1.0)), false))),
+                false, false, true, true, false);
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2026 PixelsDB.
+ *
+ * This file is part of Pixels.
+ *
+ * Pixels is free software: you can redistribute it and/or modify
+ * it under the terms of the Affero GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * Pixels is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * Affero GNU General Public License for more details.
+ *
+ * You should have received a copy of the Affero GNU General Public
+ * License along with Pixels.  If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package io.pixelsdb.pixels.trino;
+
+import com.google.common.collect.ImmutableList;
+import io.pixelsdb.pixels.common.physical.Storage;
+import io.pixelsdb.pixels.core.TypeDescription;
+import io.pixelsdb.pixels.planner.plan.logical.Table;
+import io.trino.spi.predicate.TupleDomain;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+
+import static io.pixelsdb.pixels.trino.PixelsSplitManager.SPLIT_CHUNK_SIZE;
+import static io.trino.spi.type.BigintType.BIGINT;
+
+public class TestPixelsSplitManager
+{
+    private static final PixelsColumnHandle KEY = new PixelsColumnHandle("pixels", "test", "t", "key", "key",
+            BIGINT, TypeDescription.Category.LONG, "", 0);
+    private static final PixelsTopNHandle TOP_N_HANDLE = new PixelsTopNHandle(KEY, true, 10);
+    private static final PixelsTableHandle TABLE_HANDLE = new PixelsTableHandle("pixels", "test", "t", "t",
+            ImmutableList.of(KEY), TupleDomain.all(), Table.TableType.BASE, null, null, Storage.Scheme.hdfs,
+            ImmutableList.of("/test/t"), OptionalLong.of(10), TOP_N_HANDLE);
+
+    private static PixelsSplit createSplit(long splitId)
+    {
+        return new PixelsSplit(0, splitId, "pixels", "test", "t", "hdfs",
+                ImmutableList.of("/test/t/" + splitId + ".pxl"), ImmutableList.of(0), ImmutableList.of(1),
+                false, false, ImmutableList.of(), ImmutableList.of(), ImmutableList.of(), TupleDomain.all(),
+                false, false);
+    }
+
+    private static void assertChunk(List<PixelsSplit> chunk, long fromSplitId, long toSplitId)
+    {
+        assert chunk.size() == toSplitId - fromSplitId;
+        boolean[] emitted = new boolean[chunk.size()];
+        for (PixelsSplit split : chunk)
+        {
+            // the splits in a chunk are shuffled.
+            long splitId = split.getSplitId();
+            assert splitId >= fromSplitId && splitId < toSplitId && !emitted[(int) (splitId - fromSplitId)];
+            emitted[(int) (splitId - fromSplitId)] = true;
+            assert split.getLimit().equals(OptionalLong.of(10));
+            assert split.getTopNHandle() == TOP_N_HANDLE;
+        }
+    }
+
+    @Test
+    public void testEmitChunks()
+    {
+        List<List<PixelsSplit>> chunks = new ArrayList<>();
+        PixelsSplitManager.ScanSplitEmitter emitter = new PixelsSplitManager.ScanSplitEmitter(TABLE_HANDLE,
+                chunks::add);
+        int numSplits = SPLIT_CHUNK_SIZE * 2 + 3;
+        for (int i = 0; i < numSplits; ++i)
+        {
+            assert emitter.add(createSplit(i));
+            // a chunk is emitted as soon as it is full.
+            assert chunks.size() == (i + 1) / SPLIT_CHUNK_SIZE;
+        }
+        assert emitter.flush();
+        assert chunks.size() == 3;
+        assertChunk(chunks.get(0), 0, SPLIT_CHUNK_SIZE);
+        assertChunk(chunks.get(1), SPLIT_CHUNK_SIZE, SPLIT_CHUNK_SIZE * 2);
+        assertChunk(chunks.get(2), SPLIT_CHUNK_SIZE * 2, numSplits);
+
+        // flushing an empty chunk emits nothing.
+        assert emitter.flush();
+        assert chunks.size() == 3;
+    }
+
+    @Test
+    public void testStopWhenClosed()
+    {
+        List<List<PixelsSplit>> chunks = new ArrayList<>();
+        PixelsSplitManager.ScanSplitEmitter emitter = new PixelsSplitManager.ScanSplitEmitter(TABLE_HANDLE,
+                chunk -> {
+                    chunks.add(chunk);
+                    // the split source is closed.
+                    return false;
+                });
+        for (int i = 0; i < SPLIT_CHUNK_SIZE - 1; ++i)
+        {
+            assert emitter.add(createSplit(i));
+        }
+        assert !emitter.add(createSplit(SPLIT_CHUNK_SIZE - 1));
+        assert !emitter.add(createSplit(SPLIT_CHUNK_SIZE));
+        assert !emitter.flush();
+        assert chunks.size() == 1;
+    }
+
+    private static void assertRanges(List<PixelsSplitManager.RowGroupRange> ranges, int... startsAndLengths)
+    {
+        assert ranges.size() * 2 == startsAndLengths.length;
+        for (int i = 0; i < ranges.size(); ++i)
+        {
+            assert ranges.get(i).getStart() == startsAndLengths[i * 2] : "start of range " + i;
+            assert ranges.get(i).getLength() == startsAndLengths[i * 2 + 1] : "length of range " + i;
+        }
+    }
+
+    @Test
+    public void testRowGroupRanges()
+    {
+        // the row groups are not pruned.
+        assertRanges(PixelsSplitManager.getRowGroupRanges(null, 10, 4), 0, 4, 4, 4, 8, 4);
+
+        // the unmatched row groups at the beginning and the end of each range are trimmed.
+        boolean[] matches = {false, true, true, false, false, false, true, false, true, true};
+        assertRanges(PixelsSplitManager.getRowGroupRanges(matches, matches.length, 4), 1, 2, 6, 4);
+
+        matches = new boolean[] {true, false, true, true, true};
+        assertRanges(PixelsSplitManager.getRowGroupRanges(matches, matches.length, 2), 0, 1, 2, 2, 4, 1);
+
+        // no row group matches the filter.
+        assertRanges(PixelsSplitManager.getRowGroupRanges(new boolean[4], 4, 2));
+    }
+}
@@ -0,0 +1,301 @@
+/*
+ * Copyright 2026 PixelsDB.
+ *
+ * This file is part of Pixels.
+ *
+ * Pixels is free software: you can redistribute it and/or modify
+ * it under the terms of the Affero GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * Pixels is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * Affero GNU General Public License for more details.
+ *
+ * You should have received a copy of the Affero GNU General Public
+ * License along with Pixels.  If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package io.pixelsdb.pixels.trino;
+
+import com.google.common.collect.ImmutableList;
+import io.pixelsdb.pixels.core.TypeDescription;
+import io.pixelsdb.pixels.trino.exception.PixelsErrorCode;
+import io.trino.spi.TrinoException;
+import io.trino.spi.connector.ColumnHandle;
+import io.trino.spi.connector.ConnectorSplit;
+import io.trino.spi.connector.ConnectorSplitSource.ConnectorSplitBatch;
+import io.trino.spi.connector.DynamicFilter;
+import io.trino.spi.predicate.Domain;
+import io.trino.spi.predicate.TupleDomain;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.trino.spi.type.BigintType.BIGINT;
+
+public class TestPixelsSplitSource
+{
+    private static final PixelsColumnHandle KEY = new PixelsColumnHandle("pixels", "test", "t", "key", "key",
+            BIGINT, TypeDescription.Category.LONG, "", 0);
+
+    /**
+     * A dynamic filter that is completed by the test.
+     */
+    private static class TestingDynamicFilter implements DynamicFilter
+    {
+        private final CompletableFuture<?> blocked = new CompletableFuture<>();
+        private volatile TupleDomain<ColumnHandle> predicate = TupleDomain.all();
+
+        void complete(TupleDomain<ColumnHandle> predicate)
+        {
+            this.predicate = predicate;
+            this.blocked.complete(null);
+        }
+
+        @Override
+        public Set<ColumnHandle> getColumnsCovered()
+        {
+            return Set.of(KEY);
+        }
+
+        @Override
+        public CompletableFuture<?> isBlocked()
+        {
+            return blocked;
+        }
+
+        @Override
+        public boolean isComplete()
+        {
+            return blocked.isDone();
+        }
+
+        @Override
+        public boolean isAwaitable()
+        {
+            return !blocked.isDone();
+        }
+
+        @Override
+        public TupleDomain<ColumnHandle> getCurrentPredicate()
+        {
+            return predicate;
+        }
+    }
+
+    private static PixelsSplit createSplit(long splitId)
+    {
+        return new PixelsSplit(0, splitId, "pixels", "test", "t", "file",
+                ImmutableList.of("/test/t/" + splitId + ".pxl"), ImmutableList.of(0), ImmutableList.of(1),
+                false, false, ImmutableList.of(), ImmutableList.of(), ImmutableList.of(), TupleDomain.all(),
+                false, false);
+    }
+
+    private static List<PixelsSplit> createSplits(long from, long to)
+    {
+        List<PixelsSplit> splits = new ArrayList<>();
+        for (long i = from; i < to; ++i)
+        {
+            splits.add(createSplit(i));
+        }
+        return splits;
+    }
+
+    private static List<Long> getSplitIds(ConnectorSplitBatch batch)
+    {
+        List<Long> splitIds = new ArrayList<>();
+        for (ConnectorSplit split : batch.getSplits())
+        {
+            splitIds.add(((PixelsSplit) split).getSplitId());
+        }
+        return splitIds;
+    }
+
+    /**
+     * Get the next non-empty batch, the empty batches are returned while the split source is waiting.
+     */
+    private static ConnectorSplitBatch getNextBatch(PixelsSplitSource splitSource, int maxSize) throws Exception
+    {
+        while (true)
+        {
+            ConnectorSplitBatch batch = splitSource.getNextBatch(maxSize).get(10, TimeUnit.SECONDS);
+            if (!batch.getSplits().isEmpty() || batch.isNoMoreSplits())
+            {
+                return batch;
+            }
+        }
+    }
+
+    @Test
+    public void testGivenSplits() throws Exception
+    {
+        PixelsSplitSource splitSource = new PixelsSplitSource(createSplits(0, 3));
+        ConnectorSplitBatch batch = getNextBatch(splitSource, 2);
+        assert getSplitIds(batch).equals(List.of(0L, 1L)) && !batch.isNoMoreSplits();
+        batch = getNextBatch(splitSource, 2);
+        assert getSplitIds(batch).equals(List.of(2L)) && batch.isNoMoreSplits();
+        assert splitSource.isFinished();
+    }
+
+    @Test
+    public void testBackgroundProducer() throws Exception
+    {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch firstChunkConsumed = new CountDownLatch(1);
+        try
+        {
+            PixelsSplitSource splitSource = new PixelsSplitSource(executor, sink -> {
+                sink.test(createSplits(0, 2));
+                firstChunkConsumed.await();
+                sink.test(createSplits(2, 5));
+            }, DynamicFilter.EMPTY, 0, (split, constraint) -> true, Runnable::run);
+
+            // the first chunk is returned while the producer is still generating the splits.
+            ConnectorSplitBatch batch = getNextBatch(splitSource, 10);
+            assert getSplitIds(batch).equals(List.of(0L, 1L)) && !batch.isNoMoreSplits();
+            CompletableFuture<ConnectorSplitBatch> pending = splitSource.getNextBatch(10);
+            assert !pending.isDone() : "the split source does not wait for the producer";
+            firstChunkConsumed.countDown();
+            assert pending.get(10, TimeUnit.SECONDS).getSplits().isEmpty();
+
+            batch = getNextBatch(splitSource, 2);
+            assert getSplitIds(batch).equals(List.of(2L, 3L)) && !batch.isNoMoreSplits();
+            batch = getNextBatch(splitSource, 2);
+            assert getSplitIds(batch).equals(List.of(4L));
+            if (!batch.isNoMoreSplits())
+            {
+                // the producer may not be finished when the last split is returned.
+                batch = getNextBatch(splitSource, 2);
+                assert batch.getSplits().isEmpty() && batch.isNoMoreSplits();
+            }
+        } finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testProducerFailure() throws Exception
+    {
+        ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+        PixelsSplitSource splitSource = new PixelsSplitSource(tasks::add, sink -> {
+            throw new IOException("failed to generate splits");
+        }, DynamicFilter.EMPTY, 0, (split, constraint) -> true, Runnable::run);
+        tasks.poll().run();
+        assert !splitSource.isFinished();
+        try
+        {
+            splitSource.getNextBatch(10).get();
+            assert false : "the failure of the producer is not thrown";
+        } catch (ExecutionException e)
+        {
+            // the failure is reported as a Trino error.
+            assert e.getCause() instanceof TrinoException;
+            assert ((TrinoException) e.getCause()).getErrorCode()
+                    .equals(PixelsErrorCode.PIXELS_SQL_EXECUTE_ERROR.toErrorCode());
+            assert e.getCause().getCause() instanceof IOException;
+        }
+
+        // the Trino errors thrown by the producer are not wrapped.
+        TrinoException metastoreError = new TrinoException(
+                PixelsErrorCode.PIXELS_METASTORE_ERROR, "failed to get scan splits");
+        splitSource = new PixelsSplitSource(tasks::add, sink -> {
+            throw metastoreError;
+        }, DynamicFilter.EMPTY, 0, (split, constraint) -> true, Runnable::run);
+        tasks.poll().run();
+        try
+        {
+            splitSource.getNextBatch(10).get();
+            assert false : "the failure of the producer is not thrown";
+        } catch (ExecutionException e)
+        {
+            assert e.getCause() == metastoreError;
+        }
+    }
+
+    @Test
+    public void testCloseStopsProducer()
+    {
+        ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+        AtomicInteger numChunks = new AtomicInteger();
+        PixelsSplitSource splitSource = new PixelsSplitSource(tasks::add, sink -> {
+            while (sink.test(createSplits(0, 1)))
+            {
+                numChunks.incrementAndGet();
+            }
+        }, DynamicFilter.EMPTY, 0, (split, constraint) -> true, Runnable::run);
+        splitSource.close();
+        tasks.poll().run();
+        assert numChunks.get() == 0;
+        assert splitSource.isFinished();
+    }
+
+    @Test
+    public void testDynamicFilterWait() throws Exception
+    {
+        TestingDynamicFilter dynamicFilter = new TestingDynamicFilter();
+        ArrayDeque<Runnable> matchTasks = new ArrayDeque<>();
+        Executor matchExecutor = matchTasks::add;
+        PixelsSplitSource splitSource = new PixelsSplitSource(createSplits(0, 4), dynamicFilter,
+                TimeUnit.SECONDS.toMillis(10), (split, constraint) -> split.getSplitId() % 2 == 0, matchExecutor);
+
+        // no split is returned until the dynamic filter is completed.
+        CompletableFuture<ConnectorSplitBatch> waiting = splitSource.getNextBatch(10);
+        assert !waiting.isDone();
+        dynamicFilter.complete(TupleDomain.withColumnDomains(
+                Map.<ColumnHandle, Domain>of(KEY, Domain.singleValue(BIGINT, 2L))));
+        ConnectorSplitBatch batch = waiting.get(10, TimeUnit.SECONDS);
+        assert batch.getSplits().isEmpty() && !batch.isNoMoreSplits();
+
+        // the splits are matched on the match executor rather than the calling thread.
+        CompletableFuture<ConnectorSplitBatch> matching = splitSource.getNextBatch(10);
+        assert !matching.isDone() && matchTasks.size() == 4;
+        while (!matchTasks.isEmpty())
+        {
+            matchTasks.poll().run();
+        }
+        batch = matching.get(10, TimeUnit.SECONDS);
+        assert getSplitIds(batch).equals(List.of(0L, 2L)) && batch.isNoMoreSplits();
+    }
+
+    @Test
+    public void testDynamicFilterTimeout() throws Exception
+    {
+        TestingDynamicFilter dynamicFilter = new TestingDynamicFilter();
+        AtomicInteger numMatches = new AtomicInteger();
+        PixelsSplitSource splitSource = new PixelsSplitSource(createSplits(0, 2), dynamicFilter, 0,
+                (split, constraint) -> numMatches.incrementAndGet() < 0, Runnable::run);
+
+        // the dynamic filter is not waited for, and the splits are not matched against an all constraint.
+        ConnectorSplitBatch batch = splitSource.getNextBatch(10).get(10, TimeUnit.SECONDS);
+        assert getSplitIds(batch).equals(List.of(0L, 1L)) && batch.isNoMoreSplits();
+        assert numMatches.get() == 0;
+    }
+
+    @Test
+    public void testDynamicFilterMatchesNothing() throws Exception
+    {
+        TestingDynamicFilter dynamicFilter = new TestingDynamicFilter();
+        dynamicFilter.complete(TupleDomain.none());
+        PixelsSplitSource splitSource = new PixelsSplitSource(createSplits(0, 2), dynamicFilter,
+                TimeUnit.SECONDS.toMillis(10), (split, constraint) -> true, Runnable::run);
+        ConnectorSplitBatch batch = splitSource.getNextBatch(1).get(10, TimeUnit.SECONDS);
+        assert batch.getSplits().isEmpty() && batch.isNoMoreSplits();
+        assert splitSource.isFinished();
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2026 PixelsDB.
+ *
+ * This file is part of Pixels.
+ *
+ * Pixels is free software: you can redistribute it and/or modify
+ * it under the terms of the Affero GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * Pixels is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * Affero GNU General Public License for more details.
+ *
+ * You should have received a copy of the Affero GNU General Public
+ * License along with Pixels.  If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package io.pixelsdb.pixels.trino;
+
+import com.google.common.collect.ImmutableList;
+import io.trino.spi.Page;
+import org.junit.Test;
+
+import static io.pixelsdb.pixels.trino.PixelsTestData.createPage;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.DoubleType.DOUBLE;
+
+public class TestPixelsTopNCollector
+{
+    @Test
+    public void testAscendingNullsLast()
+    {
+        PixelsTopNCollector collector = new PixelsTopNCollector(ImmutableList.of(BIGINT, DOUBLE), 0, true, 3);
+        collector.add(createPage(new Long[] {5L, null, 9L}, new Double[] {0.5, 0.0, 0.9}));
+        collector.add(createPage(new Long[] {7L, 1L, 3L, 8L}, new Double[] {0.7, 0.1, 0.3, 0.8}));
+
+        Page page = collector.build();
+        assert page.getPositionCount() == 3;
+        long[] expected = new long[] {1L, 3L, 5L};
+        for (int i = 0; i < expected.length; ++i)
+        {
+            assert BIGINT.getLong(page.getBlock(0), i) == expected[i];
+            assert DOUBLE.getDouble(page.getBlock(1), i) == expected[i] / 10.0;
+        }
+    }
+
+    @Test
+    public void testDescendingOnDoubles()
+    {
+        PixelsTopNCollector collector = new PixelsTopNCollector(ImmutableList.of(BIGINT, DOUBLE), 1, false, 2);
+        collector.add(createPage(new Long[] {1L, 2L, 3L}, new Double[] {-1.5, 2.5, -0.0}));
+        collector.add(createPage(new Long[] {4L, null}, new Double[] {0.0, 7.25}));
+
+        Page page = collector.build();
+        assert page.getPositionCount() == 2;
+        assert DOUBLE.getDouble(page.getBlock(1), 0) == 7.25;
+        assert page.getBlock(0).isNull(0);
+        assert DOUBLE.getDouble(page.getBlock(1), 1) == 2.5;
+        assert BIGINT.getLong(page.getBlock(0), 1) == 2L;
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2026 PixelsDB.
+ *
+ * This file is part of Pixels.
+ *
+ * Pixels is free software: you can redistribute it and/or modify
+ * it under the terms of the Affero GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * Pixels is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * Affero GNU General Public License for more details.
+ *
+ * You should have received a copy of the Affero GNU General Public
+ * License along with Pixels.  If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package io.pixelsdb.pixels.trino;
+
+import com.google.common.collect.ImmutableList;
+import io.pixelsdb.pixels.trino.PixelsMetadata.SummarizedColumnStatistics;
+import io.trino.spi.predicate.Domain;
+import io.trino.spi.predicate.Range;
+import io.trino.spi.predicate.ValueSet;
+import io.trino.spi.statistics.ColumnStatistics;
+import io.trino.spi.statistics.DoubleRange;
+import org.junit.Test;
+
+import static io.trino.spi.type.BigintType.BIGINT;
+
+public class TestSummarizedColumnStatistics
+{
+    /**
+     * 20% nulls, 50 distinct values in [0, 100].
+     */
+    private static final SummarizedColumnStatistics KEY_STATISTICS =
+            new SummarizedColumnStatistics(800.0, 0.2, 50, true, 0.0, 100.0);
+
+    private static void assertClose(double actual, double expected)
+    {
+        assert Math.abs(actual - expected) < 1e-9 : "expected " + expected + " but was " + actual;
+    }
+
+    private static Domain rangeDomain(Range range, boolean nullAllowed)
+    {
+        return Domain.create(ValueSet.ofRanges(range), nullAllowed);
+    }
+
+    @Test
+    public void testRangeOutsideMinMax()
+    {
+        // key > 200
+        assertClose(KEY_STATISTICS.estimateSelectivity(BIGINT,
+                rangeDomain(Range.greaterThan(BIGINT, 200L), false)), 0.0);
+        // key between -50 and -10
+        assertClose(KEY_STATISTICS.estimateSelectivity(BIGINT,
+                rangeDomain(Range.range(BIGINT, -50L, true, -10L, true), false)), 0.0);
+        // key < 50, half of the non-null values
+        assertClose(KEY_STATISTICS.estimateSelectivity(BIGINT,
+                rangeDomain(Range.lessThan(BIGINT, 50L), false)), 0.4);
+        // key between -100 and 200 covers the whole range
+        assertClose(KEY_STATISTICS.estimateSelectivity(BIGINT,
+                rangeDomain(Range.range(BIGINT, -100L, true, 200L, true), false)), 0.8);
+    }
+
+    @Test
+    public void testSingleValue()
+    {
+        // key = 10, each of the 50 distinct values has the same frequency
+        assertClose(KEY_STATISTICS.estimateSelectivity(BIGINT, Domain.singleValue(BIGINT, 10L)), 0.8 / 50);
+        // key = 1000 is out of the range
+        assertClose(KEY_STATISTICS.estimateSelectivity(BIGINT, Domain.singleValue(BIGINT, 1000L)), 0.0);
+        // key in (10, 20, 1000)
+        assertClose(KEY_STATISTICS.estimateSelectivity(BIGINT,
+                Domain.multipleValues(BIGINT, ImmutableList.of(10L, 20L, 1000L))), 2 * 0.8 / 50);
+
+        // the number of distinct values is unknown
+        SummarizedColumnStatistics unknownCardinality = new SummarizedColumnStatistics(
+                800.0, 0.2, 0, true, 0.0, 100.0);
+        assertClose(unknownCardinality.estimateSelectivity(BIGINT, Domain.singleValue(BIGINT, 10L)), 0.8 * 0.1);
+    }
+
+    @Test
+    public void testNullAllowed()
+    {
+        // key is null
+        assertClose(KEY_STATISTICS.estimateSelectivity(BIGINT, Domain.onlyNull(BIGINT)), 0.2);
+        // key is not null
+        assertClose(KEY_STATISTICS.estimateSelectivity(BIGINT, Domain.notNull(BIGINT)), 0.8);
+        // key < 50 or key is null
+        Domain domain = rangeDomain(Range.lessThan(BIGINT, 50L), true);
+        double selectivity = KEY_STATISTICS.estimateSelectivity(BIGINT, domain);
+        assertClose(selectivity, 0.6);
+
+        // a third of the matched rows are null
+        ColumnStatistics filtered = KEY_STATISTICS.filter(BIGINT, domain, selectivity)
+                .toColumnStatistics(600, selectivity);
+        assertClose(filtered.getNullsFraction().getValue(), 0.2 / 0.6);
+        assertClose(filtered.getDistinctValuesCount().getValue(), 25);
+        assert filtered.getRange().orElseThrow().equals(new DoubleRange(0.0, 50.0));
+
+        // the matched rows of 'key is null' are all null
+        filtered = KEY_STATISTICS.filter(BIGINT, Domain.onlyNull(BIGINT), 0.2).toColumnStatistics(200, 0.2);
+        assertClose(filtered.getNullsFraction().getValue(), 1.0);
+    }
+
+    @Test
+    public void testSingleValueRange()
+    {
+        // all the non-null values are 5
+        SummarizedColumnStatistics constant = new SummarizedColumnStatistics(800.0, 0.2, 1, true, 5.0, 5.0);
+        // key >= 0 matches all the non-null values
+        assertClose(constant.estimateSelectivity(BIGINT,
+                rangeDomain(Range.greaterThanOrEqual(BIGINT, 0L), false)), 0.8);
+        // key > 10 matches none of them
+        assertClose(constant.estimateSelectivity(BIGINT,
+                rangeDomain(Range.greaterThan(BIGINT, 10L), false)), 0.0);
+        // key = 5
+        assertClose(constant.estimateSelectivity(BIGINT, Domain.singleValue(BIGINT, 5L)), 0.8);
+    }
+
+    @Test
+    public void testClampDistinctValues()
+    {
+        // key < 50 keeps half of the 50 distinct values and narrows the range
+        Domain domain = rangeDomain(Range.lessThan(BIGINT, 50L), false);
+        double selectivity = KEY_STATISTICS.estimateSelectivity(BIGINT, domain);
+        SummarizedColumnStatistics filtered = KEY_STATISTICS.filter(BIGINT, domain, selectivity);
+
+        ColumnStatistics statistics = filtered.toColumnStatistics(1000, selectivity);
+        assertClose(statistics.getDistinctValuesCount().getValue(), 25);
+        assertClose(statistics.getNullsFraction().getValue(), 0.0);
+        assertClose(statistics.getDataSize().getValue(), 800.0 * 0.4);
+        assert statistics.getRange().orElseThrow().equals(new DoubleRange(0.0, 50.0));
+
+        // the number of distinct values can not exceed the row count, e.g., when limited
+        statistics = filtered.toColumnStatistics(10, selectivity);
+        assertClose(statistics.getDistinctValuesCount().getValue(), 10);
+
+        // a domain that matches no row
+        statistics = KEY_STATISTICS.filter(BIGINT, domain, 0.0).toColumnStatistics(0, 0.0);
+        assertClose(statistics.getDistinctValuesCount().getValue(), 0);
+        assert statistics.getRange().isEmpty();
+    }
+}
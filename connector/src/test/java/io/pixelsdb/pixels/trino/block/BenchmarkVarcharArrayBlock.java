@@ -0,0 +1,126 @@
+/*
+ * Copyright 2026 PixelsDB.
+ *
+ * This file is part of Pixels.
+ *
+ * Pixels is free software: you can redistribute it and/or modify
+ * it under the terms of the Affero GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * Pixels is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * Affero GNU General Public License for more details.
+ *
+ * You should have received a copy of the Affero GNU General Public
+ * License along with Pixels.  If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package io.pixelsdb.pixels.trino.block;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static io.airlift.slice.SizeOf.sizeOf;
+
+/**
+ * Measures the cost of building a {@link VarcharArrayBlock} and getting its retained size, as the page source
+ * does for each page. The baseline {@link #constructWithHashSet()} computes the retained size of the values
+ * by a per-block set of the value buffers, which is how the block computed it before.
+ * <p/>
+ * Run it by the main method of this class.
+ */
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class BenchmarkVarcharArrayBlock
+{
+    @Param({"1000", "10000"})
+    private int positionCount;
+
+    /**
+     * shared: all the values are in the same buffer, as the values decoded from a column chunk;
+     * separate: each value has its own buffer, as the values copied from other blocks.
+     */
+    @Param({"shared", "separate"})
+    private String layout;
+
+    private byte[][] values;
+    private int[] offsets;
+    private int[] lengths;
+    private boolean[] valueIsNull;
+
+    @Setup
+    public void setup()
+    {
+        Random random = new Random(0);
+        values = new byte[positionCount][];
+        offsets = new int[positionCount];
+        lengths = new int[positionCount];
+        valueIsNull = new boolean[positionCount];
+        byte[] buffer = new byte[positionCount * 16];
+        random.nextBytes(buffer);
+        for (int i = 0; i < positionCount; ++i)
+        {
+            valueIsNull[i] = random.nextInt(10) == 0;
+            lengths[i] = valueIsNull[i] ? 0 : 1 + random.nextInt(16);
+            if (layout.equals("shared"))
+            {
+                values[i] = buffer;
+                offsets[i] = i * 16;
+            }
+            else
+            {
+                values[i] = new byte[lengths[i]];
+            }
+        }
+    }
+
+    @Benchmark
+    public long construct()
+    {
+        return new VarcharArrayBlock(positionCount, values, offsets, lengths, valueIsNull).getRetainedSizeInBytes();
+    }
+
+    @Benchmark
+    public long constructWithHashSet()
+    {
+        VarcharArrayBlock block = new VarcharArrayBlock(positionCount, values, offsets, lengths, valueIsNull);
+        long retainedSize = 0L;
+        Set<byte[]> existingValues = new HashSet<>(2);
+        for (int i = 0; i < positionCount; ++i)
+        {
+            if (!valueIsNull[i] && existingValues.add(values[i]))
+            {
+                retainedSize += values[i].length;
+            }
+        }
+        return block.getSizeInBytes() + retainedSize + sizeOf(values);
+    }
+
+    public static void main(String[] args) throws RunnerException
+    {
+        new Runner(new OptionsBuilder().include(BenchmarkVarcharArrayBlock.class.getSimpleName()).build()).run();
+    }
+}
@@ -20,6 +20,7 @@
 package io.pixelsdb.pixels.trino.block;
 
 import io.airlift.slice.*;
+import io.trino.spi.block.Block;
 import io.trino.spi.block.VariableWidthBlock;
 import org.junit.Test;
 
@@ -65,4 +66,59 @@ public class TestPairVariableWidthBlock
             assert parent3.equals(i, 0, parent2, i, 0, 3);
         }
     }
+
+    @Test
+    public void testFlatten() throws IOException
+    {
+        // build a left-deep tree of 100 leaves, the leaf i contains the values 2i and 2i+1.
+        Block tree = new VariableWidthBlock(2, Slices.utf8Slice("00000001"),
+                new int[] {0, 4, 8}, Optional.empty());
+        for (int i = 1; i < 100; ++i)
+        {
+            VariableWidthBlock leaf = new VariableWidthBlock(2,
+                    Slices.utf8Slice(String.format("%04d%04d", 2 * i, 2 * i + 1)),
+                    new int[] {0, 4, 8}, Optional.empty());
+            tree = new PairVariableWidthBlock(tree, leaf);
+        }
+        MultiVariableWidthBlock flattened = ((PairVariableWidthBlock) tree).flatten();
+        assert flattened.getLeafCount() == 100;
+        assert flattened.getPositionCount() == 200;
+        for (int i = 0; i < flattened.getPositionCount(); ++i)
+        {
+            assert flattened.getSlice(i, 0, 4).toStringUtf8().equals(String.format("%04d", i));
+            assert flattened.equals(i, 0, tree, i, 0, 4);
+        }
+
+        Block region = flattened.getRegion(3, 6);
+        assert region.getPositionCount() == 6;
+        assert region.getSlice(0, 0, 4).toStringUtf8().equals("0003");
+        assert region.getSlice(5, 0, 4).toStringUtf8().equals("0008");
+
+        VariableWidthBlock compacted = flattened.compact();
+        assert compacted.getPositionCount() == 200;
+        assert compacted.getSlice(199, 0, 4).toStringUtf8().equals("0199");
+        assert MultiVariableWidthBlock.concat(region, compacted) instanceof MultiVariableWidthBlock;
+        assert MultiVariableWidthBlock.concat(tree, flattened) instanceof VariableWidthBlock;
+
+        Block withNull = flattened.copyWithAppendedNull();
+        assert withNull.getPositionCount() == 201 && withNull.isNull(200);
+        Block copied = withNull.copyPositions(new int[] {200, 7, 150}, 0, 3);
+        assert copied.isNull(0) && !copied.isNull(1);
+        assert copied.getSlice(2, 0, 4).toStringUtf8().equals("0150");
+
+        MultiVariableWidthBlockEncoding encoding = MultiVariableWidthBlockEncoding.Instance();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(4096);
+        SliceOutput sliceOutput = new OutputStreamSliceOutput(outputStream);
+        encoding.writeBlock(null, sliceOutput, flattened);
+        sliceOutput.flush();
+        sliceOutput.close();
+        SliceInput sliceInput = new InputStreamSliceInput(new ByteArrayInputStream(outputStream.toByteArray()));
+        MultiVariableWidthBlock decoded = (MultiVariableWidthBlock) encoding.readBlock(null, sliceInput);
+        sliceInput.close();
+        assert decoded.getLeafCount() == flattened.getLeafCount();
+        for (int i = 0; i < decoded.getPositionCount(); ++i)
+        {
+            assert decoded.equals(i, 0, flattened, i, 0, 4);
+        }
+    }
 }
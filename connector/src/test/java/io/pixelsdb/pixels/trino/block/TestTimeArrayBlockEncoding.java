@@ -0,0 +1,88 @@
+/*
+ * Copyright 2026 PixelsDB.
+ *
+ * This file is part of Pixels.
+ *
+ * Pixels is free software: you can redistribute it and/or modify
+ * it under the terms of the Affero GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * Pixels is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * Affero GNU General Public License for more details.
+ *
+ * You should have received a copy of the Affero GNU General Public
+ * License along with Pixels.  If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package io.pixelsdb.pixels.trino.block;
+
+import io.airlift.slice.*;
+import io.trino.spi.block.Block;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+public class TestTimeArrayBlockEncoding
+{
+    private static Block roundTrip(Block block) throws IOException
+    {
+        TimeArrayBlockEncoding encoding = TimeArrayBlockEncoding.Instance();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(1024);
+        SliceOutput sliceOutput = new OutputStreamSliceOutput(outputStream);
+        encoding.writeBlock(null, sliceOutput, block);
+        sliceOutput.flush();
+        sliceOutput.close();
+
+        SliceInput sliceInput = new InputStreamSliceInput(new ByteArrayInputStream(outputStream.toByteArray()));
+        Block decoded = encoding.readBlock(null, sliceInput);
+        sliceInput.close();
+        return decoded;
+    }
+
+    private static void assertSameValues(Block expected, Block actual)
+    {
+        assert expected.getPositionCount() == actual.getPositionCount();
+        for (int i = 0; i < expected.getPositionCount(); ++i)
+        {
+            assert expected.isNull(i) == actual.isNull(i);
+            if (!expected.isNull(i))
+            {
+                assert expected.getLong(i, 0) == actual.getLong(i, 0);
+            }
+        }
+    }
+
+    @Test
+    public void testWithNulls() throws IOException
+    {
+        int[] values = new int[] {0, 3600000, 0, 86399999, 45296789};
+        boolean[] isNull = new boolean[] {false, false, true, false, false};
+        TimeArrayBlock block = new TimeArrayBlock(5, isNull, values);
+
+        assertSameValues(block, roundTrip(block));
+        assertSameValues(block.getRegion(1, 3), roundTrip(block.getRegion(1, 3)));
+        assertSameValues(block.copyPositions(new int[] {4, 2, 0}, 0, 3),
+                roundTrip(block.copyPositions(new int[] {4, 2, 0}, 0, 3)));
+    }
+
+    @Test
+    public void testWithoutNulls() throws IOException
+    {
+        int numRows = 10000;
+        int[] values = new int[numRows];
+        for (int i = 0; i < numRows; ++i)
+        {
+            values[i] = i * 8639;
+        }
+        TimeArrayBlock block = new TimeArrayBlock(numRows, new boolean[numRows], values);
+
+        assertSameValues(block, roundTrip(block));
+        assert block.getRegion(0, numRows) == block;
+        assertSameValues(block.getRegion(123, 4567), roundTrip(block.getRegion(123, 4567)));
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2026 PixelsDB.
+ *
+ * This file is part of Pixels.
+ *
+ * Pixels is free software: you can redistribute it and/or modify
+ * it under the terms of the Affero GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * Pixels is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * Affero GNU General Public License for more details.
+ *
+ * You should have received a copy of the Affero GNU General Public
+ * License along with Pixels.  If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package io.pixelsdb.pixels.trino.block;
+
+import io.airlift.slice.*;
+import io.trino.spi.block.Block;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+public class TestVarcharArrayBlockEncoding
+{
+    private static Block roundTrip(Block block) throws IOException
+    {
+        VarcharArrayBlockEncoding encoding = VarcharArrayBlockEncoding.Instance();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(1024);
+        SliceOutput sliceOutput = new OutputStreamSliceOutput(outputStream);
+        encoding.writeBlock(null, sliceOutput, block);
+        sliceOutput.flush();
+        sliceOutput.close();
+
+        SliceInput sliceInput = new InputStreamSliceInput(new ByteArrayInputStream(outputStream.toByteArray()));
+        Block decoded = encoding.readBlock(null, sliceInput);
+        sliceInput.close();
+        return decoded;
+    }
+
+    private static void assertSameValues(Block expected, Block actual)
+    {
+        assert expected.getPositionCount() == actual.getPositionCount();
+        for (int i = 0; i < expected.getPositionCount(); ++i)
+        {
+            assert expected.isNull(i) == actual.isNull(i);
+            if (!expected.isNull(i))
+            {
+                int length = expected.getSliceLength(i);
+                assert actual.getSliceLength(i) == length;
+                assert expected.getSlice(i, 0, length).equals(actual.getSlice(i, 0, length));
+            }
+        }
+    }
+
+    @Test
+    public void testSharedBackingArray() throws IOException
+    {
+        // the positions share one backing array, as the blocks built from BinaryColumnVector.
+        byte[] buffer = "123456789abcdefghi".getBytes(StandardCharsets.UTF_8);
+        byte[][] values = new byte[][] {buffer, buffer, null, buffer, buffer};
+        int[] offsets = new int[] {0, 3, 0, 9, 12};
+        int[] lengths = new int[] {3, 6, 0, 3, 6};
+        boolean[] isNull = new boolean[] {false, false, true, false, false};
+        VarcharArrayBlock block = new VarcharArrayBlock(5, values, offsets, lengths, isNull);
+
+        assertSameValues(block, roundTrip(block));
+        assertSameValues(block.getRegion(1, 3), roundTrip(block.getRegion(1, 3)));
+    }
+
+    @Test
+    public void testSeparateBackingArrays() throws IOException
+    {
+        byte[][] values = new byte[][] {
+                "qwe".getBytes(StandardCharsets.UTF_8),
+                "".getBytes(StandardCharsets.UTF_8),
+                "rtyuio".getBytes(StandardCharsets.UTF_8),
+                null};
+        int[] offsets = new int[] {0, 0, 2, 0};
+        int[] lengths = new int[] {3, 0, 4, 0};
+        boolean[] isNull = new boolean[] {false, false, false, true};
+        VarcharArrayBlock block = new VarcharArrayBlock(4, values, offsets, lengths, isNull);
+
+        assertSameValues(block, roundTrip(block));
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2026 PixelsDB.
+ *
+ * This file is part of Pixels.
+ *
+ * Pixels is free software: you can redistribute it and/or modify
+ * it under the terms of the Affero GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * Pixels is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * Affero GNU General Public License for more details.
+ *
+ * You should have received a copy of the Affero GNU General Public
+ * License along with Pixels.  If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package io.pixelsdb.pixels.trino.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.pixelsdb.pixels.core.TypeDescription;
+import io.pixelsdb.pixels.core.stats.ColumnStats;
+import io.pixelsdb.pixels.core.stats.StatsRecorder;
+import io.pixelsdb.pixels.trino.PixelsColumnHandle;
+import io.trino.spi.predicate.Domain;
+import io.trino.spi.predicate.Range;
+import io.trino.spi.predicate.TupleDomain;
+import io.trino.spi.predicate.ValueSet;
+import org.junit.Test;
+
+import java.util.List;
+
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.DoubleType.DOUBLE;
+
+public class TestPixelsTupleDomainPredicate
+{
+    private static final PixelsColumnHandle KEY = new PixelsColumnHandle("pixels", "test", "t", "key", "key",
+            BIGINT, TypeDescription.Category.LONG, "", 0);
+    private static final PixelsColumnHandle PRICE = new PixelsColumnHandle("pixels", "test", "t", "price", "price",
+            DOUBLE, TypeDescription.Category.DOUBLE, "", 1);
+    private static final List<PixelsTupleDomainPredicate.ColumnReference<PixelsColumnHandle>> COLUMN_REFERENCES =
+            ImmutableList.of(new PixelsTupleDomainPredicate.ColumnReference<>(KEY, 0, BIGINT),
+                    new PixelsTupleDomainPredicate.ColumnReference<>(PRICE, 1, DOUBLE));
+
+    private static StatsRecorder createLongStats(long min, long max)
+    {
+        StatsRecorder stats = StatsRecorder.create(TypeDescription.fromString("bigint"));
+        stats.updateInteger(min, 1);
+        stats.updateInteger(max, 1);
+        return stats;
+    }
+
+    private static StatsRecorder createDoubleStats(double min, double max)
+    {
+        StatsRecorder stats = StatsRecorder.create(TypeDescription.fromString("double"));
+        stats.updateDouble(min);
+        stats.updateDouble(max);
+        return stats;
+    }
+
+    private static PixelsTupleDomainPredicate<PixelsColumnHandle> createPredicate(PixelsColumnHandle column,
+                                                                                  Domain domain)
+    {
+        return new PixelsTupleDomainPredicate<>(TupleDomain.withColumnDomains(ImmutableMap.of(column, domain)),
+                COLUMN_REFERENCES);
+    }
+
+    /**
+     * @param nullCount the number of null values in the row group besides the values in the statistics
+     */
+    private static boolean matches(PixelsTupleDomainPredicate<PixelsColumnHandle> predicate, int columnIndex,
+                                   ColumnStats stats, long nullCount)
+    {
+        return predicate.matches(stats.getNumberOfValues() + nullCount, ImmutableMap.of(columnIndex, stats));
+    }
+
+    @Test
+    public void testLongDiscreteValues()
+    {
+        // key in (50, 5, 20)
+        PixelsTupleDomainPredicate<PixelsColumnHandle> predicate = createPredicate(KEY, Domain.multipleValues(
+                BIGINT, ImmutableList.of(50L, 5L, 20L)));
+        assert matches(predicate, 0, createLongStats(10, 30), 0);
+        assert !matches(predicate, 0, createLongStats(21, 49), 0);
+        assert !matches(predicate, 0, createLongStats(0, 4), 0);
+        assert !matches(predicate, 0, createLongStats(51, 100), 0);
+        // the bounds of the statistics are inclusive.
+        assert matches(predicate, 0, createLongStats(1, 5), 0);
+        assert matches(predicate, 0, createLongStats(50, 50), 0);
+
+        // key = 5 or key is null
+        predicate = createPredicate(KEY, Domain.create(ValueSet.of(BIGINT, 5L), true));
+        assert !matches(predicate, 0, createLongStats(10, 30), 0);
+        assert matches(predicate, 0, createLongStats(10, 30), 1);
+    }
+
+    @Test
+    public void testDoubleDiscreteValues()
+    {
+        // price in (1.5, -0.0)
+        PixelsTupleDomainPredicate<PixelsColumnHandle> predicate = createPredicate(PRICE, Domain.multipleValues(
+                DOUBLE, ImmutableList.of(1.5, -0.0)));
+        // -0.0 equals to the minimum 0.0, although they are different in the binary search.
+        assert matches(predicate, 1, createDoubleStats(0.0, 1.0), 0);
+        assert matches(predicate, 1, createDoubleStats(1.0, 2.0), 0);
+        assert !matches(predicate, 1, createDoubleStats(0.5, 1.0), 0);
+        assert !matches(predicate, 1, createDoubleStats(1.6, 2.0), 0);
+        assert !matches(predicate, 1, createDoubleStats(-2.0, -1.0), 0);
+    }
+
+    @Test
+    public void testRanges()
+    {
+        // the ranges are not discrete values, they are checked by the domain of the statistics.
+        PixelsTupleDomainPredicate<PixelsColumnHandle> predicate = createPredicate(KEY,
+                Domain.create(ValueSet.ofRanges(Range.greaterThan(BIGINT, 100L)), false));
+        assert !matches(predicate, 0, createLongStats(10, 30), 0);
+        assert !matches(predicate, 0, createLongStats(10, 100), 0);
+        assert matches(predicate, 0, createLongStats(90, 110), 0);
+
+        // the statistics of the other columns do not affect the predicate.
+        assert matches(predicate, 1, createDoubleStats(0.0, 1.0), 0);
+    }
+}